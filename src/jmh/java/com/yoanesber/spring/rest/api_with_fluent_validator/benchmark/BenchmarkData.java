@@ -0,0 +1,59 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.benchmark;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.NetflixShows;
+
+// Sample payloads shared by the benchmarks, taken from the README examples
+final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    static NetflixShowsDTO validShow() {
+        NetflixShowsDTO dto = new NetflixShowsDTO();
+        dto.setId(1L);
+        dto.setShowType("TV_SHOW");
+        dto.setTitle("The Smart Money Woman");
+        dto.setDirector("Bunmi Ajakaiye");
+        dto.setCastMembers("Osas Ighodaro, Ini Dima-Okojie, Kemi Lala Akindoju, Toni Tones, Ebenezer Eno, Eso Okolocha DIke, Patrick Diabuah, Karibi Fubara, Temisan Emmanuel, Timini Egbuson");
+        dto.setCountry("India");
+        dto.setDateAdded(Date.valueOf("2021-09-16"));
+        dto.setReleaseYear(2020);
+        dto.setRating(5);
+        dto.setDurationInMinute(90);
+        dto.setListedIn("International TV Shows, Romantic TV Shows, TV Comedies");
+        dto.setDescription("Five glamorous millennials strive for success as they juggle careers, finances, love and friendships. Based on Arese Ugwu's 2016 best-selling novel.");
+        return dto;
+    }
+
+    static NetflixShowsDTO invalidShow() {
+        NetflixShowsDTO dto = validShow();
+        dto.setShowType("TV Show");
+        dto.setTitle("King of Boys: The Return of the King ¶");
+        dto.setCountry("United States, The United Kingdom of Great Britain and Northern Ireland ¶");
+        dto.setRating(70);
+        return dto;
+    }
+
+    static NetflixShows entity(long id) {
+        NetflixShowsDTO dto = validShow();
+        return new NetflixShows(id, EShowType.valueOf(dto.getShowType()), dto.getTitle(), dto.getDirector(),
+            dto.getCastMembers(), dto.getCountry(), dto.getDateAdded(), dto.getReleaseYear(), dto.getRating(),
+            dto.getDurationInMinute(), dto.getListedIn(), dto.getDescription(), 0L, Instant.EPOCH);
+    }
+
+    static List<NetflixShowsDTO> shows(int size) {
+        List<NetflixShowsDTO> shows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            NetflixShowsDTO dto = validShow();
+            dto.setId((long) i + 1);
+            shows.add(dto);
+        }
+        return shows;
+    }
+}
@@ -0,0 +1,119 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsProtobufCodec;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+
+// Compares the response and request formats negotiated by the list and batch endpoints
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    // Configured the same way as the ObjectMappers of BinaryFormatConfig
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final NetflixShowsProtobufCodec codec = new NetflixShowsProtobufCodec(jsonMapper);
+
+    // Discards the bytes, like a response stream that is never full
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    // Null for protobuf
+    private ObjectMapper objectMapper;
+
+    private ObjectReader listReader;
+
+    private List<NetflixShowsDTO> shows;
+
+    // Body of a batch create with the shows
+    private byte[] encodedShows;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> jsonMapper;
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> null;
+        };
+        shows = BenchmarkData.shows(size);
+
+        if (objectMapper == null) {
+            encodedShows = codec.encodeShows(shows);
+        } else {
+            listReader = objectMapper.readerFor(new TypeReference<List<NetflixShowsDTO>>() {});
+            encodedShows = objectMapper.writeValueAsBytes(shows);
+        }
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        write(response);
+        System.out.printf("%n%s, %d shows: response %d bytes, request %d bytes%n", format, size, response.size(), encodedShows.length);
+    }
+
+    // What the message converter of the format does for a list response
+    @Benchmark
+    public void encodeListResponse() throws IOException {
+        write(out);
+    }
+
+    // What the message converter of the format does for a batch create body
+    @Benchmark
+    public List<NetflixShowsDTO> decodeList() throws IOException {
+        if (objectMapper == null) {
+            return codec.readShows(new ByteArrayInputStream(encodedShows));
+        }
+
+        return listReader.readValue(encodedShows);
+    }
+
+    private void write(OutputStream stream) throws IOException {
+        CustomHttpResponse response = new CustomHttpResponse(HttpStatus.OK.value(), "NetflixShows retrieved successfully", shows);
+        if (objectMapper == null) {
+            codec.writeResponse(response, stream);
+        } else {
+            objectMapper.writeValue(stream, response);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Closed-loop HTTP load generator for comparing the platform-thread and virtual-thread execution modes.
+// Start the application in each mode, then run:
+//   mvn -Pbenchmark -DskipTests test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.yoanesber.spring.rest.api_with_fluent_validator.benchmark.LoadTest \
+//     -Dexec.args="http://localhost:8081/api/v1/netflix-shows/1 1000 30"
+public final class LoadTest {
+    private static final int MAX_SAMPLES = 1 << 20;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8081/api/v1/netflix-shows/1");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicInteger samples = new AtomicInteger();
+        AtomicLongArray latencies = new AtomicLongArray(MAX_SAMPLES);
+
+        // One virtual thread per simulated client, so the generator itself is never the bottleneck
+        // (the client is declared first so it is closed only after every simulated client has finished)
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+            ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            (response.statusCode() < 500 ? succeeded : failed).incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+
+                        int sample = samples.getAndIncrement();
+                        if (sample < MAX_SAMPLES) {
+                            latencies.set(sample, System.nanoTime() - start);
+                        }
+                    }
+                });
+            }
+        }
+
+        long[] sorted = new long[Math.min(samples.get(), MAX_SAMPLES)];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+
+        System.out.printf("uri=%s concurrency=%d duration=%ds%n", uri, concurrency, duration.toSeconds());
+        System.out.printf("requests=%d failed=%d throughput=%.1f req/s%n", succeeded.get() + failed.get(), failed.get(),
+            (succeeded.get() + failed.get()) / (double) duration.toSeconds());
+        System.out.printf("latency p50=%.1fms p99=%.1fms max=%.1fms%n", percentile(sorted, 0.50), percentile(sorted, 0.99),
+            percentile(sorted, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.NetflixShows;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private NetflixShows entity;
+
+    @Setup
+    public void setup() {
+        entity = BenchmarkData.entity(1L);
+    }
+
+    @Benchmark
+    public NetflixShowsDTO entityToDto() {
+        return new NetflixShowsDTO(entity);
+    }
+}
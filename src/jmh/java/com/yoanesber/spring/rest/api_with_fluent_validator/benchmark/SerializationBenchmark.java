@@ -0,0 +1,93 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsJsonEncoder;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    // Configured the same way as the ObjectMapper Spring Boot creates for the controllers
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final NetflixShowsJsonEncoder encoder = new NetflixShowsJsonEncoder(objectMapper);
+
+    private final byte[] message = encoder.encodeMessage("NetflixShows retrieved successfully");
+
+    // Discards the bytes, like a response stream that is never full; unlike OutputStream.nullOutputStream() it stays usable after close
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private List<NetflixShowsDTO> shows;
+
+    // Encodings as held by a warm NetflixShowsJsonCacheService
+    private List<byte[]> encodedShows;
+
+    @Setup
+    public void setup() {
+        shows = BenchmarkData.shows(size);
+        encodedShows = new ArrayList<>(size);
+        for (NetflixShowsDTO show : shows) {
+            encodedShows.add(encoder.encode(show));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeListResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new CustomHttpResponse(HttpStatus.OK.value(), 
+            "NetflixShows retrieved successfully", shows));
+    }
+
+    // What the Jackson message converter does for a CustomHttpResponse
+    @Benchmark
+    public void writeListResponse() throws IOException {
+        objectMapper.writeValue(out, new CustomHttpResponse(HttpStatus.OK.value(), 
+            "NetflixShows retrieved successfully", shows));
+    }
+
+    // What PreEncodedHttpResponseConverter does for a list served from the JSON cache
+    @Benchmark
+    public void writePreEncodedListResponse() throws IOException {
+        List<byte[]> data = new ArrayList<>(encodedShows.size());
+        for (byte[] encodedShow : encodedShows) {
+            data.add(encodedShow);
+        }
+        encoder.response(HttpStatus.OK.value(), message, data).writeTo(out);
+    }
+}
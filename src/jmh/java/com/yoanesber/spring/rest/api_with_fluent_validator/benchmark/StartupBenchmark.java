@@ -0,0 +1,112 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.benchmark;
+
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cold-start benchmark for comparing the JVM and native builds. Each run starts the application, polls the URI
+// until it answers without a server error, reports the elapsed time (time to first successful request) and the
+// resident set size of the process at that point, then stops the application. Build both artifacts, then run:
+//   mvn -Pbenchmark -DskipTests test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.yoanesber.spring.rest.api_with_fluent_validator.benchmark.StartupBenchmark \
+//     -Dexec.args="http://localhost:8081/api/v1/netflix-shows?limit=1 10 java -jar target/api-with-fluent-validator-0.0.1-SNAPSHOT.jar"
+// and the same with the command target/api-with-fluent-validator for the native executable.
+public final class StartupBenchmark {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StartupBenchmark <uri> <runs> <command> [arguments...]");
+            System.exit(2);
+        }
+
+        URI uri = URI.create(args[0]);
+        int runs = Integer.parseInt(args[1]);
+        List<String> command = Arrays.asList(args).subList(2, args.length);
+
+        long[] startupMillis = new long[runs];
+        long[] rssKilobytes = new long[runs];
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1)).build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build();
+
+            for (int run = 0; run < runs; run++) {
+                long start = System.nanoTime();
+                Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(Redirect.DISCARD).start();
+                try {
+                    awaitFirstResponse(httpClient, request, process, start);
+                    startupMillis[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    rssKilobytes[run] = rssKilobytes(process.pid());
+                    System.out.printf("run=%d startup=%dms rss=%dMB%n", run + 1, startupMillis[run], rssKilobytes[run] / 1024);
+                } finally {
+                    // Stop gracefully so the port is free for the next run
+                    process.destroy();
+                    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                        process.destroyForcibly().waitFor();
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(startupMillis);
+        Arrays.sort(rssKilobytes);
+        System.out.printf("command=%s uri=%s runs=%d%n", String.join(" ", command), uri, runs);
+        System.out.printf("time to first successful request min=%dms median=%dms max=%dms%n", startupMillis[0],
+            startupMillis[runs / 2], startupMillis[runs - 1]);
+        System.out.printf("rss after first request min=%dMB median=%dMB max=%dMB%n", rssKilobytes[0] / 1024,
+            rssKilobytes[runs / 2] / 1024, rssKilobytes[runs - 1] / 1024);
+    }
+
+    // A 4xx (e.g. 404 on an empty table) still means the request went through the whole stack
+    private static void awaitFirstResponse(HttpClient httpClient, HttpRequest request, Process process, long start)
+        throws InterruptedException {
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue() + " before answering");
+            }
+
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+
+            Thread.sleep(POLL_INTERVAL);
+        }
+
+        throw new IllegalStateException("Application did not answer within " + STARTUP_TIMEOUT.toSeconds() + " seconds");
+    }
+
+    // VmRSS from /proc on Linux, ps elsewhere
+    private static long rssKilobytes(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String rss = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return rss.isEmpty() ? 0 : Long.parseLong(rss);
+    }
+}
@@ -0,0 +1,68 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.impl.ValidatorServiceImpl;
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator;
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.NetflixShowsValidator;
+
+import br.com.fluentvalidator.context.ValidationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+    @Param({"fluent", "compiled"})
+    private String mode;
+
+    private ValidatorServiceImpl validatorService;
+
+    private NetflixShowsDTO validShow;
+
+    private NetflixShowsDTO invalidShow;
+
+    private ValidationResult invalidResult;
+
+    @Setup
+    public void setup() {
+        validatorService = new ValidatorServiceImpl(new NetflixShowsValidator(), new CompiledNetflixShowsValidator(), mode,
+            new SimpleMeterRegistry(), 1000);
+        validShow = BenchmarkData.validShow();
+        invalidShow = BenchmarkData.invalidShow();
+        invalidResult = validatorService.validateNetflixShows(invalidShow);
+    }
+
+    @Benchmark
+    public ValidationResult validateValid() {
+        return validatorService.validateNetflixShows(validShow);
+    }
+
+    @Benchmark
+    public ValidationResult validateInvalid() {
+        return validatorService.validateNetflixShows(invalidShow);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> getErrorList() {
+        return validatorService.getErrorList(invalidResult);
+    }
+}
@@ -0,0 +1,101 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.changefeed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// The most recent changes of the feed in sequence order, kept in a fixed-size ring so subscribers close to the head
+// catch up without reading the outbox. Every change after floor() that was appended is still here.
+// Thread-safe: one poller appends while the dispatch threads read.
+public class NetflixShowsChangeBuffer {
+    // A change rendered once as an SSE event and sent as is to every subscriber
+    public record Change(long seq, String name, String data) {
+    }
+
+    private final Change[] ring;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Index of the oldest change
+    private int start;
+
+    private int size;
+
+    // Sequence number of the last change that is no longer (or never was) in the ring
+    private long floor;
+
+    public NetflixShowsChangeBuffer(int capacity, long floor) {
+        this.ring = new Change[capacity];
+        this.floor = floor;
+    }
+
+    public long floor() {
+        lock.readLock().lock();
+        try {
+            return floor;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sequence number of the newest change, or floor() when the ring is empty
+    public long head() {
+        lock.readLock().lock();
+        try {
+            return size == 0 ? floor : ring[(start + size - 1) % ring.length].seq();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Append changes newer than head(), in sequence order, dropping the oldest ones when the ring is full
+    public void append(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Change change : changes) {
+                if (size == ring.length) {
+                    floor = ring[start].seq();
+                    ring[start] = null;
+                    start = (start + 1) % ring.length;
+                    size--;
+                }
+                ring[(start + size) % ring.length] = change;
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Get at most max changes after the sequence number, or null if some of them are no longer in the ring
+    public List<Change> after(long seq, int max) {
+        lock.readLock().lock();
+        try {
+            if (seq < floor) {
+                return null;
+            }
+
+            // Binary search for the first change after seq
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ring[(start + middle) % ring.length].seq() <= seq) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            int count = Math.min(max, size - low);
+            List<Change> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                changes.add(ring[(start + low + i) % ring.length]);
+            }
+
+            return changes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.config;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsBodyReader;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsProtobufCodec;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsProtobufHttpMessageConverter;
+
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class BinaryFormatConfig {
+    // Create a bean for NetflixShowsProtobufCodec; data without a protobuf message is written with the JSON ObjectMapper
+    @Bean
+    public NetflixShowsProtobufCodec netflixShowsProtobufCodec(ObjectMapper objectMapper) {
+        return new NetflixShowsProtobufCodec(objectMapper);
+    }
+
+    // Create a bean for NetflixShowsBodyReader, reading CBOR and Smile with mappers configured like the JSON one
+    @Bean
+    public NetflixShowsBodyReader netflixShowsBodyReader(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder,
+        NetflixShowsProtobufCodec netflixShowsProtobufCodec) {
+        return new NetflixShowsBodyReader(objectMapper, objectMapperBuilder.factory(new CBORFactory()).build(),
+            objectMapperBuilder.factory(new SmileFactory()).build(), netflixShowsProtobufCodec);
+    }
+
+    // Put the CBOR, Smile and protobuf converters after the JSON ones, so JSON stays the default for Accept: */*.
+    // Spring MVC already registers CBOR and Smile converters when their Jackson modules are present, but with a plain
+    // ObjectMapper; they are replaced with ones configured like the JSON converter (spring.jackson.* properties)
+    @Bean
+    public WebMvcConfigurer binaryFormatConfigurer(Jackson2ObjectMapperBuilder objectMapperBuilder,
+        NetflixShowsProtobufCodec netflixShowsProtobufCodec) {
+        ObjectMapper cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                    || converter instanceof MappingJackson2SmileHttpMessageConverter);
+                converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+                converters.add(new MappingJackson2SmileHttpMessageConverter(smileMapper));
+                converters.add(new NetflixShowsProtobufHttpMessageConverter(netflixShowsProtobufCodec));
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.datasource.ReplicaRoutingPostProcessor;
+
+@Configuration
+public class DataSourceConfig {
+    // Route read-only transactions to the replicas listed in netflix-shows.datasource.replica-urls (none by default).
+    // Replicas use the primary's credentials; the post-processor is created before @Value injection, so the
+    // properties are read from the Environment.
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(Environment environment) {
+        List<String> replicaUrls = Arrays.stream(StringUtils.commaDelimitedListToStringArray(
+            environment.getProperty("netflix-shows.datasource.replica-urls", "")))
+            .map(String::trim).filter(StringUtils::hasText).toList();
+
+        return new ReplicaRoutingPostProcessor(replicaUrls,
+            environment.getProperty("spring.datasource.username"),
+            environment.getProperty("spring.datasource.password"),
+            environment.getProperty("netflix-shows.datasource.replica-pool-size", Integer.class, 10),
+            duration(environment, "netflix-shows.datasource.replica-connection-timeout", "1s"),
+            duration(environment, "netflix-shows.datasource.replica-health-check-interval", "5s"));
+    }
+
+    private static Duration duration(Environment environment, String name, String defaultValue) {
+        return ApplicationConversionService.getSharedInstance()
+            .convert(environment.getProperty(name, defaultValue), Duration.class);
+    }
+}
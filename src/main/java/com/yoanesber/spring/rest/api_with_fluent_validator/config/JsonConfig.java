@@ -0,0 +1,36 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.config;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsJsonEncoder;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.PreEncodedHttpResponseConverter;
+
+@Configuration
+public class JsonConfig {
+    // Create a bean for NetflixShowsJsonEncoder, sharing the ObjectMapper of the Jackson message converter
+    @Bean
+    public NetflixShowsJsonEncoder netflixShowsJsonEncoder(ObjectMapper objectMapper) {
+        return new NetflixShowsJsonEncoder(objectMapper);
+    }
+
+    // Put the pre-encoded response converter ahead of the Jackson converter
+    @Bean
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    public WebMvcConfigurer preEncodedHttpResponseConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(0, new PreEncodedHttpResponseConverter());
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.metrics.QueryCountFilter;
+import com.yoanesber.spring.rest.api_with_fluent_validator.metrics.QueryCounter;
+import com.yoanesber.spring.rest.api_with_fluent_validator.metrics.QueryCountingDataSource;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+@Configuration
+public class MetricsConfig {
+    // p50/p99 for the web and repository layers; management.metrics.distribution.* settings take precedence
+    private static final DistributionStatisticConfig DEFAULT_PERCENTILES = DistributionStatisticConfig.builder()
+        .percentiles(0.5, 0.99)
+        .build();
+
+    // Enables @Timed on the service classes
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterFilter defaultPercentilesMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals("http.server.requests") || id.getName().equals("spring.data.repository.invocations")) {
+                    return config.merge(DEFAULT_PERCENTILES);
+                }
+                return config;
+            }
+        };
+    }
+
+    // Wraps the DataSource so statements can be counted per request
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry) {
+        return new QueryCountFilter(meterRegistry);
+    }
+
+    // Applied by Spring Boot to applicationTaskExecutor, which runs Spring MVC async work such as StreamingResponseBody,
+    // so the statements of a streamed response are counted with its request
+    @Bean
+    public TaskDecorator queryCountTaskDecorator() {
+        return QueryCounter::decorate;
+    }
+}
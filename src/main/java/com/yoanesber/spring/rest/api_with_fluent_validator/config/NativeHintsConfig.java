@@ -0,0 +1,60 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import br.com.fluentvalidator.context.Error;
+import br.com.fluentvalidator.context.ValidationResult;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.CacheStatsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.ImportJobDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsBatchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsChangeDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchCriteriaDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsValidationResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.NetflixShows;
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator;
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.NetflixShowsValidator;
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.ValidationPredicates;
+
+// Reflection hints for the native image (mvn -Pnative native:compile). Spring AOT already covers the beans,
+// the JPA entities and @RequestBody types; these are the types it cannot see, e.g. the Object data of CustomHttpResponse.
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.NetflixShowsRuntimeHints.class)
+public class NativeHintsConfig {
+    static class NetflixShowsRuntimeHints implements RuntimeHintsRegistrar {
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Jackson reads and writes these through their Lombok-generated constructors, getters and setters;
+            // NetflixShows and NetflixShowsVersionDTO are also built by Hibernate (JPQL constructor expressions)
+            bindingRegistrar.registerReflectionHints(hints.reflection(), CustomHttpResponse.class, NetflixShowsDTO.class,
+                NetflixShows.class, NetflixShowsBatchResultDTO.class, NetflixShowsValidationResultDTO.class,
+                NetflixShowsSearchCriteriaDTO.class, NetflixShowsSearchResultDTO.class, NetflixShowsVersionDTO.class,
+                CacheStatsDTO.class, ImportJobDTO.class, NetflixShowsChangeDTO.class, NetflixShowsStatsDTO.class,
+                NetflixShowsStatsResultDTO.class);
+
+            // Fluent Validator results, in case a ValidationResult or its errors are serialized
+            bindingRegistrar.registerReflectionHints(hints.reflection(), ValidationResult.class, Error.class);
+
+            // The rule lambdas and method references of NetflixShowsValidator are compiled ahead of time like any
+            // other code; the validator classes are registered so they can still be created and inspected reflectively
+            for (Class<?> validator : new Class<?>[] {NetflixShowsValidator.class, CompiledNetflixShowsValidator.class,
+                ValidationPredicates.class}) {
+                hints.reflection().registerType(validator, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+            }
+        }
+    }
+}
@@ -1,15 +1,33 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator;
 import com.yoanesber.spring.rest.api_with_fluent_validator.validator.NetflixShowsValidator;
 
 @Configuration
 public class ValidatorConfig {
+    private final int maxErrors;
+
+    private final boolean failFast;
+
+    public ValidatorConfig(@Value("${netflix-shows.validator.max-errors:0}") int maxErrors,
+        @Value("${netflix-shows.validator.fail-fast:false}") boolean failFast) {
+        this.maxErrors = maxErrors;
+        this.failFast = failFast;
+    }
+
     // Create a bean for NetflixShowsValidator
     @Bean
     public NetflixShowsValidator netflixShowsValidator() {
-        return new NetflixShowsValidator();
+        return new NetflixShowsValidator(maxErrors, failFast);
+    }
+
+    // Create a bean for CompiledNetflixShowsValidator
+    @Bean
+    public CompiledNetflixShowsValidator compiledNetflixShowsValidator() {
+        return new CompiledNetflixShowsValidator(maxErrors, failFast);
     }
 }
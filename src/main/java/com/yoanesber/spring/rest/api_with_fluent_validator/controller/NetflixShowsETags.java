@@ -0,0 +1,71 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.controller;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+
+// ETags and If-Match versions of NetflixShows, shared by the servlet and reactive controllers
+final class NetflixShowsETags {
+    private NetflixShowsETags() {
+    }
+
+    // The ETag of a show is its version followed by the representation variant, e.g. "3" or "3-f5-cbor"
+    static String eTag(Long version, String variant) {
+        return version == null ? null : "\"" + version + variant + "\"";
+    }
+
+    // Weak ETag of a list page, derived from the id and version of each row so that any insert, update or delete changes it,
+    // followed by the representation variant
+    static String pageETag(List<NetflixShowsVersionDTO> versions, String variant) {
+        long hash = 1;
+        for (NetflixShowsVersionDTO version : versions) {
+            hash = 31 * hash + version.getId();
+            hash = 31 * hash + (version.getVersion() == null ? 0 : version.getVersion());
+        }
+
+        return "W/\"" + Long.toHexString(hash) + variant + "\"";
+    }
+
+    // Suffix telling apart the representations of the same rows: the requested fields as a hex bit mask of their
+    // ordinals and the subtype of a binary format; empty for the full JSON representation
+    static String variant(EnumSet<ENetflixShowsField> fieldSet, MediaType binaryMediaType) {
+        StringBuilder variant = new StringBuilder();
+        if (fieldSet != null) {
+            long mask = 0;
+            for (ENetflixShowsField field : fieldSet) {
+                mask |= 1L << field.ordinal();
+            }
+            variant.append("-f").append(Long.toHexString(mask));
+        }
+        if (binaryMediaType != null) {
+            variant.append('-').append(binaryMediaType.getSubtype());
+        }
+
+        return variant.toString();
+    }
+
+    // Version named by an If-Match header, ignoring the representation variant after it: null when absent or "*",
+    // -1 when it cannot match any version (weak or malformed)
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return -1L;
+        }
+
+        String value = tag.substring(1, tag.length() - 1);
+        int variant = value.indexOf('-');
+        try {
+            return Long.parseLong(variant < 0 ? value : value.substring(0, variant));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.controller;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.ImportJobDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsImportService;
+
+@RestController
+@RequestMapping("/api/v1/imports")
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class NetflixShowsImportController {
+
+    private final NetflixShowsImportService netflixShowsImportService;
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public NetflixShowsImportController(NetflixShowsImportService netflixShowsImportService) {
+        this.netflixShowsImportService = netflixShowsImportService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Object> createImport(@RequestParam(required = false) String path,
+        @RequestParam(required = false) String format,
+        @RequestHeader(name = "Content-Type", required = false) String contentType, InputStream content) {
+        try {
+            // Take the format from the parameter, else from the file extension or the content type
+            String importFormat = format != null ? format.toLowerCase(Locale.ROOT)
+                : path != null ? formatOf(path.substring(path.lastIndexOf('.') + 1))
+                : contentType != null ? formatOf(MediaType.parseMediaType(contentType).getSubtype()) : null;
+
+            // Check if the format is supported
+            if (!"csv".equals(importFormat) && !"ndjson".equals(importFormat)) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(),
+                    "Format must be csv or ndjson", null));
+            }
+
+            // Import the uploaded body
+            if (path == null) {
+                return ResponseEntity.accepted().body(new CustomHttpResponse(HttpStatus.ACCEPTED.value(),
+                    "Import started successfully", netflixShowsImportService.importUpload(content, importFormat)));
+            }
+
+            // Check if the path is a file of the import source directory
+            Path source = netflixShowsImportService.resolveSource(path);
+            if (source == null) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(),
+                    "Path must be a file of the import source directory", null));
+            }
+
+            // Import the file
+            return ResponseEntity.accepted().body(new CustomHttpResponse(HttpStatus.ACCEPTED.value(),
+                "Import started successfully", netflixShowsImportService.importFile(source, importFormat)));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e.getMessage(), null));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Object> getAllImports() {
+        try {
+            // Return the response
+            return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(),
+                "Imports retrieved successfully", netflixShowsImportService.getAllImports()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Object> getImportById(@PathVariable String id) {
+        try {
+            // Get the import by ID
+            ImportJobDTO importJob = netflixShowsImportService.getImport(id);
+
+            // Check if the import is null
+            if (importJob == null) {
+                return notFound();
+            }
+
+            // Return the response
+            return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(),
+                "Import retrieved successfully", importJob));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{id}/rejects")
+    public ResponseEntity<Object> getImportRejects(@PathVariable String id) {
+        try {
+            // Get the reject file of the import
+            Path rejectFile = netflixShowsImportService.getRejectFile(id);
+
+            // Check if the import is null
+            if (rejectFile == null) {
+                return notFound();
+            }
+
+            // Stream one rejected record with its errors per line
+            return ResponseEntity.ok().contentType(APPLICATION_NDJSON)
+                .body(Files.exists(rejectFile) ? new FileSystemResource(rejectFile) : new byte[0]);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<Object> resumeImport(@PathVariable String id) {
+        try {
+            // Resume the import
+            ImportJobDTO importJob = netflixShowsImportService.resumeImport(id);
+
+            // Check if the import is null
+            if (importJob == null) {
+                return notFound();
+            }
+
+            // Return the response
+            return ResponseEntity.accepted().body(new CustomHttpResponse(HttpStatus.ACCEPTED.value(),
+                "Import resumed successfully", importJob));
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e.getMessage(), null));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Object> cancelImport(@PathVariable String id) {
+        try {
+            // Cancel the import
+            ImportJobDTO importJob = netflixShowsImportService.cancelImport(id);
+
+            // Check if the import is null
+            if (importJob == null) {
+                return notFound();
+            }
+
+            // Return the response
+            return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(),
+                "Import cancellation requested successfully", importJob));
+        } catch (IllegalStateException e) {
+            return conflict(e);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                e.getMessage(), null));
+        }
+    }
+
+    // "csv" and "text/csv" -> csv, "ndjson", "jsonl" and "application/x-ndjson" -> ndjson
+    private static String formatOf(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "csv" -> "csv";
+            case "ndjson", "x-ndjson", "jsonl" -> "ndjson";
+            default -> null;
+        };
+    }
+
+    private static ResponseEntity<Object> notFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new CustomHttpResponse(HttpStatus.NOT_FOUND.value(),
+            "Import not found", null));
+    }
+
+    private static ResponseEntity<Object> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new CustomHttpResponse(HttpStatus.CONFLICT.value(),
+            e.getMessage(), null));
+    }
+}
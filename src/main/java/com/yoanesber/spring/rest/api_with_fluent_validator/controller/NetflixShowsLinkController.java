@@ -0,0 +1,91 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.controller;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ELinkType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsIndexService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class NetflixShowsLinkController {
+
+    private final NetflixShowsIndexService netflixShowsIndexService;
+
+    private final NetflixShowsService netflixShowsService;
+
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public NetflixShowsLinkController(NetflixShowsIndexService netflixShowsIndexService,
+    NetflixShowsService netflixShowsService) {
+        this.netflixShowsIndexService = netflixShowsIndexService;
+        this.netflixShowsService = netflixShowsService;
+    }
+
+    @GetMapping("/genres/{genres}/shows")
+    public ResponseEntity<Object> getNetflixShowsByGenres(@PathVariable List<String> genres,
+        @RequestParam(required = false) Long after, @RequestParam(defaultValue = "100") Integer limit) {
+        return getLinkedNetflixShows(ELinkType.GENRE, genres, after, limit);
+    }
+
+    @GetMapping("/people/{people}/shows")
+    public ResponseEntity<Object> getNetflixShowsByPeople(@PathVariable List<String> people,
+        @RequestParam(required = false) Long after, @RequestParam(defaultValue = "100") Integer limit) {
+        return getLinkedNetflixShows(ELinkType.PERSON, people, after, limit);
+    }
+
+    private ResponseEntity<Object> getLinkedNetflixShows(ELinkType linkType, List<String> names, Long after, Integer limit) {
+        try {
+            // Check if the limit is within range
+            if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "Limit must be between 1 and " + MAX_PAGE_LIMIT, null));
+            }
+
+            // Check if at least one name is given
+            List<String> trimmed = names.stream().map(String::trim).filter(name -> !name.isEmpty()).toList();
+            if (trimmed.isEmpty()) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "At least one name must be provided", null));
+            }
+
+            // Intersect the index lists after the cursor & Load the page of NetflixShows
+            long[] ids = netflixShowsIndexService.findShowIds(linkType, trimmed, after, limit);
+            List<NetflixShowsDTO> netflixShows = netflixShowsService.getNetflixShowsByIds(ids);
+
+            // Check if the list is empty
+            if (netflixShows.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new CustomHttpResponse(HttpStatus.NOT_FOUND.value(), 
+                    "No NetflixShows found", null));
+            }
+
+            // A full page means there may be more rows, so hand out the cursor for the next one
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (ids.length == limit) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(ids[ids.length - 1]));
+            }
+
+            // Return the response
+            return response.body(new CustomHttpResponse(HttpStatus.OK.value(), 
+                "NetflixShows retrieved successfully", netflixShows));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+    }
+}
@@ -1,38 +1,171 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.controller;
 
+import static com.yoanesber.spring.rest.api_with_fluent_validator.controller.NetflixShowsETags.eTag;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.controller.NetflixShowsETags.expectedVersion;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.controller.NetflixShowsETags.pageETag;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.controller.NetflixShowsETags.variant;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.InvalidProtocolBufferException;
 
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsBatchResultDTO;
 import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchCriteriaDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsValidationResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsBodyReader;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsJsonEncoder;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsProtobufCodec;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsProtobufHttpMessageConverter;
 import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EDuplicatePolicy;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EStatsGroupBy;
+import com.yoanesber.spring.rest.api_with_fluent_validator.exporter.NetflixShowsCsvWriter;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsCacheService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsChangeFeedService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsDuplicateService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsJsonCacheService;
 import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsStatsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsWriteBehindService;
 import com.yoanesber.spring.rest.api_with_fluent_validator.service.ValidatorService;
 
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator;
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.ValidationPredicates;
+
 import br.com.fluentvalidator.context.ValidationResult;
 
 
 @RestController
 @RequestMapping("/api/v1/netflix-shows")
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class NetflixShowsaController {
 
     private final NetflixShowsService netflixShowsService;
 
     private final ValidatorService validatorService;
 
+    private final NetflixShowsCacheService netflixShowsCacheService;
+
+    private final NetflixShowsJsonCacheService netflixShowsJsonCacheService;
+
+    private final NetflixShowsJsonEncoder netflixShowsJsonEncoder;
+
+    private final NetflixShowsWriteBehindService netflixShowsWriteBehindService;
+
+    private final NetflixShowsStatsService netflixShowsStatsService;
+
+    private final NetflixShowsDuplicateService netflixShowsDuplicateService;
+
+    private final NetflixShowsChangeFeedService netflixShowsChangeFeedService;
+
+    private final NetflixShowsBodyReader netflixShowsBodyReader;
+
+    private final byte[] retrievedMessage;
+
+    private final ObjectWriter ndjsonWriter;
+
+    private final ObjectWriter exportWriter;
+
+    private final ObjectWriter errorWriter;
+
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final List<MediaType> BINARY_MEDIA_TYPES = List.of(MediaType.APPLICATION_CBOR, 
+        NetflixShowsBodyReader.APPLICATION_SMILE, NetflixShowsProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+
+    private static final String RETRIEVED_MESSAGE = "NetflixShows retrieved successfully";
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private static final String FIELDS_INVALID = "Fields must be a comma-separated list of " + ENetflixShowsField.PROPERTY_NAMES;
+
     public NetflixShowsaController(NetflixShowsService netflixShowsService,
-    ValidatorService validatorService) {
+    ValidatorService validatorService, NetflixShowsCacheService netflixShowsCacheService,
+    NetflixShowsJsonCacheService netflixShowsJsonCacheService, NetflixShowsJsonEncoder netflixShowsJsonEncoder,
+    NetflixShowsWriteBehindService netflixShowsWriteBehindService, NetflixShowsStatsService netflixShowsStatsService,
+    NetflixShowsDuplicateService netflixShowsDuplicateService, NetflixShowsChangeFeedService netflixShowsChangeFeedService,
+    NetflixShowsBodyReader netflixShowsBodyReader, ObjectMapper objectMapper) {
         this.netflixShowsService = netflixShowsService;
         this.validatorService = validatorService;
+        this.netflixShowsCacheService = netflixShowsCacheService;
+        this.netflixShowsJsonCacheService = netflixShowsJsonCacheService;
+        this.netflixShowsJsonEncoder = netflixShowsJsonEncoder;
+        this.netflixShowsWriteBehindService = netflixShowsWriteBehindService;
+        this.netflixShowsStatsService = netflixShowsStatsService;
+        this.netflixShowsDuplicateService = netflixShowsDuplicateService;
+        this.netflixShowsChangeFeedService = netflixShowsChangeFeedService;
+        this.retrievedMessage = netflixShowsJsonEncoder.encodeMessage(RETRIEVED_MESSAGE);
+        this.ndjsonWriter = objectMapper.writerFor(NetflixShowsDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.exportWriter = ndjsonWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.errorWriter = objectMapper.writerFor(CustomHttpResponse.class);
+        this.netflixShowsBodyReader = netflixShowsBodyReader;
     }
 
     @PostMapping
@@ -51,9 +184,216 @@ public class NetflixShowsaController {
                     "Validation failed. Please check your input.", validatorService.getErrorList(validationResult)));
             }
 
-            // Create Netflik show & Return the response
+            // Check if the NetflixShows already exists
+            Long duplicateId = netflixShowsDuplicateService.findDuplicateId(netflixShowsDTO);
+            if (duplicateId != null) {
+                return duplicate(duplicateId, netflixShowsDTO);
+            }
+
+            // Create Netflik show, in a transaction shared with concurrent creates when write-behind is enabled
+            NetflixShowsDTO created;
+            if (netflixShowsWriteBehindService.isEnabled()) {
+                CompletableFuture<NetflixShowsDTO> pending = netflixShowsWriteBehindService.submit(netflixShowsDTO);
+
+                // Check if the write-behind buffer is full
+                if (pending == null) {
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(new CustomHttpResponse(HttpStatus.TOO_MANY_REQUESTS.value(), 
+                        "Too many pending NetflixShows creates. Please retry later.", null));
+                }
+
+                // The future fails with a TimeoutException rather than hold the request thread indefinitely
+                created = pending.join();
+            } else {
+                created = netflixShowsService.createNetflixShows(netflixShowsDTO);
+            }
+
+            // Return the response
+            return ResponseEntity.created(null).body(new CustomHttpResponse(HttpStatus.CREATED.value(), 
+                "NetflixShows created successfully", created));
+        } catch (CompletionException e) {
+            // Check if the group did not commit in time
+            if (e.getCause() instanceof TimeoutException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new CustomHttpResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), 
+                    "NetflixShows create did not complete in time. Please retry later.", null));
+            }
+
+            // Check if the same NetflixShows was created concurrently
+            if (netflixShowsDuplicateService.isDuplicateKeyViolation(e.getCause())) {
+                return duplicate(netflixShowsDuplicateService.findDuplicateId(netflixShowsDTO), netflixShowsDTO);
+            }
+
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getCause().getMessage(), null));
+        } catch (Exception e) {
+            if (netflixShowsDuplicateService.isDuplicateKeyViolation(e)) {
+                return duplicate(netflixShowsDuplicateService.findDuplicateId(netflixShowsDTO), netflixShowsDTO);
+            }
+
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createNetflixShowsBatch(@RequestBody List<NetflixShowsDTO> netflixShowsDTOs) {
+        try {
+            // Check if the input is null or empty
+            if (netflixShowsDTOs == null || netflixShowsDTOs.isEmpty()) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "NetflixShowsDTO list must not be null or empty", null));
+            }
+
+            // Check if the batch is too large
+            if (netflixShowsDTOs.size() > MAX_BATCH_SIZE) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "NetflixShowsDTO list must not contain more than " + MAX_BATCH_SIZE + " items", null));
+            }
+
+            // Validate every item and keep the valid ones with their original index
+            Map<Integer, Map<String, List<String>>> errors = validatorService.validateNetflixShowsBatch(netflixShowsDTOs);
+            List<Integer> validIndexes = new ArrayList<>(netflixShowsDTOs.size() - errors.size());
+            List<NetflixShowsDTO> validItems = new ArrayList<>(netflixShowsDTOs.size() - errors.size());
+            for (int i = 0; i < netflixShowsDTOs.size(); i++) {
+                if (!errors.containsKey(i)) {
+                    validIndexes.add(i);
+                    validItems.add(netflixShowsDTOs.get(i));
+                }
+            }
+
+            // Apply the duplicate policy to the creates that match a stored NetflixShows or an earlier item
+            EDuplicatePolicy duplicatePolicy = netflixShowsDuplicateService.getPolicy();
+            Map<Integer, Long> duplicates = netflixShowsDuplicateService.findDuplicateIds(validItems);
+            List<Long> ignoredIds = new ArrayList<>();
+            if (!duplicates.isEmpty()) {
+                List<Integer> createIndexes = new ArrayList<>(validItems.size() - duplicates.size());
+                List<NetflixShowsDTO> createItems = new ArrayList<>(validItems.size() - duplicates.size());
+                for (int i = 0; i < validItems.size(); i++) {
+                    Long duplicateId = duplicates.get(i);
+                    if (duplicateId != null && duplicatePolicy == EDuplicatePolicy.IGNORE) {
+                        ignoredIds.add(duplicateId);
+                    } else if (duplicates.containsKey(i) && (duplicateId == null || duplicatePolicy == EDuplicatePolicy.REJECT)) {
+                        errors.put(validIndexes.get(i), Map.of("Title", List.of(duplicateId == null 
+                            ? NetflixShowsDuplicateService.DUPLICATE_IN_REQUEST : NetflixShowsDuplicateService.DUPLICATE)));
+                    } else {
+                        // Upserts become updates of the stored NetflixShows
+                        if (duplicateId != null) {
+                            validItems.get(i).setId(duplicateId);
+                        }
+                        createIndexes.add(validIndexes.get(i));
+                        createItems.add(validItems.get(i));
+                    }
+                }
+                validIndexes = createIndexes;
+                validItems = createItems;
+            }
+
+            // Persist the valid items in batches; ignored duplicates are returned as stored
+            List<NetflixShowsDTO> saved = new ArrayList<>(validItems.size() + ignoredIds.size());
+            if (!ignoredIds.isEmpty()) {
+                saved.addAll(netflixShowsService.getNetflixShowsByIds(ignoredIds.stream().mapToLong(Long::longValue).toArray()));
+            }
+            if (!validItems.isEmpty()) {
+                List<NetflixShowsDTO> results = netflixShowsService.createNetflixShowsBatch(validItems);
+                for (int i = 0; i < results.size(); i++) {
+                    // Check if the NetflixShows to update was not found
+                    if (results.get(i) == null) {
+                        errors.put(validIndexes.get(i), Map.of("Id", List.of("NetflixShows not found")));
+                    } else {
+                        saved.add(results.get(i));
+                    }
+                }
+            }
+
+            NetflixShowsBatchResultDTO batchResult = new NetflixShowsBatchResultDTO(netflixShowsDTOs.size(), 
+                saved.size(), errors.size(), saved, errors);
+
+            // Check if nothing could be persisted
+            if (saved.isEmpty()) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "Validation failed. Please check your input.", batchResult));
+            }
+
+            // Return the response
             return ResponseEntity.created(null).body(new CustomHttpResponse(HttpStatus.CREATED.value(), 
-                "NetflixShows created successfully", netflixShowsService.createNetflixShows(netflixShowsDTO)));
+                errors.isEmpty() ? "NetflixShows batch processed successfully" : "NetflixShows batch processed with errors", 
+                batchResult));
+        } catch (Exception e) {
+            // Check if one of the NetflixShows was created concurrently; the whole batch was rolled back
+            if (netflixShowsDuplicateService.isDuplicateKeyViolation(e)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(new CustomHttpResponse(HttpStatus.CONFLICT.value(), 
+                    "NetflixShows batch conflicts with a concurrent create. Please retry.", null));
+            }
+
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/validate")
+    public ResponseEntity<Object> validateNetflixShows(InputStream content,
+        @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType) {
+        // Read one NetflixShowsDTO or a list of them in the format of the Content-Type, without touching the database
+        Object body;
+        try {
+            body = netflixShowsBodyReader.read(content, contentType == null ? null : MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException | HttpMediaTypeNotSupportedException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(new CustomHttpResponse(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), 
+                "Content-Type must be application/json, application/cbor, application/x-jackson-smile or application/x-protobuf", null));
+        } catch (JsonProcessingException | InvalidProtocolBufferException e) {
+            return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "Request body must be a NetflixShowsDTO or a list of NetflixShowsDTO", null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+
+        try {
+            // Validate a single item
+            if (body instanceof NetflixShowsDTO netflixShowsDTO) {
+                ValidationResult validationResult = validatorService.validateNetflixShows(netflixShowsDTO);
+                if (!validationResult.isValid()) {
+                    return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                        "Validation failed. Please check your input.", validatorService.getErrorList(validationResult)));
+                }
+
+                return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
+                    "NetflixShows is valid", null));
+            }
+
+            // Check if the input is neither an item nor a list
+            if (!(body instanceof List<?> list)) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "Request body must be a NetflixShowsDTO or a list of NetflixShowsDTO", null));
+            }
+
+            // Check if the list is empty or too large
+            @SuppressWarnings("unchecked")
+            List<NetflixShowsDTO> netflixShowsDTOs = (List<NetflixShowsDTO>) list;
+            if (netflixShowsDTOs.isEmpty()) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "NetflixShowsDTO list must not be null or empty", null));
+            }
+            if (netflixShowsDTOs.size() > MAX_BATCH_SIZE) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "NetflixShowsDTO list must not contain more than " + MAX_BATCH_SIZE + " items", null));
+            }
+
+            // Validate every item; large lists are validated in parallel
+            Map<Integer, Map<String, List<String>>> errors = validatorService.validateNetflixShowsBatch(netflixShowsDTOs);
+            NetflixShowsValidationResultDTO validationResult = new NetflixShowsValidationResultDTO(netflixShowsDTOs.size(), 
+                netflixShowsDTOs.size() - errors.size(), errors.size(), errors);
+
+            // Check if any item is invalid
+            if (!errors.isEmpty()) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "Validation failed. Please check your input.", validationResult));
+            }
+
+            // Return the response
+            return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
+                "NetflixShows batch is valid", validationResult));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
                 e.getMessage(), null));
@@ -61,10 +401,39 @@ public class NetflixShowsaController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllNetflixShows() {
+    public ResponseEntity<Object> getAllNetflixShows(@RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "100") Integer limit, @RequestParam(required = false) String fields, WebRequest request,
+        HttpServletResponse servletResponse) {
         try {
-            // Get all NetflixShows
-            List<NetflixShowsDTO> netflixShows = netflixShowsService.getAllNetflixShows();
+            // Check if the limit is within range
+            if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "Limit must be between 1 and " + MAX_PAGE_LIMIT, null));
+            }
+
+            // Check if the requested fields are known
+            EnumSet<ENetflixShowsField> fieldSet = fields == null ? null : ENetflixShowsField.parse(fields);
+            if (fields != null && fieldSet == null) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    FIELDS_INVALID, null));
+            }
+
+            // The representation depends on the Accept header, so say so on every response including 304 Not Modified
+            MediaType binaryMediaType = binaryMediaType(request);
+            String variant = variant(fieldSet, binaryMediaType);
+            servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+            // Answer a revalidation from the ids and versions of the page without loading the rows
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                List<NetflixShowsVersionDTO> versions = netflixShowsService.getNetflixShowsVersionsPage(after, limit);
+                if (!versions.isEmpty() && request.checkNotModified(pageETag(versions, variant))) {
+                    return null;
+                }
+            }
+
+            // Get the next page of NetflixShows after the cursor, with only the requested columns if any
+            List<NetflixShowsDTO> netflixShows = fieldSet == null ? netflixShowsService.getNetflixShowsPage(after, limit)
+                : netflixShowsService.getNetflixShowsPage(after, limit, fieldSet);
 
             // Check if the list is empty
             if (netflixShows == null || netflixShows.isEmpty()) {
@@ -72,9 +441,232 @@ public class NetflixShowsaController {
                     "No NetflixShows found", null));
             }
 
+            // A full page means there may be more rows, so hand out the cursor for the next one
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(pageETag(netflixShows.stream()
+                .map(n -> new NetflixShowsVersionDTO(n.getId(), n.getVersion(), n.getUpdatedAt())).toList(), variant));
+            if (netflixShows.size() == limit) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(netflixShows.get(netflixShows.size() - 1).getId()));
+            }
+
+            // Binary formats are written by the message converter of the negotiated type named in the ETag
+            if (binaryMediaType != null) {
+                List<Object> data = new ArrayList<>(netflixShows.size());
+                for (NetflixShowsDTO netflixShowsDTO : netflixShows) {
+                    data.add(binaryData(netflixShowsDTO, fieldSet, binaryMediaType));
+                }
+                return response.contentType(binaryMediaType).body(new CustomHttpResponse(HttpStatus.OK.value(), RETRIEVED_MESSAGE, data));
+            }
+
+            // Return the response, splicing in the cached encoding of each NetflixShows or the requested fields
+            List<byte[]> data = new ArrayList<>(netflixShows.size());
+            for (NetflixShowsDTO netflixShowsDTO : netflixShows) {
+                data.add(fieldSet == null ? netflixShowsJsonCacheService.getJson(netflixShowsDTO)
+                    : netflixShowsJsonEncoder.encode(netflixShowsDTO, fieldSet));
+            }
+            return response.body(netflixShowsJsonEncoder.response(HttpStatus.OK.value(), retrievedMessage, data));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchNetflixShows(@RequestParam(required = false) String q,
+        @RequestParam(required = false) String showType, @RequestParam(required = false) String country,
+        @RequestParam(required = false) Integer releaseYearFrom, @RequestParam(required = false) Integer releaseYearTo,
+        @RequestParam(required = false) Integer rating, @RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "100") Integer limit, @RequestParam(defaultValue = "false") Boolean facets) {
+        try {
+            // Check if the limit is within range
+            if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "Limit must be between 1 and " + MAX_PAGE_LIMIT, null));
+            }
+
+            // Check if the show type is known
+            if (showType != null && !ValidationPredicates.isShowType(showType)) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    CompiledNetflixShowsValidator.SHOW_TYPE_INVALID, null));
+            }
+
+            // Check if the release year range is valid
+            if (releaseYearFrom != null && releaseYearTo != null && releaseYearFrom > releaseYearTo) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "ReleaseYearFrom must not be greater than ReleaseYearTo", null));
+            }
+
+            // Search the next page of NetflixShows after the cursor
+            NetflixShowsSearchResultDTO searchResult = netflixShowsService.searchNetflixShows(
+                new NetflixShowsSearchCriteriaDTO(q, showType, country, releaseYearFrom, releaseYearTo, rating), 
+                after, limit, facets);
+
+            // A full page means there may be more matches, so hand out the cursor for the next one
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            List<NetflixShowsDTO> netflixShows = searchResult.getData();
+            if (netflixShows.size() == limit) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(netflixShows.get(netflixShows.size() - 1).getId()));
+            }
+
+            // Return the response
+            return response.body(new CustomHttpResponse(HttpStatus.OK.value(), 
+                "NetflixShows searched successfully", searchResult));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Object> getNetflixShowsStats(@RequestParam(required = false) String groupBy,
+        @RequestParam(required = false) String showType) {
+        try {
+            // Check if the grouping is supported
+            EStatsGroupBy statsGroupBy = null;
+            if (groupBy != null) {
+                switch (groupBy) {
+                    case "country" -> statsGroupBy = EStatsGroupBy.COUNTRY;
+                    case "showType" -> statsGroupBy = EStatsGroupBy.SHOW_TYPE;
+                    case "releaseYear" -> statsGroupBy = EStatsGroupBy.RELEASE_YEAR;
+                    default -> {
+                        return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                            "GroupBy must be country, showType or releaseYear", null));
+                    }
+                }
+            }
+
+            // Check if the show type is known
+            if (showType != null && !ValidationPredicates.isShowType(showType)) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    CompiledNetflixShowsValidator.SHOW_TYPE_INVALID, null));
+            }
+
+            // Aggregate the in-memory snapshot
+            NetflixShowsStatsResultDTO stats = netflixShowsStatsService.getStats(statsGroupBy, 
+                showType == null ? null : EShowType.valueOf(showType));
+
+            // Return the response
+            return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
+                "NetflixShows statistics retrieved successfully", stats));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllNetflixShows() {
+        // Write one JSON document per line while rows are read from the database cursor
+        StreamingResponseBody body = out -> netflixShowsService.streamAllNetflixShows(netflixShows -> {
+            try {
+                ndjsonWriter.writeValue(out, netflixShows);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNetflixShows(@RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(defaultValue = "false") boolean gzip,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateAddedFrom,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateAddedTo) {
+        // Check if the format is supported
+        boolean csv = "csv".equals(format);
+        if (!csv && !"ndjson".equals(format)) {
+            return exportBadRequest("Format must be csv or ndjson");
+        }
+
+        // Check if the date range is valid
+        if (dateAddedFrom != null && dateAddedTo != null && dateAddedFrom.isAfter(dateAddedTo)) {
+            return exportBadRequest("DateAddedFrom must be less than or equal to DateAddedTo");
+        }
+
+        // Write each row as it is read from the database cursor, compressing on the fly when requested
+        StreamingResponseBody body = out -> {
+            OutputStream stream = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+            NetflixShowsCsvWriter csvWriter = new NetflixShowsCsvWriter(writer);
+            if (csv) {
+                csvWriter.writeHeader();
+            }
+
+            netflixShowsService.exportNetflixShows(dateAddedFrom == null ? null : Date.valueOf(dateAddedFrom),
+                dateAddedTo == null ? null : Date.valueOf(dateAddedTo), netflixShows -> {
+                try {
+                    if (csv) {
+                        csvWriter.write(netflixShows);
+                    } else {
+                        exportWriter.writeValue(writer, netflixShows);
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+            if (gzip) {
+                ((GZIPOutputStream) stream).finish();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(csv ? TEXT_CSV : APPLICATION_NDJSON);
+        headers.setContentDisposition(ContentDisposition.attachment().filename("netflix-shows." + format).build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ResponseBodyEmitter> streamNetflixShowsChanges(@RequestParam(required = false) Long after,
+        @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            // A reconnecting EventSource resumes after the last event it received, whatever the original after was
+            if (lastEventId != null) {
+                try {
+                    after = Long.valueOf(lastEventId.trim());
+                } catch (NumberFormatException e) {
+                    return changesError(HttpStatus.BAD_REQUEST, "Last-Event-ID must be a change sequence number");
+                }
+            }
+
+            // Check if the sequence number is valid
+            if (after != null && after < 0) {
+                return changesError(HttpStatus.BAD_REQUEST, "After must be greater than or equal to 0");
+            }
+
+            // Without a sequence number only the changes committed from now on are sent
+            if (after == null) {
+                after = netflixShowsChangeFeedService.getLastSeq();
+            } else if (!netflixShowsChangeFeedService.isRetained(after)) {
+                return changesError(HttpStatus.GONE, 
+                    "Changes after " + after + " are no longer retained; subscribe without after and reload the NetflixShows");
+            }
+
+            // Replay the outbox from the sequence number, then follow new commits
+            SseEmitter emitter = netflixShowsChangeFeedService.subscribe(after);
+            if (emitter == null) {
+                return changesError(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers; retry later");
+            }
+
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+        } catch (Exception e) {
+            return changesError(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Object> getCacheStats() {
+        try {
             // Return the response
             return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
-                "NetflixShows retrieved successfully", netflixShows));
+                "Cache statistics retrieved successfully", netflixShowsCacheService.getStats()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
                 e.getMessage(), null));
@@ -82,7 +674,8 @@ public class NetflixShowsaController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getNetflixShowsById(@PathVariable Long id) {
+    public ResponseEntity<Object> getNetflixShowsById(@PathVariable Long id, @RequestParam(required = false) String fields,
+        WebRequest request, HttpServletResponse servletResponse) {
         try {
             // Check if the ID is null
             if (id == null) {
@@ -90,8 +683,29 @@ public class NetflixShowsaController {
                     "ID must not be null", null));
             }
 
-            // Get the NetflixShows by ID
-            NetflixShowsDTO netflixShows = netflixShowsService.getNetflixShowsById(id);
+            // Check if the requested fields are known
+            EnumSet<ENetflixShowsField> fieldSet = fields == null ? null : ENetflixShowsField.parse(fields);
+            if (fields != null && fieldSet == null) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    FIELDS_INVALID, null));
+            }
+
+            // The representation depends on the Accept header, so say so on every response including 304 Not Modified
+            MediaType binaryMediaType = binaryMediaType(request);
+            String variant = variant(fieldSet, binaryMediaType);
+            servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+            // Answer a revalidation from the version alone (304 Not Modified) without loading the row
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+                NetflixShowsVersionDTO version = netflixShowsService.getNetflixShowsVersion(id);
+                if (version != null && request.checkNotModified(eTag(version.getVersion(), variant), version.getUpdatedAt().toEpochMilli())) {
+                    return null;
+                }
+            }
+
+            // Get the NetflixShows by ID, with only the requested columns if any
+            NetflixShowsDTO netflixShows = fieldSet == null ? netflixShowsService.getNetflixShowsById(id)
+                : netflixShowsService.getNetflixShowsById(id, fieldSet);
 
             // Check if the NetflixShows is null
             if (netflixShows == null) {
@@ -99,9 +713,17 @@ public class NetflixShowsaController {
                     "NetflixShows not found", null));
             }
 
-            // Return the response
-            return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
-                "NetflixShows retrieved successfully", netflixShows));
+            // Return the response with the cached encoding of the NetflixShows or the requested fields;
+            // binary formats are written by the message converter of the negotiated type named in the ETag
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag(netflixShows.getVersion(), variant))
+                .lastModified(netflixShows.getUpdatedAt());
+            if (binaryMediaType != null) {
+                return response.contentType(binaryMediaType).body(new CustomHttpResponse(HttpStatus.OK.value(), RETRIEVED_MESSAGE,
+                    binaryData(netflixShows, fieldSet, binaryMediaType)));
+            }
+
+            return response.body(netflixShowsJsonEncoder.response(HttpStatus.OK.value(), retrievedMessage, fieldSet == null
+                ? netflixShowsJsonCacheService.getJson(netflixShows) : netflixShowsJsonEncoder.encode(netflixShows, fieldSet)));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
                 e.getMessage(), null));
@@ -109,7 +731,8 @@ public class NetflixShowsaController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Object> updateNetflixShows(@PathVariable Long id, @RequestBody NetflixShowsDTO netflixShowsDTO) {
+    public ResponseEntity<Object> updateNetflixShows(@PathVariable Long id, @RequestBody NetflixShowsDTO netflixShowsDTO,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch, WebRequest request) {
         try {
             // Check if the ID and NetflixShowsDTO is null
             if (id == null) {
@@ -129,8 +752,14 @@ public class NetflixShowsaController {
                     "Validation failed. Please check your input.", validatorService.getErrorList(validationResult)));
             }
 
+            // Check if the If-Match header names a version
+            Long expectedVersion = expectedVersion(ifMatch);
+            if (expectedVersion != null && expectedVersion < 0) {
+                return preconditionFailed();
+            }
+
             // Update the NetflixShows
-            NetflixShowsDTO netflixShows = netflixShowsService.updateNetflixShows(id, netflixShowsDTO);
+            NetflixShowsDTO netflixShows = netflixShowsService.updateNetflixShows(id, netflixShowsDTO, expectedVersion);
 
             // Check if the NetflixShows is null
             if (netflixShows == null) {
@@ -138,10 +767,86 @@ public class NetflixShowsaController {
                     "NetflixShows not found", null));
             }
 
-            // Return the response
-            return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
-                "NetflixShows updated successfully", netflixShows));
+            // Return the response with the ETag of the full representation in the negotiated format
+            MediaType binaryMediaType = binaryMediaType(request);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag(netflixShows.getVersion(), variant(null, binaryMediaType))).lastModified(netflixShows.getUpdatedAt());
+            if (binaryMediaType != null) {
+                response.contentType(binaryMediaType);
+            }
+            return response.body(new CustomHttpResponse(HttpStatus.OK.value(), "NetflixShows updated successfully", netflixShows));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
+        } catch (Exception e) {
+            // Check if the new title, release year and show type belong to another NetflixShows
+            if (netflixShowsDuplicateService.isDuplicateKeyViolation(e)) {
+                return duplicate(null, null);
+            }
+
+            return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+                e.getMessage(), null));
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Object> patchNetflixShows(@PathVariable Long id, @RequestBody NetflixShowsDTO netflixShowsDTO,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch, WebRequest request) {
+        try {
+            // Check if the ID and NetflixShowsDTO is null
+            if (id == null) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "ID must not be null", null));
+            }
+
+            if (netflixShowsDTO == null) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "NetflixShowsDTO must not be null", null));
+            }
+
+            // Check if there is anything to update
+            if (isEmptyPatch(netflixShowsDTO)) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "At least one field must be provided", null));
+            }
+
+            // Validate the fields present in the input
+            ValidationResult validationResult = validatorService.validateNetflixShowsPatch(netflixShowsDTO);
+            if (!validationResult.isValid()) {
+                return ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                    "Validation failed. Please check your input.", validatorService.getErrorList(validationResult)));
+            }
+
+            // Check if the If-Match header names a version
+            Long expectedVersion = expectedVersion(ifMatch);
+            if (expectedVersion != null && expectedVersion < 0) {
+                return preconditionFailed();
+            }
+
+            // Patch the NetflixShows
+            NetflixShowsDTO netflixShows = netflixShowsService.patchNetflixShows(id, netflixShowsDTO, expectedVersion);
+
+            // Check if the NetflixShows is null
+            if (netflixShows == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new CustomHttpResponse(HttpStatus.NOT_FOUND.value(), 
+                    "NetflixShows not found", null));
+            }
+
+            // Return the response with the ETag of the full representation in the negotiated format
+            MediaType binaryMediaType = binaryMediaType(request);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag(netflixShows.getVersion(), variant(null, binaryMediaType))).lastModified(netflixShows.getUpdatedAt());
+            if (binaryMediaType != null) {
+                response.contentType(binaryMediaType);
+            }
+            return response.body(new CustomHttpResponse(HttpStatus.OK.value(), "NetflixShows updated successfully", netflixShows));
+        } catch (OptimisticLockingFailureException e) {
+            return preconditionFailed();
         } catch (Exception e) {
+            // Check if the new title, release year and show type belong to another NetflixShows
+            if (netflixShowsDuplicateService.isDuplicateKeyViolation(e)) {
+                return duplicate(null, null);
+            }
+
             return ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
                 e.getMessage(), null));
         }
@@ -170,5 +875,104 @@ public class NetflixShowsaController {
                 e.getMessage(), null));
         }
     }
-    
+
+    // Apply the duplicate policy to a create matching the stored NetflixShows with the given id (null if it is gone)
+    private ResponseEntity<Object> duplicate(Long duplicateId, NetflixShowsDTO netflixShowsDTO) {
+        EDuplicatePolicy duplicatePolicy = netflixShowsDuplicateService.getPolicy();
+        if (duplicateId != null && duplicatePolicy == EDuplicatePolicy.UPSERT) {
+            NetflixShowsDTO updated = netflixShowsService.updateNetflixShows(duplicateId, netflixShowsDTO, null);
+            if (updated != null) {
+                return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
+                    "NetflixShows already exists and was updated", updated));
+            }
+        }
+        if (duplicateId != null && duplicatePolicy == EDuplicatePolicy.IGNORE) {
+            NetflixShowsDTO existing = netflixShowsService.getNetflixShowsById(duplicateId);
+            if (existing != null) {
+                return ResponseEntity.ok(new CustomHttpResponse(HttpStatus.OK.value(), 
+                    "NetflixShows already exists", existing));
+            }
+        }
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new CustomHttpResponse(HttpStatus.CONFLICT.value(), 
+            "Validation failed. Please check your input.", Map.of("Title", List.of(NetflixShowsDuplicateService.DUPLICATE))));
+    }
+
+    // A NetflixShows in a binary format with only the requested fields, as in JSON: even a cached NetflixShows that has
+    // every field. Protobuf leaves the fields that are not set out of the message, CBOR and Smile get the properties by name
+    private static Object binaryData(NetflixShowsDTO netflixShows, EnumSet<ENetflixShowsField> fieldSet, MediaType binaryMediaType) {
+        if (fieldSet == null) {
+            return netflixShows;
+        }
+
+        return binaryMediaType.equalsTypeAndSubtype(NetflixShowsProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+            ? NetflixShowsProtobufCodec.project(netflixShows, fieldSet) : NetflixShowsJsonEncoder.properties(netflixShows, fieldSet);
+    }
+
+    // Binary format (CBOR, Smile or protobuf) that is the most preferred format of the Accept header this API produces,
+    // or null for JSON; wildcards count as JSON and equal qualities keep the header order
+    private static MediaType binaryMediaType(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return null;
+        }
+
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            for (MediaType binaryMediaType : BINARY_MEDIA_TYPES) {
+                if (mediaType.isCompatibleWith(binaryMediaType)) {
+                    return binaryMediaType;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static ResponseEntity<Object> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new CustomHttpResponse(HttpStatus.PRECONDITION_FAILED.value(),
+            "NetflixShows has been modified; fetch the current version and retry", null));
+    }
+
+    // Streaming endpoints write their error response themselves
+    private ResponseEntity<StreamingResponseBody> exportBadRequest(String message) {
+        CustomHttpResponse response = new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), message, null);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+            .body(out -> errorWriter.writeValue(out, response));
+    }
+
+    // The change feed answers errors with a one-off JSON emitter, since its return type must be an emitter
+    private static ResponseEntity<ResponseBodyEmitter> changesError(HttpStatus status, String message) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            emitter.send(new CustomHttpResponse(status.value(), message, null), MediaType.APPLICATION_JSON);
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    private static boolean isEmptyPatch(NetflixShowsDTO netflixShowsDTO) {
+        return netflixShowsDTO.getShowType() == null && netflixShowsDTO.getTitle() == null
+            && netflixShowsDTO.getDirector() == null && netflixShowsDTO.getCastMembers() == null
+            && netflixShowsDTO.getCountry() == null && netflixShowsDTO.getDateAdded() == null
+            && netflixShowsDTO.getReleaseYear() == null && netflixShowsDTO.getRating() == null
+            && netflixShowsDTO.getDurationInMinute() == null && netflixShowsDTO.getListedIn() == null
+            && netflixShowsDTO.getDescription() == null;
+    }
 }
@@ -0,0 +1,270 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.controller;
+
+import static com.yoanesber.spring.rest.api_with_fluent_validator.controller.NetflixShowsETags.eTag;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.controller.NetflixShowsETags.expectedVersion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsBatchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.ReactiveNetflixShowsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.ValidatorService;
+
+import br.com.fluentvalidator.context.ValidationResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same contract as NetflixShowsaController, served by WebFlux when spring.main.web-application-type=reactive
+@RestController
+@RequestMapping("/api/v1/netflix-shows")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveNetflixShowsController {
+
+    private final ReactiveNetflixShowsService reactiveNetflixShowsService;
+
+    private final ValidatorService validatorService;
+
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public ReactiveNetflixShowsController(ReactiveNetflixShowsService reactiveNetflixShowsService,
+    ValidatorService validatorService) {
+        this.reactiveNetflixShowsService = reactiveNetflixShowsService;
+        this.validatorService = validatorService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> createNetflixShows(@RequestBody NetflixShowsDTO netflixShowsDTO) {
+        // Validate the input
+        ValidationResult validationResult = validatorService.validateNetflixShows(netflixShowsDTO);
+        if (!validationResult.isValid()) {
+            return Mono.just(ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "Validation failed. Please check your input.", validatorService.getErrorList(validationResult))));
+        }
+
+        // Create Netflik show & Return the response
+        return reactiveNetflixShowsService.createNetflixShows(netflixShowsDTO)
+            .map(netflixShows -> ResponseEntity.created(null).eTag(eTag(netflixShows.getVersion(), ""))
+                .<Object>body(new CustomHttpResponse(HttpStatus.CREATED.value(), "NetflixShows created successfully", netflixShows)))
+            .onErrorResume(ReactiveNetflixShowsController::internalServerError);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createNetflixShowsBatch(@RequestBody List<NetflixShowsDTO> netflixShowsDTOs) {
+        // Check if the input is null or empty
+        if (netflixShowsDTOs == null || netflixShowsDTOs.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "NetflixShowsDTO list must not be null or empty", null)));
+        }
+
+        // Check if the batch is too large
+        if (netflixShowsDTOs.size() > MAX_BATCH_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "NetflixShowsDTO list must not contain more than " + MAX_BATCH_SIZE + " items", null)));
+        }
+
+        // Validate every item; valid items are created (or updated when they carry an id) one after another
+        Map<Integer, Map<String, List<String>>> errors = validatorService.validateNetflixShowsBatch(netflixShowsDTOs);
+        List<NetflixShowsDTO> saved = new ArrayList<>(netflixShowsDTOs.size() - errors.size());
+
+        return Flux.range(0, netflixShowsDTOs.size())
+            .filter(i -> !errors.containsKey(i))
+            .concatMap(i -> {
+                NetflixShowsDTO netflixShowsDTO = netflixShowsDTOs.get(i);
+                Mono<NetflixShowsDTO> result = netflixShowsDTO.getId() == null
+                    ? reactiveNetflixShowsService.createNetflixShows(netflixShowsDTO)
+                    : reactiveNetflixShowsService.updateNetflixShows(netflixShowsDTO.getId(), netflixShowsDTO, null);
+
+                // Check if the NetflixShows to update was not found
+                return result.doOnNext(saved::add)
+                    .switchIfEmpty(Mono.fromRunnable(() -> errors.put(i, Map.of("Id", List.of("NetflixShows not found")))));
+            })
+            .then(Mono.fromSupplier(() -> {
+                NetflixShowsBatchResultDTO batchResult = new NetflixShowsBatchResultDTO(netflixShowsDTOs.size(), 
+                    saved.size(), errors.size(), saved, errors);
+
+                // Check if nothing could be persisted
+                if (saved.isEmpty()) {
+                    return ResponseEntity.badRequest().<Object>body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                        "Validation failed. Please check your input.", batchResult));
+                }
+
+                // Return the response
+                return ResponseEntity.created(null).<Object>body(new CustomHttpResponse(HttpStatus.CREATED.value(), 
+                    errors.isEmpty() ? "NetflixShows batch processed successfully" : "NetflixShows batch processed with errors", 
+                    batchResult));
+            }))
+            .onErrorResume(ReactiveNetflixShowsController::internalServerError);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllNetflixShows(@RequestParam(required = false) Long after,
+        @RequestParam(defaultValue = "100") Integer limit) {
+        // Check if the limit is within range
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            return Mono.just(ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "Limit must be between 1 and " + MAX_PAGE_LIMIT, null)));
+        }
+
+        // Get the next page of NetflixShows after the cursor
+        return reactiveNetflixShowsService.getNetflixShowsPage(after, limit)
+            .collectList()
+            .map(netflixShows -> {
+                // Check if the list is empty
+                if (netflixShows.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).<Object>body(new CustomHttpResponse(HttpStatus.NOT_FOUND.value(), 
+                        "No NetflixShows found", null));
+                }
+
+                // A full page means there may be more rows, so hand out the cursor for the next one
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (netflixShows.size() == limit) {
+                    response.header(NEXT_CURSOR_HEADER, String.valueOf(netflixShows.get(netflixShows.size() - 1).getId()));
+                }
+
+                // Return the response
+                return response.<Object>body(new CustomHttpResponse(HttpStatus.OK.value(), 
+                    "NetflixShows retrieved successfully", netflixShows));
+            })
+            .onErrorResume(ReactiveNetflixShowsController::internalServerError);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<NetflixShowsDTO> streamAllNetflixShows() {
+        // Rows are pulled from the database only as fast as the client reads the response
+        return reactiveNetflixShowsService.streamAllNetflixShows();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> getNetflixShowsById(@PathVariable Long id) {
+        // Get the NetflixShows by ID & Return the response; WebFlux answers 304 from its ETag and Last-Modified
+        return reactiveNetflixShowsService.getNetflixShowsById(id)
+            .map(netflixShows -> ok(netflixShows, "NetflixShows retrieved successfully"))
+            .switchIfEmpty(Mono.fromSupplier(ReactiveNetflixShowsController::notFound))
+            .onErrorResume(ReactiveNetflixShowsController::internalServerError);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Object>> updateNetflixShows(@PathVariable Long id, @RequestBody NetflixShowsDTO netflixShowsDTO,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Validate the input
+        ValidationResult validationResult = validatorService.validateNetflixShows(netflixShowsDTO);
+        if (!validationResult.isValid()) {
+            return Mono.just(ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "Validation failed. Please check your input.", validatorService.getErrorList(validationResult))));
+        }
+
+        // Check if the If-Match header cannot match any version
+        Long expectedVersion = expectedVersion(ifMatch);
+        if (expectedVersion != null && expectedVersion < 0) {
+            return Mono.just(preconditionFailed());
+        }
+
+        // Update the NetflixShows at the expected version & Return the response
+        return reactiveNetflixShowsService.updateNetflixShows(id, netflixShowsDTO, expectedVersion)
+            .map(netflixShows -> ok(netflixShows, "NetflixShows updated successfully"))
+            .switchIfEmpty(Mono.fromSupplier(ReactiveNetflixShowsController::notFound))
+            .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(preconditionFailed()))
+            .onErrorResume(ReactiveNetflixShowsController::internalServerError);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Object>> patchNetflixShows(@PathVariable Long id, @RequestBody NetflixShowsDTO netflixShowsDTO,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Check if there is anything to update
+        if (isEmptyPatch(netflixShowsDTO)) {
+            return Mono.just(ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "At least one field must be provided", null)));
+        }
+
+        // Validate the fields present in the input
+        ValidationResult validationResult = validatorService.validateNetflixShowsPatch(netflixShowsDTO);
+        if (!validationResult.isValid()) {
+            return Mono.just(ResponseEntity.badRequest().body(new CustomHttpResponse(HttpStatus.BAD_REQUEST.value(), 
+                "Validation failed. Please check your input.", validatorService.getErrorList(validationResult))));
+        }
+
+        // Check if the If-Match header cannot match any version
+        Long expectedVersion = expectedVersion(ifMatch);
+        if (expectedVersion != null && expectedVersion < 0) {
+            return Mono.just(preconditionFailed());
+        }
+
+        // Patch the NetflixShows at the expected version & Return the response
+        return reactiveNetflixShowsService.patchNetflixShows(id, netflixShowsDTO, expectedVersion)
+            .map(netflixShows -> ok(netflixShows, "NetflixShows updated successfully"))
+            .switchIfEmpty(Mono.fromSupplier(ReactiveNetflixShowsController::notFound))
+            .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(preconditionFailed()))
+            .onErrorResume(ReactiveNetflixShowsController::internalServerError);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Object>> deleteNetflixShows(@PathVariable Long id) {
+        // Delete the NetflixShows & Return the response
+        return reactiveNetflixShowsService.deleteNetflixShows(id)
+            .map(deleted -> deleted
+                ? ResponseEntity.ok().<Object>body(new CustomHttpResponse(HttpStatus.OK.value(), 
+                    "NetflixShows deleted successfully", null))
+                : notFound())
+            .onErrorResume(ReactiveNetflixShowsController::internalServerError);
+    }
+
+    // The stored row with its ETag and Last-Modified, for conditional requests on it
+    private static ResponseEntity<Object> ok(NetflixShowsDTO netflixShows, String message) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag(netflixShows.getVersion(), ""));
+        if (netflixShows.getUpdatedAt() != null) {
+            response.lastModified(netflixShows.getUpdatedAt());
+        }
+
+        return response.body(new CustomHttpResponse(HttpStatus.OK.value(), message, netflixShows));
+    }
+
+    private static ResponseEntity<Object> notFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new CustomHttpResponse(HttpStatus.NOT_FOUND.value(), 
+            "NetflixShows not found", null));
+    }
+
+    private static ResponseEntity<Object> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new CustomHttpResponse(HttpStatus.PRECONDITION_FAILED.value(),
+            "NetflixShows has been modified; fetch the current version and retry", null));
+    }
+
+    private static Mono<ResponseEntity<Object>> internalServerError(Throwable e) {
+        return Mono.just(ResponseEntity.internalServerError().body(new CustomHttpResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), 
+            e.getMessage(), null)));
+    }
+
+    private static boolean isEmptyPatch(NetflixShowsDTO netflixShowsDTO) {
+        return netflixShowsDTO.getShowType() == null && netflixShowsDTO.getTitle() == null
+            && netflixShowsDTO.getDirector() == null && netflixShowsDTO.getCastMembers() == null
+            && netflixShowsDTO.getCountry() == null && netflixShowsDTO.getDateAdded() == null
+            && netflixShowsDTO.getReleaseYear() == null && netflixShowsDTO.getRating() == null
+            && netflixShowsDTO.getDurationInMinute() == null && netflixShowsDTO.getListedIn() == null
+            && netflixShowsDTO.getDescription() == null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.util.Assert;
+
+// Hands out connections to the replicas round-robin, skipping the ones that failed their last health check
+// or their last connection attempt, and falls back to the primary when no replica is available
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    // 1 when the replica at that index is considered healthy
+    private final AtomicIntegerArray healthy;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+        Assert.notNull(primary, "Primary DataSource must not be null");
+        Assert.notEmpty(replicas, "Replica DataSources must not be empty");
+
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            healthy.set(i, 1);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (healthy.get(index) == 0) {
+                continue;
+            }
+
+            try {
+                return replicas.get(index).getConnection();
+            } catch (SQLException e) {
+                markUnhealthy(index, e.getMessage());
+            }
+        }
+
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    // Check if the replica at the given index is currently used
+    public boolean isHealthy(int index) {
+        return healthy.get(index) == 1;
+    }
+
+    // Mark each replica healthy if it hands out a valid connection, unhealthy otherwise
+    public void checkHealth() {
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    if (healthy.getAndSet(i, 1) == 0) {
+                        logger.info("Replica {} is healthy again", i);
+                    }
+                } else {
+                    markUnhealthy(i, "connection is not valid");
+                }
+            } catch (SQLException e) {
+                markUnhealthy(i, e.getMessage());
+            }
+        }
+    }
+
+    private void markUnhealthy(int index, String reason) {
+        if (healthy.getAndSet(index, 0) == 1) {
+            logger.warn("Replica {} is unhealthy, reads fall back to the other replicas or the primary: {}", index, reason);
+        }
+    }
+}
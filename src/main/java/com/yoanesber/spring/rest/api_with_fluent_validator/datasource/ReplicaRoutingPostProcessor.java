@@ -0,0 +1,93 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Wraps the primary DataSource so that connections of read-only transactions come from the replicas.
+// The lazy proxy only fetches a connection at the first statement, once the transaction has marked it
+// read-only, so @Transactional(readOnly = true) is all a read needs to be routed.
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+    private final List<String> replicaUrls;
+
+    private final String username;
+
+    private final String password;
+
+    private final int poolSize;
+
+    private final Duration connectionTimeout;
+
+    private final Duration healthCheckInterval;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingPostProcessor(List<String> replicaUrls, String username, String password, int poolSize,
+        Duration connectionTimeout, Duration healthCheckInterval) {
+        this.replicaUrls = replicaUrls;
+        this.username = username;
+        this.password = password;
+        this.poolSize = poolSize;
+        this.connectionTimeout = connectionTimeout;
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (replicaUrls.isEmpty() || !(bean instanceof DataSource primary) || healthChecker != null) {
+            return bean;
+        }
+
+        // A replica that is down at startup is skipped until its health check succeeds
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(replicaUrls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(config));
+        }
+
+        ReplicaRoutingDataSource replicas = new ReplicaRoutingDataSource(primary, pools);
+        healthChecker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("netflix-shows-replica-health").daemon().factory());
+        healthChecker.scheduleWithFixedDelay(replicas::checkHealth, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicas);
+        return proxy;
+    }
+
+    // Before the query counting wrapper, so statements on the replicas are counted too
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,28 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor // Required for Jackson deserialization when receiving JSON requests.
+@AllArgsConstructor // Helps create DTO objects easily.
+public class ImportJobDTO {
+    private String id;
+    private String format; // csv or ndjson
+    private String source; // Local path of the imported file
+    private String status;
+    private Long recordsRead;
+    private Long recordsImported;
+    private Long recordsRejected;
+    private Long committedRecords; // Records durably processed; a resumed import continues after this one
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor // Required for Jackson deserialization when receiving JSON requests.
+@AllArgsConstructor // Helps create DTO objects easily.
+public class NetflixShowsBatchResultDTO {
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private List<NetflixShowsDTO> data;
+    private Map<Integer, Map<String, List<String>>> errors; // Keyed by the index of the item in the request
+}
@@ -0,0 +1,22 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor // Helps create DTO objects easily.
+public class NetflixShowsChangeDTO {
+    private Long seq; // Position in the change feed, assigned in commit order
+    private Long id;
+    private String changeType;
+    @JsonRawValue
+    private String netflixShows; // NetflixShowsDTO JSON after the change as stored in the outbox, null for DELETED
+}
@@ -1,6 +1,7 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
 
 import java.sql.Date;
+import java.time.Instant;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -28,6 +29,8 @@ public class NetflixShowsDTO {
     private Integer durationInMinute;
     private String listedIn;
     private String description;
+    private Long version; // Set by the server; ignored on writes (use If-Match for optimistic locking)
+    private Instant updatedAt; // Set by the server; ignored on writes
 
     public NetflixShowsDTO(NetflixShows netflixShows) {
         this.id = netflixShows.getId();
@@ -42,5 +45,7 @@ public class NetflixShowsDTO {
         this.durationInMinute = netflixShows.getDurationInMinute();
         this.listedIn = netflixShows.getListedIn();
         this.description = netflixShows.getDescription();
+        this.version = netflixShows.getVersion();
+        this.updatedAt = netflixShows.getUpdatedAt();
     }
 }
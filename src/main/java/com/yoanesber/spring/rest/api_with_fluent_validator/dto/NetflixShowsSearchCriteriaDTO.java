@@ -0,0 +1,21 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor // Required for Jackson deserialization when receiving JSON requests.
+@AllArgsConstructor // Helps create DTO objects easily.
+public class NetflixShowsSearchCriteriaDTO {
+    private String q; // Full-text query over title, director, cast members, listed in and description
+    private String showType;
+    private String country;
+    private Integer releaseYearFrom;
+    private Integer releaseYearTo;
+    private Integer rating;
+}
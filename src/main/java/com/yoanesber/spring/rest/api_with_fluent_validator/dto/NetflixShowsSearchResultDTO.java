@@ -0,0 +1,20 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor // Required for Jackson deserialization when receiving JSON requests.
+@AllArgsConstructor // Helps create DTO objects easily.
+public class NetflixShowsSearchResultDTO {
+    private List<NetflixShowsDTO> data;
+    private Map<String, Map<String, Long>> facets; // Match counts per value of showType, country and rating (null unless requested)
+}
@@ -0,0 +1,19 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor // Required for Jackson deserialization when receiving JSON requests.
+@AllArgsConstructor // Helps create DTO objects easily.
+public class NetflixShowsStatsDTO {
+    private String key; // Group value (null for the total)
+    private Long count;
+    private Double averageRating; // Over the NetflixShows with a rating, null if none has one
+    private Double averageDurationInMinute; // Over the NetflixShows with a duration, null if none has one
+}
@@ -0,0 +1,19 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor // Required for Jackson deserialization when receiving JSON requests.
+@AllArgsConstructor // Helps create DTO objects easily.
+public class NetflixShowsStatsResultDTO {
+    private NetflixShowsStatsDTO total;
+    private List<NetflixShowsStatsDTO> groups; // Ordered by count descending (null unless grouped)
+}
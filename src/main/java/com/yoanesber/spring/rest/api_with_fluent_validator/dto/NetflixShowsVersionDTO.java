@@ -0,0 +1,20 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor // Used by the JPQL constructor expressions of the version lookups
+public class NetflixShowsVersionDTO {
+    private Long id;
+    private Long version;
+    private Instant updatedAt;
+}
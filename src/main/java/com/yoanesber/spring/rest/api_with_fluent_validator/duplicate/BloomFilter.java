@@ -0,0 +1,54 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.duplicate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+// Set of 64-bit hashes that answers "definitely absent" or "maybe present"; it never forgets a hash it was given.
+// Sized for the expected number of hashes; past that the false-positive rate rises but lookups stay correct.
+// Safe for concurrent use without locking.
+public class BloomFilter {
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        Assert.isTrue(expectedInsertions > 0, "Expected insertions must be greater than 0");
+        Assert.isTrue(falsePositiveRate > 0 && falsePositiveRate < 1, "False-positive rate must be between 0 and 1");
+
+        // Optimal sizing: m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hashes
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(long hash) {
+        // Derive the k bit positions from the two halves of the hash (Kirsch-Mitzenmacher)
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, value) -> current | value);
+            }
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.duplicate;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Identity of a NetflixShows for duplicate detection: normalized title, release year and show type.
+// normalizeTitle must stay in step with the expression of netflix_shows_duplicate_key_idx (see the DDL in README.md):
+// lower(btrim(regexp_replace(title, '\s+', ' ', 'g')))
+public final class NetflixShowsDuplicateKey {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private NetflixShowsDuplicateKey() {
+    }
+
+    // Collapse whitespace runs to one space, trim and lowercase
+    public static String normalizeTitle(String title) {
+        String collapsed = WHITESPACE.matcher(title).replaceAll(" ");
+        int from = 0;
+        int to = collapsed.length();
+        while (from < to && collapsed.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && collapsed.charAt(to - 1) == ' ') {
+            to--;
+        }
+
+        return collapsed.substring(from, to).toLowerCase(Locale.ROOT);
+    }
+
+    // 64-bit hash of the key (FNV-1a over the normalized title, mixed with the year and show type)
+    public static long hash(String normalizedTitle, int releaseYear, String showType) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < normalizedTitle.length(); i++) {
+            hash = (hash ^ normalizedTitle.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ releaseYear) * 0x100000001B3L;
+        for (int i = 0; i < showType.length(); i++) {
+            hash = (hash ^ showType.charAt(i)) * 0x100000001B3L;
+        }
+
+        // Spread the bits so both halves are usable as independent hashes
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
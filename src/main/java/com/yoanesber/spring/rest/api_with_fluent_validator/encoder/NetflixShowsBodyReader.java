@@ -0,0 +1,100 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+// Reads a request body that is either one NetflixShowsDTO or a list of them, in the format named by its Content-Type:
+// JSON, CBOR and Smile with their ObjectMapper, protobuf with NetflixShowsProtobufCodec
+public class NetflixShowsBodyReader {
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // A protobuf body is a NetflixShows message unless the messageType parameter names a NetflixShowsList
+    public static final String PROTOBUF_MESSAGE_TYPE = "messageType";
+
+    public static final String PROTOBUF_SHOW = "netflixshows.v1.NetflixShows";
+
+    public static final String PROTOBUF_SHOW_LIST = "netflixshows.v1.NetflixShowsList";
+
+    private static final List<MediaType> SUPPORTED_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+        MediaType.APPLICATION_CBOR, APPLICATION_SMILE, NetflixShowsProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+
+    private final ObjectMapper jsonMapper;
+
+    private final ObjectMapper cborMapper;
+
+    private final ObjectMapper smileMapper;
+
+    private final NetflixShowsProtobufCodec codec;
+
+    private final ObjectReader itemReader;
+
+    private final ObjectReader listReader;
+
+    public NetflixShowsBodyReader(ObjectMapper jsonMapper, ObjectMapper cborMapper, ObjectMapper smileMapper,
+        NetflixShowsProtobufCodec codec) {
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+        this.smileMapper = smileMapper;
+        this.codec = codec;
+        this.itemReader = jsonMapper.readerFor(NetflixShowsDTO.class);
+        this.listReader = jsonMapper.readerForListOf(NetflixShowsDTO.class);
+    }
+
+    // Read a NetflixShowsDTO or a List<NetflixShowsDTO>, null when the body is neither. A missing or wildcard Content-Type
+    // is read as JSON; other formats are rejected before anything is read
+    public Object read(InputStream content, MediaType contentType) throws IOException, HttpMediaTypeNotSupportedException {
+        if (contentType == null) {
+            return readJson(jsonMapper, content);
+        }
+
+        if (contentType.equalsTypeAndSubtype(NetflixShowsProtobufHttpMessageConverter.APPLICATION_PROTOBUF)) {
+            String messageType = contentType.getParameter(PROTOBUF_MESSAGE_TYPE);
+            if (messageType == null || PROTOBUF_SHOW.equals(messageType)) {
+                return codec.readShow(content);
+            }
+            if (PROTOBUF_SHOW_LIST.equals(messageType)) {
+                return codec.readShows(content);
+            }
+
+            throw new HttpMediaTypeNotSupportedException(contentType, SUPPORTED_MEDIA_TYPES);
+        }
+
+        // Tokens are the same in every Jackson format, so the JSON readers bind them
+        if (contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return readJson(jsonMapper, content);
+        }
+        if (contentType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+            return readJson(cborMapper, content);
+        }
+        if (contentType.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+            return readJson(smileMapper, content);
+        }
+
+        throw new HttpMediaTypeNotSupportedException(contentType, SUPPORTED_MEDIA_TYPES);
+    }
+
+    private Object readJson(ObjectMapper mapper, InputStream content) throws IOException {
+        try (JsonParser parser = mapper.createParser(content)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                return itemReader.readValue(parser);
+            }
+            if (token == JsonToken.START_ARRAY) {
+                return listReader.readValue(parser);
+            }
+
+            return null;
+        }
+    }
+}
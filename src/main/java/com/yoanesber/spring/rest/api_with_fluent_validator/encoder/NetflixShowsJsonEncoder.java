@@ -0,0 +1,117 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+
+// Encodes NetflixShowsDTO and the CustomHttpResponse envelope parts with the application ObjectMapper,
+// so pre-encoded responses are byte-for-byte what Jackson writes for a CustomHttpResponse
+public class NetflixShowsJsonEncoder {
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter showWriter;
+
+    private final ObjectWriter timestampWriter;
+
+    private final ObjectWriter stringWriter;
+
+    public NetflixShowsJsonEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.showWriter = objectMapper.writerFor(NetflixShowsDTO.class);
+        this.timestampWriter = objectMapper.writerFor(LocalDateTime.class);
+        this.stringWriter = objectMapper.writerFor(String.class);
+    }
+
+    public byte[] encode(NetflixShowsDTO netflixShowsDTO) {
+        try {
+            return showWriter.writeValueAsBytes(netflixShowsDTO);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode NetflixShows: " + e.getMessage());
+        }
+    }
+
+    // Encode only the given properties, in the order of NetflixShowsDTO; each value is written as in the full encoding
+    public byte[] encode(NetflixShowsDTO netflixShowsDTO, Set<ENetflixShowsField> fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * (fields.size() + 1));
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartObject();
+            for (ENetflixShowsField field : fields) {
+                generator.writeFieldName(field.getProperty());
+                objectMapper.writeValue(generator, value(netflixShowsDTO, field));
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode NetflixShows: " + e.getMessage());
+        }
+
+        return out.toByteArray();
+    }
+
+    // Only the given properties by name, in the order of NetflixShowsDTO, for formats written by a message converter
+    // (CBOR, Smile) that would otherwise write every property
+    public static Map<String, Object> properties(NetflixShowsDTO netflixShowsDTO, Set<ENetflixShowsField> fields) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (ENetflixShowsField field : fields) {
+            properties.put(field.getProperty(), value(netflixShowsDTO, field));
+        }
+
+        return properties;
+    }
+
+    // Encode a response message once, e.g. in a constructor, and reuse it for every response
+    public byte[] encodeMessage(String message) {
+        try {
+            return stringWriter.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode message: " + e.getMessage());
+        }
+    }
+
+    public PreEncodedHttpResponse response(int statusCode, byte[] message, byte[] data) {
+        return new PreEncodedHttpResponse(statusCode, timestamp(), message, List.of(data), false);
+    }
+
+    public PreEncodedHttpResponse response(int statusCode, byte[] message, List<byte[]> data) {
+        return new PreEncodedHttpResponse(statusCode, timestamp(), message, data, true);
+    }
+
+    private static Object value(NetflixShowsDTO netflixShowsDTO, ENetflixShowsField field) {
+        return switch (field) {
+            case ID -> netflixShowsDTO.getId();
+            case SHOW_TYPE -> netflixShowsDTO.getShowType();
+            case TITLE -> netflixShowsDTO.getTitle();
+            case DIRECTOR -> netflixShowsDTO.getDirector();
+            case CAST_MEMBERS -> netflixShowsDTO.getCastMembers();
+            case COUNTRY -> netflixShowsDTO.getCountry();
+            case DATE_ADDED -> netflixShowsDTO.getDateAdded();
+            case RELEASE_YEAR -> netflixShowsDTO.getReleaseYear();
+            case RATING -> netflixShowsDTO.getRating();
+            case DURATION_IN_MINUTE -> netflixShowsDTO.getDurationInMinute();
+            case LISTED_IN -> netflixShowsDTO.getListedIn();
+            case DESCRIPTION -> netflixShowsDTO.getDescription();
+            case VERSION -> netflixShowsDTO.getVersion();
+            case UPDATED_AT -> netflixShowsDTO.getUpdatedAt();
+        };
+    }
+
+    // Same value CustomHttpResponse sets on construction
+    private byte[] timestamp() {
+        try {
+            return timestampWriter.writeValueAsBytes(LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode timestamp: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsBatchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+
+// Encodes CustomHttpResponse and decodes NetflixShowsDTO request bodies in the protobuf wire format of
+// src/main/proto/netflix_shows.proto, without generated classes. Nested messages are length-prefixed, so their
+// sizes are computed before they are written; the sizes of the shows of a list are computed once.
+// Data without a message of its own is written as its JSON encoding (data_json).
+public class NetflixShowsProtobufCodec {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    // NetflixShows
+    private static final int SHOW_ID = 1;
+    private static final int SHOW_SHOW_TYPE = 2;
+    private static final int SHOW_TITLE = 3;
+    private static final int SHOW_DIRECTOR = 4;
+    private static final int SHOW_CAST_MEMBERS = 5;
+    private static final int SHOW_COUNTRY = 6;
+    private static final int SHOW_DATE_ADDED = 7;
+    private static final int SHOW_RELEASE_YEAR = 8;
+    private static final int SHOW_RATING = 9;
+    private static final int SHOW_DURATION_IN_MINUTE = 10;
+    private static final int SHOW_LISTED_IN = 11;
+    private static final int SHOW_DESCRIPTION = 12;
+    private static final int SHOW_VERSION = 13;
+    private static final int SHOW_UPDATED_AT = 14;
+
+    // google.protobuf.Timestamp
+    private static final int TIMESTAMP_SECONDS = 1;
+    private static final int TIMESTAMP_NANOS = 2;
+
+    // NetflixShowsList.items, Messages.messages, FieldErrors.fields and Counts.counts
+    private static final int REPEATED = 1;
+
+    // Map entries
+    private static final int MAP_KEY = 1;
+    private static final int MAP_VALUE = 2;
+
+    // BatchResult
+    private static final int BATCH_TOTAL = 1;
+    private static final int BATCH_SUCCEEDED = 2;
+    private static final int BATCH_FAILED = 3;
+    private static final int BATCH_DATA = 4;
+    private static final int BATCH_ERRORS = 5;
+
+    // SearchResult
+    private static final int SEARCH_DATA = 1;
+    private static final int SEARCH_FACETS = 2;
+
+    // Response
+    private static final int RESPONSE_STATUS_CODE = 1;
+    private static final int RESPONSE_TIMESTAMP = 2;
+    private static final int RESPONSE_MESSAGE = 3;
+    private static final int RESPONSE_SHOW = 4;
+    private static final int RESPONSE_SHOWS = 5;
+    private static final int RESPONSE_BATCH_RESULT = 6;
+    private static final int RESPONSE_SEARCH_RESULT = 7;
+    private static final int RESPONSE_ERRORS = 8;
+    private static final int RESPONSE_DATA_JSON = 9;
+
+    private final ObjectWriter dataWriter;
+
+    public NetflixShowsProtobufCodec(ObjectMapper objectMapper) {
+        this.dataWriter = objectMapper.writer();
+    }
+
+    public void writeResponse(CustomHttpResponse response, OutputStream out) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(out, BUFFER_SIZE);
+        if (response.getStatusCode() != null) {
+            output.writeInt32(RESPONSE_STATUS_CODE, response.getStatusCode());
+        }
+        if (response.getTimestamp() != null) {
+            output.writeString(RESPONSE_TIMESTAMP, response.getTimestamp().toString());
+        }
+        if (response.getMessage() != null) {
+            output.writeString(RESPONSE_MESSAGE, response.getMessage());
+        }
+
+        Object data = response.getData();
+        if (data instanceof NetflixShowsDTO show) {
+            writeHeader(output, RESPONSE_SHOW, showSize(show));
+            writeShow(output, show);
+        } else if (data instanceof NetflixShowsBatchResultDTO batchResult) {
+            int[] sizes = showSizes(batchResult.getData());
+            writeHeader(output, RESPONSE_BATCH_RESULT, batchResultSize(batchResult, sizes));
+            writeBatchResult(output, batchResult, sizes);
+        } else if (data instanceof NetflixShowsSearchResultDTO searchResult) {
+            int[] sizes = showSizes(searchResult.getData());
+            writeHeader(output, RESPONSE_SEARCH_RESULT, searchResultSize(searchResult, sizes));
+            writeSearchResult(output, searchResult, sizes);
+        } else if (isShowList(data)) {
+            List<NetflixShowsDTO> shows = showList(data);
+            int[] sizes = showSizes(shows);
+            writeHeader(output, RESPONSE_SHOWS, showsSize(REPEATED, sizes));
+            writeShows(output, REPEATED, shows, sizes);
+        } else if (isFieldErrors(data)) {
+            Map<String, List<String>> errors = fieldErrors(data);
+            writeHeader(output, RESPONSE_ERRORS, fieldErrorsSize(errors));
+            writeFieldErrors(output, errors);
+        } else if (data != null) {
+            output.writeByteArray(RESPONSE_DATA_JSON, encodeJson(data));
+        }
+
+        output.flush();
+    }
+
+    // Encode a NetflixShowsList message, e.g. the body of a batch create
+    public byte[] encodeShows(List<NetflixShowsDTO> shows) throws IOException {
+        int[] sizes = showSizes(shows);
+        byte[] bytes = new byte[showsSize(REPEATED, sizes)];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        writeShows(output, REPEATED, shows, sizes);
+        output.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    // Encode a NetflixShows message
+    public byte[] encodeShow(NetflixShowsDTO show) throws IOException {
+        byte[] bytes = new byte[showSize(show)];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        writeShow(output, show);
+        output.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    // Copy of a NetflixShowsDTO with only the given fields set, so the NetflixShows message leaves the others out
+    public static NetflixShowsDTO project(NetflixShowsDTO show, Set<ENetflixShowsField> fields) {
+        NetflixShowsDTO projected = new NetflixShowsDTO();
+        for (ENetflixShowsField field : fields) {
+            switch (field) {
+                case ID -> projected.setId(show.getId());
+                case SHOW_TYPE -> projected.setShowType(show.getShowType());
+                case TITLE -> projected.setTitle(show.getTitle());
+                case DIRECTOR -> projected.setDirector(show.getDirector());
+                case CAST_MEMBERS -> projected.setCastMembers(show.getCastMembers());
+                case COUNTRY -> projected.setCountry(show.getCountry());
+                case DATE_ADDED -> projected.setDateAdded(show.getDateAdded());
+                case RELEASE_YEAR -> projected.setReleaseYear(show.getReleaseYear());
+                case RATING -> projected.setRating(show.getRating());
+                case DURATION_IN_MINUTE -> projected.setDurationInMinute(show.getDurationInMinute());
+                case LISTED_IN -> projected.setListedIn(show.getListedIn());
+                case DESCRIPTION -> projected.setDescription(show.getDescription());
+                case VERSION -> projected.setVersion(show.getVersion());
+                case UPDATED_AT -> projected.setUpdatedAt(show.getUpdatedAt());
+            }
+        }
+
+        return projected;
+    }
+
+    // Read a NetflixShows message; fields that are not set stay null
+    public NetflixShowsDTO readShow(InputStream in) throws IOException {
+        return readShow(CodedInputStream.newInstance(in));
+    }
+
+    // Read a NetflixShowsList message
+    public List<NetflixShowsDTO> readShows(InputStream in) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(in);
+        List<NetflixShowsDTO> shows = new ArrayList<>();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == makeTag(REPEATED, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                shows.add(readShow(input));
+                input.popLimit(limit);
+            } else {
+                input.skipField(tag);
+            }
+        }
+
+        return shows;
+    }
+
+    private static NetflixShowsDTO readShow(CodedInputStream input) throws IOException {
+        NetflixShowsDTO show = new NetflixShowsDTO();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (WireFormat.getTagWireType(tag) != wireType(field)) {
+                input.skipField(tag);
+                continue;
+            }
+
+            switch (field) {
+                case SHOW_ID -> show.setId(input.readInt64());
+                case SHOW_SHOW_TYPE -> show.setShowType(input.readString());
+                case SHOW_TITLE -> show.setTitle(input.readString());
+                case SHOW_DIRECTOR -> show.setDirector(input.readString());
+                case SHOW_CAST_MEMBERS -> show.setCastMembers(input.readString());
+                case SHOW_COUNTRY -> show.setCountry(input.readString());
+                case SHOW_DATE_ADDED -> show.setDateAdded(Date.valueOf(LocalDate.ofEpochDay(input.readInt32())));
+                case SHOW_RELEASE_YEAR -> show.setReleaseYear(input.readInt32());
+                case SHOW_RATING -> show.setRating(input.readInt32());
+                case SHOW_DURATION_IN_MINUTE -> show.setDurationInMinute(input.readInt32());
+                case SHOW_LISTED_IN -> show.setListedIn(input.readString());
+                case SHOW_DESCRIPTION -> show.setDescription(input.readString());
+                case SHOW_VERSION -> show.setVersion(input.readInt64());
+                case SHOW_UPDATED_AT -> {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    show.setUpdatedAt(readTimestamp(input));
+                    input.popLimit(limit);
+                }
+                default -> input.skipField(tag);
+            }
+        }
+
+        return show;
+    }
+
+    private static Instant readTimestamp(CodedInputStream input) throws IOException {
+        long seconds = 0;
+        int nanos = 0;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == makeTag(TIMESTAMP_SECONDS, WireFormat.WIRETYPE_VARINT)) {
+                seconds = input.readInt64();
+            } else if (tag == makeTag(TIMESTAMP_NANOS, WireFormat.WIRETYPE_VARINT)) {
+                nanos = input.readInt32();
+            } else {
+                input.skipField(tag);
+            }
+        }
+
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    // Wire type of a NetflixShows field, -1 for unknown fields
+    private static int wireType(int field) {
+        return switch (field) {
+            case SHOW_ID, SHOW_DATE_ADDED, SHOW_RELEASE_YEAR, SHOW_RATING, SHOW_DURATION_IN_MINUTE, SHOW_VERSION ->
+                WireFormat.WIRETYPE_VARINT;
+            case SHOW_SHOW_TYPE, SHOW_TITLE, SHOW_DIRECTOR, SHOW_CAST_MEMBERS, SHOW_COUNTRY, SHOW_LISTED_IN,
+                SHOW_DESCRIPTION, SHOW_UPDATED_AT -> WireFormat.WIRETYPE_LENGTH_DELIMITED;
+            default -> -1;
+        };
+    }
+
+    private static int showSize(NetflixShowsDTO show) {
+        int size = 0;
+        if (show.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(SHOW_ID, show.getId());
+        }
+        size += stringSize(SHOW_SHOW_TYPE, show.getShowType());
+        size += stringSize(SHOW_TITLE, show.getTitle());
+        size += stringSize(SHOW_DIRECTOR, show.getDirector());
+        size += stringSize(SHOW_CAST_MEMBERS, show.getCastMembers());
+        size += stringSize(SHOW_COUNTRY, show.getCountry());
+        if (show.getDateAdded() != null) {
+            size += CodedOutputStream.computeInt32Size(SHOW_DATE_ADDED, (int) show.getDateAdded().toLocalDate().toEpochDay());
+        }
+        size += int32Size(SHOW_RELEASE_YEAR, show.getReleaseYear());
+        size += int32Size(SHOW_RATING, show.getRating());
+        size += int32Size(SHOW_DURATION_IN_MINUTE, show.getDurationInMinute());
+        size += stringSize(SHOW_LISTED_IN, show.getListedIn());
+        size += stringSize(SHOW_DESCRIPTION, show.getDescription());
+        if (show.getVersion() != null) {
+            size += CodedOutputStream.computeInt64Size(SHOW_VERSION, show.getVersion());
+        }
+        if (show.getUpdatedAt() != null) {
+            size += nestedSize(SHOW_UPDATED_AT, timestampSize(show.getUpdatedAt()));
+        }
+
+        return size;
+    }
+
+    private static void writeShow(CodedOutputStream output, NetflixShowsDTO show) throws IOException {
+        if (show.getId() != null) {
+            output.writeInt64(SHOW_ID, show.getId());
+        }
+        writeString(output, SHOW_SHOW_TYPE, show.getShowType());
+        writeString(output, SHOW_TITLE, show.getTitle());
+        writeString(output, SHOW_DIRECTOR, show.getDirector());
+        writeString(output, SHOW_CAST_MEMBERS, show.getCastMembers());
+        writeString(output, SHOW_COUNTRY, show.getCountry());
+        if (show.getDateAdded() != null) {
+            output.writeInt32(SHOW_DATE_ADDED, (int) show.getDateAdded().toLocalDate().toEpochDay());
+        }
+        writeInt32(output, SHOW_RELEASE_YEAR, show.getReleaseYear());
+        writeInt32(output, SHOW_RATING, show.getRating());
+        writeInt32(output, SHOW_DURATION_IN_MINUTE, show.getDurationInMinute());
+        writeString(output, SHOW_LISTED_IN, show.getListedIn());
+        writeString(output, SHOW_DESCRIPTION, show.getDescription());
+        if (show.getVersion() != null) {
+            output.writeInt64(SHOW_VERSION, show.getVersion());
+        }
+        if (show.getUpdatedAt() != null) {
+            writeHeader(output, SHOW_UPDATED_AT, timestampSize(show.getUpdatedAt()));
+            writeTimestamp(output, show.getUpdatedAt());
+        }
+    }
+
+    // Zero seconds and nanos are left out, as in the generated code
+    private static int timestampSize(Instant instant) {
+        return (instant.getEpochSecond() == 0 ? 0 : CodedOutputStream.computeInt64Size(TIMESTAMP_SECONDS, instant.getEpochSecond()))
+            + (instant.getNano() == 0 ? 0 : CodedOutputStream.computeInt32Size(TIMESTAMP_NANOS, instant.getNano()));
+    }
+
+    private static void writeTimestamp(CodedOutputStream output, Instant instant) throws IOException {
+        if (instant.getEpochSecond() != 0) {
+            output.writeInt64(TIMESTAMP_SECONDS, instant.getEpochSecond());
+        }
+        if (instant.getNano() != 0) {
+            output.writeInt32(TIMESTAMP_NANOS, instant.getNano());
+        }
+    }
+
+    private static int[] showSizes(List<NetflixShowsDTO> shows) {
+        int[] sizes = new int[shows == null ? 0 : shows.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = showSize(shows.get(i));
+        }
+
+        return sizes;
+    }
+
+    // Size of a repeated NetflixShows field
+    private static int showsSize(int fieldNumber, int[] sizes) {
+        int size = 0;
+        for (int showSize : sizes) {
+            size += nestedSize(fieldNumber, showSize);
+        }
+
+        return size;
+    }
+
+    private static void writeShows(CodedOutputStream output, int fieldNumber, List<NetflixShowsDTO> shows, int[] sizes)
+        throws IOException {
+        for (int i = 0; i < sizes.length; i++) {
+            writeHeader(output, fieldNumber, sizes[i]);
+            writeShow(output, shows.get(i));
+        }
+    }
+
+    private static int fieldErrorsSize(Map<String, List<String>> errors) {
+        int size = 0;
+        for (Map.Entry<String, List<String>> entry : errors.entrySet()) {
+            size += nestedSize(REPEATED, fieldErrorSize(entry.getKey(), entry.getValue()));
+        }
+
+        return size;
+    }
+
+    private static void writeFieldErrors(CodedOutputStream output, Map<String, List<String>> errors) throws IOException {
+        for (Map.Entry<String, List<String>> entry : errors.entrySet()) {
+            writeHeader(output, REPEATED, fieldErrorSize(entry.getKey(), entry.getValue()));
+            writeString(output, MAP_KEY, entry.getKey());
+            writeHeader(output, MAP_VALUE, messagesSize(entry.getValue()));
+            for (String message : entry.getValue()) {
+                output.writeString(REPEATED, message);
+            }
+        }
+    }
+
+    // Size of a FieldErrors.fields map entry
+    private static int fieldErrorSize(String field, List<String> messages) {
+        return stringSize(MAP_KEY, field) + nestedSize(MAP_VALUE, messagesSize(messages));
+    }
+
+    private static int messagesSize(List<String> messages) {
+        int size = 0;
+        for (String message : messages) {
+            size += CodedOutputStream.computeStringSize(REPEATED, message);
+        }
+
+        return size;
+    }
+
+    private static int batchResultSize(NetflixShowsBatchResultDTO batchResult, int[] sizes) {
+        int size = int32Size(BATCH_TOTAL, batchResult.getTotal()) + int32Size(BATCH_SUCCEEDED, batchResult.getSucceeded())
+            + int32Size(BATCH_FAILED, batchResult.getFailed()) + showsSize(BATCH_DATA, sizes);
+        if (batchResult.getErrors() != null) {
+            for (Map.Entry<Integer, Map<String, List<String>>> entry : batchResult.getErrors().entrySet()) {
+                size += nestedSize(BATCH_ERRORS, itemErrorsSize(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        return size;
+    }
+
+    private static void writeBatchResult(CodedOutputStream output, NetflixShowsBatchResultDTO batchResult, int[] sizes)
+        throws IOException {
+        writeInt32(output, BATCH_TOTAL, batchResult.getTotal());
+        writeInt32(output, BATCH_SUCCEEDED, batchResult.getSucceeded());
+        writeInt32(output, BATCH_FAILED, batchResult.getFailed());
+        writeShows(output, BATCH_DATA, batchResult.getData(), sizes);
+        if (batchResult.getErrors() != null) {
+            for (Map.Entry<Integer, Map<String, List<String>>> entry : batchResult.getErrors().entrySet()) {
+                writeHeader(output, BATCH_ERRORS, itemErrorsSize(entry.getKey(), entry.getValue()));
+                output.writeInt32(MAP_KEY, entry.getKey());
+                writeHeader(output, MAP_VALUE, fieldErrorsSize(entry.getValue()));
+                writeFieldErrors(output, entry.getValue());
+            }
+        }
+    }
+
+    // Size of a BatchResult.errors map entry
+    private static int itemErrorsSize(int index, Map<String, List<String>> errors) {
+        return CodedOutputStream.computeInt32Size(MAP_KEY, index) + nestedSize(MAP_VALUE, fieldErrorsSize(errors));
+    }
+
+    private static int searchResultSize(NetflixShowsSearchResultDTO searchResult, int[] sizes) {
+        int size = showsSize(SEARCH_DATA, sizes);
+        if (searchResult.getFacets() != null) {
+            for (Map.Entry<String, Map<String, Long>> entry : searchResult.getFacets().entrySet()) {
+                size += nestedSize(SEARCH_FACETS, facetSize(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        return size;
+    }
+
+    private static void writeSearchResult(CodedOutputStream output, NetflixShowsSearchResultDTO searchResult, int[] sizes)
+        throws IOException {
+        writeShows(output, SEARCH_DATA, searchResult.getData(), sizes);
+        if (searchResult.getFacets() != null) {
+            for (Map.Entry<String, Map<String, Long>> entry : searchResult.getFacets().entrySet()) {
+                writeHeader(output, SEARCH_FACETS, facetSize(entry.getKey(), entry.getValue()));
+                writeString(output, MAP_KEY, entry.getKey());
+                writeHeader(output, MAP_VALUE, countsSize(entry.getValue()));
+                for (Map.Entry<String, Long> count : entry.getValue().entrySet()) {
+                    writeHeader(output, REPEATED, countSize(count.getKey(), count.getValue()));
+                    writeString(output, MAP_KEY, count.getKey());
+                    output.writeInt64(MAP_VALUE, count.getValue());
+                }
+            }
+        }
+    }
+
+    // Size of a SearchResult.facets map entry
+    private static int facetSize(String facet, Map<String, Long> counts) {
+        return stringSize(MAP_KEY, facet) + nestedSize(MAP_VALUE, countsSize(counts));
+    }
+
+    private static int countsSize(Map<String, Long> counts) {
+        int size = 0;
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            size += nestedSize(REPEATED, countSize(count.getKey(), count.getValue()));
+        }
+
+        return size;
+    }
+
+    // Size of a Counts.counts map entry
+    private static int countSize(String value, long count) {
+        return stringSize(MAP_KEY, value) + CodedOutputStream.computeInt64Size(MAP_VALUE, count);
+    }
+
+    private static boolean isShowList(Object data) {
+        if (!(data instanceof List<?> list)) {
+            return false;
+        }
+        for (Object item : list) {
+            if (!(item instanceof NetflixShowsDTO)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<NetflixShowsDTO> showList(Object data) {
+        return (List<NetflixShowsDTO>) data;
+    }
+
+    // Validation errors: message lists by field name
+    private static boolean isFieldErrors(Object data) {
+        if (!(data instanceof Map<?, ?> map)) {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof List<?> messages)) {
+                return false;
+            }
+            for (Object message : messages) {
+                if (!(message instanceof String)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, List<String>> fieldErrors(Object data) {
+        return (Map<String, List<String>>) data;
+    }
+
+    private byte[] encodeJson(Object data) {
+        try {
+            return dataWriter.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode data: " + e.getMessage());
+        }
+    }
+
+    // WireFormat.makeTag is not public
+    private static int makeTag(int fieldNumber, int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+
+    private static int nestedSize(int fieldNumber, int size) {
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static void writeHeader(CodedOutputStream output, int fieldNumber, int size) throws IOException {
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(size);
+    }
+
+    private static int stringSize(int fieldNumber, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    private static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    private static int int32Size(int fieldNumber, Integer value) {
+        return value == null ? 0 : CodedOutputStream.computeInt32Size(fieldNumber, value);
+    }
+
+    private static void writeInt32(CodedOutputStream output, int fieldNumber, Integer value) throws IOException {
+        if (value != null) {
+            output.writeInt32(fieldNumber, value);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+
+// Reads NetflixShowsDTO and List<NetflixShowsDTO> request bodies and writes CustomHttpResponse bodies as
+// application/x-protobuf with NetflixShowsProtobufCodec
+public class NetflixShowsProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    private final NetflixShowsProtobufCodec codec;
+
+    public NetflixShowsProtobufHttpMessageConverter(NetflixShowsProtobufCodec codec) {
+        super(APPLICATION_PROTOBUF);
+        this.codec = codec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return NetflixShowsDTO.class == clazz || CustomHttpResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (NetflixShowsDTO.class == type || isShowList(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return CustomHttpResponse.class == clazz && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return NetflixShowsDTO.class == type ? codec.readShow(inputMessage.getBody()) : codec.readShows(inputMessage.getBody());
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Failed to read protobuf request body: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        codec.writeResponse((CustomHttpResponse) object, outputMessage.getBody());
+    }
+
+    private static boolean isShowList(Type type) {
+        return type instanceof ParameterizedType parameterizedType && parameterizedType.getRawType() == List.class
+            && parameterizedType.getActualTypeArguments()[0] == NetflixShowsDTO.class;
+    }
+}
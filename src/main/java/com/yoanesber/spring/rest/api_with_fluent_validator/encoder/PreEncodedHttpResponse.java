@@ -0,0 +1,73 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// A CustomHttpResponse whose parts are already encoded as JSON; PreEncodedHttpResponseConverter
+// writes it as plain byte copies, in the same property order Jackson uses for CustomHttpResponse
+public class PreEncodedHttpResponse {
+    private static final byte[] STATUS_CODE = "{\"statusCode\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] TIMESTAMP = ",\"timestamp\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] MESSAGE = ",\"message\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] DATA = ",\"data\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] statusCode;
+
+    private final byte[] timestamp;
+
+    private final byte[] message;
+
+    private final List<byte[]> data;
+
+    private final boolean array;
+
+    // data holds one encoded value, or the encoded items of a JSON array when array is set
+    public PreEncodedHttpResponse(int statusCode, byte[] timestamp, byte[] message, List<byte[]> data, boolean array) {
+        this.statusCode = Integer.toString(statusCode).getBytes(StandardCharsets.US_ASCII);
+        this.timestamp = timestamp;
+        this.message = message;
+        this.data = data;
+        this.array = array;
+    }
+
+    public long getContentLength() {
+        long length = STATUS_CODE.length + statusCode.length + TIMESTAMP.length + timestamp.length
+            + MESSAGE.length + message.length + DATA.length + 1;
+        for (byte[] item : data) {
+            length += item.length;
+        }
+
+        // Brackets and separators of the array
+        return array ? length + 2 + Math.max(data.size() - 1, 0) : length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(STATUS_CODE);
+        out.write(statusCode);
+        out.write(TIMESTAMP);
+        out.write(timestamp);
+        out.write(MESSAGE);
+        out.write(message);
+        out.write(DATA);
+
+        if (array) {
+            out.write('[');
+            for (int i = 0; i < data.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(data.get(i));
+            }
+            out.write(']');
+        } else {
+            out.write(data.get(0));
+        }
+
+        out.write('}');
+    }
+}
@@ -0,0 +1,42 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+// Writes PreEncodedHttpResponse bodies straight to the response stream with a known Content-Length.
+// Must be registered ahead of the Jackson converter, which would otherwise serialize the object itself.
+public class PreEncodedHttpResponseConverter extends AbstractHttpMessageConverter<PreEncodedHttpResponse> {
+    public PreEncodedHttpResponseConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PreEncodedHttpResponse.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PreEncodedHttpResponse readInternal(Class<? extends PreEncodedHttpResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("PreEncodedHttpResponse cannot be read", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(PreEncodedHttpResponse response, MediaType contentType) {
+        return response.getContentLength();
+    }
+
+    @Override
+    protected void writeInternal(PreEncodedHttpResponse response, HttpOutputMessage outputMessage) throws IOException {
+        response.writeTo(outputMessage.getBody());
+    }
+}
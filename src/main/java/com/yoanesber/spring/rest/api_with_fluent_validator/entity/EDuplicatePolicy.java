@@ -0,0 +1,7 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.entity;
+
+public enum EDuplicatePolicy {
+    REJECT, // Report the create as a validation error
+    UPSERT, // Update the existing NetflixShows with the values of the create
+    IGNORE // Keep the existing NetflixShows unchanged and return it
+}
@@ -0,0 +1,9 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.entity;
+
+public enum EImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED,
+    INTERRUPTED // The application stopped while the import was running
+}
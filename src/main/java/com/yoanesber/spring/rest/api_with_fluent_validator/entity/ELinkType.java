@@ -0,0 +1,6 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.entity;
+
+public enum ELinkType {
+    GENRE, // NetflixShows.listedIn
+    PERSON // NetflixShows.castMembers
+}
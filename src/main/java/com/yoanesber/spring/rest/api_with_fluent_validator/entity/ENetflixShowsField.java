@@ -0,0 +1,57 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.entity;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Properties of NetflixShowsDTO that can be requested with fields=, named like the NetflixShows attributes
+public enum ENetflixShowsField {
+    ID("id"),
+    SHOW_TYPE("showType"),
+    TITLE("title"),
+    DIRECTOR("director"),
+    CAST_MEMBERS("castMembers"),
+    COUNTRY("country"),
+    DATE_ADDED("dateAdded"),
+    RELEASE_YEAR("releaseYear"),
+    RATING("rating"),
+    DURATION_IN_MINUTE("durationInMinute"),
+    LISTED_IN("listedIn"),
+    DESCRIPTION("description"),
+    VERSION("version"),
+    UPDATED_AT("updatedAt");
+
+    private static final Map<String, ENetflixShowsField> PROPERTIES = Arrays.stream(values())
+        .collect(Collectors.toUnmodifiableMap(ENetflixShowsField::getProperty, Function.identity()));
+
+    // Human readable list of the property names, e.g. "id, showType, title, ..."
+    public static final String PROPERTY_NAMES = Arrays.stream(values())
+        .map(ENetflixShowsField::getProperty)
+        .collect(Collectors.joining(", "));
+
+    private final String property;
+
+    ENetflixShowsField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    // Parse a comma-separated list of property names (iterated in declaration order), or null if a name is unknown or none is given
+    public static EnumSet<ENetflixShowsField> parse(String properties) {
+        EnumSet<ENetflixShowsField> fields = EnumSet.noneOf(ENetflixShowsField.class);
+        for (String property : properties.split(",")) {
+            ENetflixShowsField field = PROPERTIES.get(property.trim());
+            if (field == null) {
+                return null;
+            }
+            fields.add(field);
+        }
+
+        return fields;
+    }
+}
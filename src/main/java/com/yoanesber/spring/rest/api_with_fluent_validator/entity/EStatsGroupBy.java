@@ -0,0 +1,7 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.entity;
+
+public enum EStatsGroupBy {
+    COUNTRY,
+    SHOW_TYPE,
+    RELEASE_YEAR
+}
@@ -1,6 +1,9 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.entity;
 
 import java.sql.Date;
+import java.time.Instant;
+
+import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,7 +12,9 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
@@ -25,7 +30,8 @@ import lombok.Setter;
 @Table(name = "netflix_shows")
 public class NetflixShows {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "id_netflix_shows_seq")
+    @SequenceGenerator(name = "id_netflix_shows_seq", sequenceName = "id_netflix_shows_seq", allocationSize = 50) // Pooled ids let Hibernate batch inserts
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -61,4 +67,13 @@ public class NetflixShows {
 
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
+
+    // Incremented on every update; exposed as the ETag of the show
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
 }
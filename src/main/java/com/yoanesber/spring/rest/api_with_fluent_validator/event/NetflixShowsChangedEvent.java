@@ -0,0 +1,16 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+
+// Published by NetflixShowsService for every write; listeners run in the publishing transaction's phases
+@Getter
+@AllArgsConstructor
+public class NetflixShowsChangedEvent {
+    private final Long id;
+    private final EChangeType changeType;
+    private final NetflixShowsDTO netflixShows; // State after the change, null for DELETED
+}
@@ -0,0 +1,19 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.event;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ELinkType;
+
+// Published by NetflixShowsLinkService when genre or cast links of NetflixShows are written
+@Getter
+@AllArgsConstructor
+public class NetflixShowsLinksChangedEvent {
+    private final ELinkType linkType;
+    private final Map<String, Long> names; // Ids of the genre or person names referenced by the change
+    private final List<long[]> added; // {showId, linkedId} pairs
+    private final List<long[]> removed; // {showId, linkedId} pairs
+}
@@ -0,0 +1,66 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+// Writes NetflixShowsDTO as RFC 4180 CSV rows; the header uses the DTO property names so the file can be imported again
+public class NetflixShowsCsvWriter {
+    private static final String HEADER = "id,showType,title,director,castMembers,country,dateAdded,releaseYear,"
+        + "rating,durationInMinute,listedIn,description\r\n";
+
+    private final Writer writer;
+
+    public NetflixShowsCsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+    }
+
+    public void write(NetflixShowsDTO netflixShowsDTO) throws IOException {
+        field(netflixShowsDTO.getId());
+        writer.write(',');
+        field(netflixShowsDTO.getShowType());
+        writer.write(',');
+        field(netflixShowsDTO.getTitle());
+        writer.write(',');
+        field(netflixShowsDTO.getDirector());
+        writer.write(',');
+        field(netflixShowsDTO.getCastMembers());
+        writer.write(',');
+        field(netflixShowsDTO.getCountry());
+        writer.write(',');
+        field(netflixShowsDTO.getDateAdded());
+        writer.write(',');
+        field(netflixShowsDTO.getReleaseYear());
+        writer.write(',');
+        field(netflixShowsDTO.getRating());
+        writer.write(',');
+        field(netflixShowsDTO.getDurationInMinute());
+        writer.write(',');
+        field(netflixShowsDTO.getListedIn());
+        writer.write(',');
+        field(netflixShowsDTO.getDescription());
+        writer.write("\r\n");
+    }
+
+    // Null is written as an empty field; text is quoted only when it contains a separator, a quote or a line break
+    private void field(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
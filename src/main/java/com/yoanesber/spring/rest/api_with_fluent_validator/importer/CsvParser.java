@@ -0,0 +1,94 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming RFC 4180 parser: quoted fields may contain commas, doubled quotes and line breaks
+public class CsvParser implements Closeable {
+    private static final int NONE = -2;
+
+    private final Reader reader;
+
+    private final StringBuilder field = new StringBuilder();
+
+    private int pushedBack = NONE;
+
+    private boolean first = true;
+
+    public CsvParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Read the next record, or null at the end of the input
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        boolean quoted = false;
+        field.setLength(0);
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        // Closing quote; the character after it is handled as unquoted input
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+
+        int c = reader.read();
+        if (first) {
+            // Skip the byte order mark that spreadsheet exports put in front of UTF-8 files
+            first = false;
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
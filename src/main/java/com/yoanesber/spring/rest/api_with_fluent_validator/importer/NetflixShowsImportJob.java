@@ -0,0 +1,138 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.importer;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.ImportJobDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EImportStatus;
+
+// Progress of one import; counters are updated by the pipeline stages and read by status requests
+public class NetflixShowsImportJob {
+    private final String id;
+
+    private final String format;
+
+    private final Path source;
+
+    private final Path rejectFile;
+
+    final AtomicLong recordsRead = new AtomicLong();
+
+    final AtomicLong recordsImported = new AtomicLong();
+
+    final AtomicLong recordsRejected = new AtomicLong();
+
+    private volatile long committedRecords;
+
+    private volatile EImportStatus status;
+
+    private volatile LocalDateTime startedAt;
+
+    private volatile LocalDateTime finishedAt;
+
+    private volatile String message;
+
+    private volatile boolean stopRequested;
+
+    private volatile EImportStatus stopStatus;
+
+    public NetflixShowsImportJob(String id, String format, Path source, Path rejectFile) {
+        this.id = id;
+        this.format = format;
+        this.source = source;
+        this.rejectFile = rejectFile;
+        this.status = EImportStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Restore a job from its last checkpoint
+    public NetflixShowsImportJob(ImportJobDTO checkpoint, Path rejectFile) {
+        this(checkpoint.getId(), checkpoint.getFormat(), Path.of(checkpoint.getSource()), rejectFile);
+        this.recordsRead.set(checkpoint.getCommittedRecords());
+        this.recordsImported.set(checkpoint.getRecordsImported());
+        this.recordsRejected.set(checkpoint.getRecordsRejected());
+        this.committedRecords = checkpoint.getCommittedRecords();
+        this.status = EImportStatus.valueOf(checkpoint.getStatus());
+        this.startedAt = checkpoint.getStartedAt();
+        this.finishedAt = checkpoint.getFinishedAt();
+        this.message = checkpoint.getMessage();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Path getSource() {
+        return source;
+    }
+
+    public Path getRejectFile() {
+        return rejectFile;
+    }
+
+    public EImportStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getCommittedRecords() {
+        return committedRecords;
+    }
+
+    // Ask the pipeline to stop after the chunk being written; the final status is set by the pipeline
+    public void requestStop(EImportStatus stopStatus, String stopMessage) {
+        this.message = stopMessage;
+        this.stopStatus = stopStatus;
+        this.stopRequested = true;
+    }
+
+    boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    EImportStatus getStopStatus() {
+        return stopStatus;
+    }
+
+    // Prepare a stopped or failed job to run again from its checkpoint
+    public void restart() {
+        recordsRead.set(committedRecords);
+        stopRequested = false;
+        stopStatus = null;
+        status = EImportStatus.RUNNING;
+        finishedAt = null;
+        message = null;
+    }
+
+    // Take the offset and counters stored with the last committed chunk; the checkpoint file is written after the
+    // commit, so after a crash it can lag one chunk behind
+    public void restoreCommitted(long lastRecord, long imported, long rejected) {
+        recordsRead.set(lastRecord);
+        recordsImported.set(imported);
+        recordsRejected.set(rejected);
+        committedRecords = lastRecord;
+    }
+
+    void commit(long lastRecord) {
+        committedRecords = lastRecord;
+    }
+
+    public void finish(EImportStatus finalStatus, String finalMessage) {
+        status = finalStatus;
+        message = finalMessage;
+        finishedAt = LocalDateTime.now();
+    }
+
+    public ImportJobDTO toDTO() {
+        return new ImportJobDTO(id, format, source.toString(), status.name(), recordsRead.get(), recordsImported.get(),
+            recordsRejected.get(), committedRecords, startedAt, finishedAt, message);
+    }
+}
@@ -0,0 +1,405 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.importer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EDuplicatePolicy;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EImportStatus;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsImportCheckpointRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsDuplicateService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.ValidatorService;
+
+/*
+ * Runs an import as three stages connected by bounded queues:
+ * one reader parses the file into chunks, the validator workers validate chunks in parallel and
+ * one writer saves the chunks in file order, one transaction per chunk that also stores the import checkpoint.
+ * At most maxChunksInFlight chunks are held in memory at any time, whatever the size of the file.
+ */
+public class NetflixShowsImportPipeline {
+    private static final Chunk END = new Chunk(-1, List.of());
+
+    private final ValidatorService validatorService;
+
+    private final NetflixShowsService netflixShowsService;
+
+    private final NetflixShowsDuplicateService netflixShowsDuplicateService;
+
+    private final NetflixShowsImportCheckpointRepository checkpointRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ExecutorService executor;
+
+    private final int chunkSize;
+
+    private final int workers;
+
+    private final int maxChunksInFlight;
+
+    public NetflixShowsImportPipeline(ValidatorService validatorService, NetflixShowsService netflixShowsService,
+        NetflixShowsDuplicateService netflixShowsDuplicateService, NetflixShowsImportCheckpointRepository checkpointRepository,
+        TransactionTemplate transactionTemplate, ObjectMapper objectMapper, ExecutorService executor, int chunkSize,
+        int workers, int maxChunksInFlight) {
+        this.validatorService = validatorService;
+        this.netflixShowsService = netflixShowsService;
+        this.netflixShowsDuplicateService = netflixShowsDuplicateService;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    // Run the import on the calling thread, skipping the records committed by a previous run
+    public void run(NetflixShowsImportJob job, Consumer<NetflixShowsImportJob> checkpoint) {
+        BlockingQueue<Chunk> validationQueue = new ArrayBlockingQueue<>(maxChunksInFlight + workers);
+        BlockingQueue<Chunk> writeQueue = new ArrayBlockingQueue<>(maxChunksInFlight + workers);
+        Semaphore inFlight = new Semaphore(maxChunksInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Future<?>> stages = new ArrayList<>(workers + 1);
+        try {
+            stages.add(executor.submit(() -> read(job, validationQueue, inFlight, failure)));
+            for (int i = 0; i < workers; i++) {
+                stages.add(executor.submit(() -> validate(validationQueue, writeQueue, failure)));
+            }
+
+            write(job, writeQueue, inFlight, failure, checkpoint);
+
+            if (job.isStopRequested()) {
+                job.finish(job.getStopStatus(), job.getMessage());
+            } else if (failure.get() != null) {
+                job.finish(EImportStatus.FAILED, "Failed to import record " + (job.getCommittedRecords() + 1)
+                    + " onwards: " + failure.get().getMessage());
+            } else {
+                job.finish(EImportStatus.COMPLETED, null);
+            }
+        } catch (Exception e) {
+            job.finish(EImportStatus.FAILED, "Failed to import record " + (job.getCommittedRecords() + 1)
+                + " onwards: " + e.getMessage());
+        } finally {
+            // Stop the reader and the workers if the writer stopped early
+            stages.forEach(stage -> stage.cancel(true));
+            checkpoint.accept(job);
+        }
+    }
+
+    // Reader stage: parse the file into chunks of records
+    private void read(NetflixShowsImportJob job, BlockingQueue<Chunk> validationQueue, Semaphore inFlight,
+        AtomicReference<Throwable> failure) {
+        try (Reader reader = Files.newBufferedReader(job.getSource(), StandardCharsets.UTF_8)) {
+            RecordSource source = "csv".equals(job.getFormat()) ? csvSource(reader) : ndjsonSource(reader);
+
+            long sequence = 0;
+            long recordNumber = 0;
+            List<Item> items = new ArrayList<>(chunkSize);
+            Item item;
+            while (!job.isStopRequested() && failure.get() == null && (item = source.next(recordNumber + 1)) != null) {
+                recordNumber++;
+
+                // Skip the records committed before a resume
+                if (recordNumber <= job.getCommittedRecords()) {
+                    continue;
+                }
+
+                job.recordsRead.incrementAndGet();
+                items.add(item);
+                if (items.size() == chunkSize) {
+                    if (!acquire(inFlight, job, failure)) {
+                        items.clear();
+                        break;
+                    }
+                    validationQueue.put(new Chunk(sequence++, items));
+                    items = new ArrayList<>(chunkSize);
+                }
+            }
+
+            if (!items.isEmpty() && acquire(inFlight, job, failure)) {
+                validationQueue.put(new Chunk(sequence, items));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        }
+
+        // Tell each worker there is nothing more to validate
+        try {
+            for (int i = 0; i < workers; i++) {
+                validationQueue.put(END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Validator stage: add the validation errors of each record to its conversion errors
+    private void validate(BlockingQueue<Chunk> validationQueue, BlockingQueue<Chunk> writeQueue,
+        AtomicReference<Throwable> failure) {
+        try {
+            Chunk chunk;
+            while ((chunk = validationQueue.take()) != END) {
+                try {
+                    for (Item item : chunk.items()) {
+                        if (item.netflixShowsDTO != null) {
+                            validatorService.getErrorList(validatorService.validateNetflixShows(item.netflixShowsDTO))
+                                .forEach(item.errors::putIfAbsent); // A conversion error already explains the field
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // The writer stops at the gap left by this chunk
+                    failure.compareAndSet(null, e);
+                    continue;
+                }
+
+                writeQueue.put(chunk);
+            }
+
+            writeQueue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writer stage: save the chunks in file order and update the checkpoint file after each one
+    private void write(NetflixShowsImportJob job, BlockingQueue<Chunk> writeQueue, Semaphore inFlight,
+        AtomicReference<Throwable> failure, Consumer<NetflixShowsImportJob> checkpoint) throws IOException, InterruptedException {
+        Map<Long, Chunk> pending = new HashMap<>();
+        long nextSequence = 0;
+        int finishedWorkers = 0;
+
+        try (BufferedWriter rejects = Files.newBufferedWriter(job.getRejectFile(), StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (finishedWorkers < workers) {
+                Chunk chunk = writeQueue.take();
+                if (chunk == END) {
+                    finishedWorkers++;
+                    continue;
+                }
+
+                // Chunks after a gap left by a failed worker are never written
+                pending.put(chunk.sequence(), chunk);
+                while (!job.isStopRequested() && (chunk = pending.remove(nextSequence)) != null) {
+                    save(job, chunk, rejects);
+                    checkpoint.accept(job);
+                    inFlight.release();
+                    nextSequence++;
+                }
+
+                if (job.isStopRequested()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void save(NetflixShowsImportJob job, Chunk chunk, BufferedWriter rejects) {
+        List<Item> valid = new ArrayList<>(chunk.items().size());
+        List<Item> rejected = new ArrayList<>();
+        for (Item item : chunk.items()) {
+            (item.errors.isEmpty() ? valid : rejected).add(item);
+        }
+
+        // Apply the duplicate policy; an ignored record counts as imported, so a re-run import reports the same totals
+        int ignored = 0;
+        List<Item> creates = valid;
+        EDuplicatePolicy duplicatePolicy = netflixShowsDuplicateService.getPolicy();
+        Map<Integer, Long> duplicates = netflixShowsDuplicateService.findDuplicateIds(
+            valid.stream().map(item -> item.netflixShowsDTO).toList());
+        if (!duplicates.isEmpty()) {
+            creates = new ArrayList<>(valid.size() - duplicates.size());
+            for (int i = 0; i < valid.size(); i++) {
+                Item item = valid.get(i);
+                Long duplicateId = duplicates.get(i);
+                if (duplicateId != null && duplicatePolicy == EDuplicatePolicy.IGNORE) {
+                    ignored++;
+                } else if (duplicates.containsKey(i) && (duplicateId == null || duplicatePolicy == EDuplicatePolicy.REJECT)) {
+                    item.errors.put("Title", List.of(duplicateId == null
+                        ? NetflixShowsDuplicateService.DUPLICATE_IN_REQUEST : NetflixShowsDuplicateService.DUPLICATE));
+                    rejected.add(item);
+                } else {
+                    // Upserts become updates of the stored NetflixShows
+                    if (duplicateId != null) {
+                        item.netflixShowsDTO.setId(duplicateId);
+                    }
+                    creates.add(item);
+                }
+            }
+        }
+
+        // Save the valid records, the rejects and the checkpoint of the chunk in one transaction, so a resume after
+        // a crash starts exactly after the last committed chunk. Rejects written by a chunk that rolls back are
+        // dropped before the import runs again.
+        List<Item> toSave = creates;
+        int ignoredRecords = ignored;
+        long lastRecord = chunk.items().get(chunk.items().size() - 1).recordNumber;
+        long imported = ignoredRecords + transactionTemplate.execute(status -> {
+            int saved = saveValid(toSave, rejected);
+            writeRejects(rejected, rejects);
+            checkpointRepository.save(job.getId(), lastRecord, job.recordsImported.get() + ignoredRecords + saved,
+                job.recordsRejected.get() + rejected.size());
+            return saved;
+        });
+
+        job.recordsImported.addAndGet(imported);
+        job.recordsRejected.addAndGet(rejected.size());
+        job.commit(lastRecord);
+    }
+
+    // Save the valid records, adding the ones whose NetflixShows to update was not found to the rejects;
+    // returns the number of records saved
+    private int saveValid(List<Item> valid, List<Item> rejected) {
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        List<NetflixShowsDTO> saved = netflixShowsService.createNetflixShowsBatch(
+            valid.stream().map(item -> item.netflixShowsDTO).toList());
+
+        int imported = 0;
+        for (int i = 0; i < saved.size(); i++) {
+            // Check if the NetflixShows to update was not found
+            if (saved.get(i) == null) {
+                Item item = valid.get(i);
+                item.errors.put("Id", List.of("NetflixShows not found"));
+                rejected.add(item);
+            } else {
+                imported++;
+            }
+        }
+
+        return imported;
+    }
+
+    // Append the rejected records with their errors, in file order
+    private void writeRejects(List<Item> rejected, BufferedWriter rejects) {
+        rejected.sort(Comparator.comparingLong(item -> item.recordNumber));
+        try {
+            for (Item item : rejected) {
+                Map<String, Object> reject = new LinkedHashMap<>();
+                reject.put("record", item.recordNumber);
+                reject.put("errors", item.errors);
+                reject.put("data", item.netflixShowsDTO != null ? item.netflixShowsDTO : item.raw);
+                rejects.write(objectMapper.writeValueAsString(reject));
+                rejects.newLine();
+            }
+            rejects.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Wait for room for one more chunk, giving up when the import stops or fails
+    private static boolean acquire(Semaphore inFlight, NetflixShowsImportJob job, AtomicReference<Throwable> failure)
+        throws InterruptedException {
+        while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            if (job.isStopRequested() || failure.get() != null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private RecordSource csvSource(Reader reader) throws IOException {
+        CsvParser parser = new CsvParser(reader);
+        List<String> header = parser.next();
+        if (header == null) {
+            return recordNumber -> null;
+        }
+
+        NetflixShowsRecordMapper mapper = new NetflixShowsRecordMapper(header);
+        return recordNumber -> {
+            List<String> record;
+            do {
+                record = parser.next();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+
+            if (record == null) {
+                return null;
+            }
+
+            Map<String, List<String>> errors = new TreeMap<>();
+            return new Item(recordNumber, mapper.map(record, errors), errors, null);
+        };
+    }
+
+    private RecordSource ndjsonSource(Reader reader) {
+        BufferedReader lines = new BufferedReader(reader);
+        return recordNumber -> {
+            String line;
+            do {
+                line = lines.readLine();
+            } while (line != null && line.isBlank());
+
+            if (line == null) {
+                return null;
+            }
+
+            Map<String, List<String>> errors = new TreeMap<>();
+            try {
+                return new Item(recordNumber, objectMapper.readValue(line, NetflixShowsDTO.class), errors, null);
+            } catch (JsonProcessingException e) {
+                errors.put("Record", new ArrayList<>(List.of("Record must be a JSON object with NetflixShows properties")));
+                return new Item(recordNumber, null, errors, line);
+            }
+        };
+    }
+
+    // Produces the next record of the file, or null at the end of the file
+    private interface RecordSource {
+        Item next(long recordNumber) throws IOException;
+    }
+
+    private record Chunk(long sequence, List<Item> items) {}
+
+    private static class Item {
+        private final long recordNumber;
+
+        private final NetflixShowsDTO netflixShowsDTO;
+
+        private final Map<String, List<String>> errors;
+
+        private final String raw; // Original line when it could not be parsed
+
+        private Item(long recordNumber, NetflixShowsDTO netflixShowsDTO, Map<String, List<String>> errors, String raw) {
+            this.recordNumber = recordNumber;
+            this.netflixShowsDTO = netflixShowsDTO;
+            this.errors = errors;
+            this.raw = raw;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.importer;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+// Maps CSV records to NetflixShowsDTO by header name. Accepts the DTO property names as well as the
+// columns of the public Netflix titles dataset (type, cast, duration, "September 25, 2021" dates).
+public class NetflixShowsRecordMapper {
+    private static final DateTimeFormatter LONG_DATE = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.ENGLISH);
+
+    private static final String[] PROPERTIES = {"id", "showType", "title", "director", "castMembers", "country",
+        "dateAdded", "releaseYear", "rating", "durationInMinute", "listedIn", "description"};
+
+    // Accepted header names per property, compared after lower-casing and dropping '_', '-' and spaces
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+        Map.entry("id", "id"),
+        Map.entry("showtype", "showType"), Map.entry("type", "showType"),
+        Map.entry("title", "title"),
+        Map.entry("director", "director"),
+        Map.entry("castmembers", "castMembers"), Map.entry("cast", "castMembers"),
+        Map.entry("country", "country"),
+        Map.entry("dateadded", "dateAdded"),
+        Map.entry("releaseyear", "releaseYear"),
+        Map.entry("rating", "rating"),
+        Map.entry("durationinminute", "durationInMinute"), Map.entry("duration", "durationInMinute"),
+        Map.entry("listedin", "listedIn"),
+        Map.entry("description", "description"));
+
+    // Column index of each property in PROPERTIES order, -1 if absent
+    private final int[] columns = new int[PROPERTIES.length];
+
+    public NetflixShowsRecordMapper(List<String> header) {
+        Arrays.fill(columns, -1);
+        List<String> properties = List.of(PROPERTIES);
+        for (int i = 0; i < header.size(); i++) {
+            String property = ALIASES.get(header.get(i).toLowerCase(Locale.ROOT).replaceAll("[_\\- ]", ""));
+            if (property != null) {
+                columns[properties.indexOf(property)] = i;
+            }
+        }
+    }
+
+    // Map a record; values that cannot be converted are left null and reported in errors
+    public NetflixShowsDTO map(List<String> record, Map<String, List<String>> errors) {
+        NetflixShowsDTO netflixShowsDTO = new NetflixShowsDTO();
+        netflixShowsDTO.setId(toLong(value(record, 0), "Id", errors));
+        netflixShowsDTO.setShowType(toShowType(value(record, 1)));
+        netflixShowsDTO.setTitle(value(record, 2));
+        netflixShowsDTO.setDirector(value(record, 3));
+        netflixShowsDTO.setCastMembers(value(record, 4));
+        netflixShowsDTO.setCountry(value(record, 5));
+        netflixShowsDTO.setDateAdded(toDate(value(record, 6), errors));
+        netflixShowsDTO.setReleaseYear(toInteger(value(record, 7), "ReleaseYear", errors));
+        netflixShowsDTO.setRating(toRating(value(record, 8)));
+        netflixShowsDTO.setDurationInMinute(toMinutes(value(record, 9), errors));
+        netflixShowsDTO.setListedIn(value(record, 10));
+        netflixShowsDTO.setDescription(value(record, 11));
+        return netflixShowsDTO;
+    }
+
+    private String value(List<String> record, int property) {
+        int column = columns[property];
+        if (column < 0 || column >= record.size()) {
+            return null;
+        }
+
+        String value = record.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // "Movie" -> MOVIE, "TV Show" -> TV_SHOW; anything else is left to the validator
+    private static String toShowType(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT).replace(' ', '_');
+    }
+
+    // Ratings are 1 - 10 scores; maturity ratings such as "TV-MA" in the Netflix dataset are not scores and are dropped
+    private static Integer toRating(String value) {
+        if (value == null || value.length() > 2 || !value.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+
+        return Integer.valueOf(value);
+    }
+
+    private static Date toDate(String value, Map<String, List<String>> errors) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Date.valueOf(Character.isDigit(value.charAt(0)) ? LocalDate.parse(value) : LocalDate.parse(value, LONG_DATE));
+        } catch (DateTimeParseException e) {
+            addError(errors, "DateAdded", "DateAdded must be a date like 2021-09-25 or September 25, 2021");
+            return null;
+        }
+    }
+
+    // "90 min" and "90" are minutes; "2 Seasons" has no duration in minutes
+    private static Integer toMinutes(String value, Map<String, List<String>> errors) {
+        if (value == null || value.endsWith("Season") || value.endsWith("Seasons")) {
+            return null;
+        }
+
+        return toInteger(value.endsWith("min") ? value.substring(0, value.length() - 3).trim() : value, "DurationInMinute", errors);
+    }
+
+    private static Integer toInteger(String value, String field, Map<String, List<String>> errors) {
+        Long number = toLong(value, field, errors);
+        if (number != null && (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE)) {
+            addError(errors, field, field + " must be a whole number");
+            return null;
+        }
+
+        return number == null ? null : number.intValue();
+    }
+
+    private static Long toLong(String value, String field, Map<String, List<String>> errors) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            addError(errors, field, field + " must be a whole number");
+            return null;
+        }
+    }
+
+    private static void addError(Map<String, List<String>> errors, String field, String message) {
+        errors.computeIfAbsent(field, k -> new ArrayList<>()).add(message);
+    }
+}
@@ -0,0 +1,68 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Records the number of JDBC statements of each request, tagged like http.server.requests. An async request, such as
+// a StreamingResponseBody, keeps its count in a request attribute and is recorded at the end of its last dispatch.
+public class QueryCountFilter extends OncePerRequestFilter {
+    private static final String COUNT_ATTRIBUTE = QueryCountFilter.class.getName() + ".COUNT";
+
+    private final MeterRegistry meterRegistry;
+
+    // One summary per method and URI pattern, so a request does not build and look up its meter again
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public QueryCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            count = new AtomicInteger();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+        }
+
+        AtomicInteger previous = QueryCounter.bind(count);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.bind(previous);
+
+            // The async work counts on the executor thread and ends with another dispatch, which records it
+            if (!isAsyncStarted(request)) {
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                summary(request.getMethod(), uri == null ? "UNKNOWN" : uri.toString()).record(count.get());
+            }
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder("netflix_shows.db.queries")
+            .description("JDBC statements per request")
+            .baseUnit("statements")
+            .tags("method", method, "uri", uri)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry));
+    }
+}
@@ -0,0 +1,48 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Count of the JDBC statements issued while a request is being served. The count belongs to the request and is bound
+// to each thread working on it: the request thread, and the async executor threads that run its streaming body.
+public final class QueryCounter {
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    // Bind the count to the current thread (null to unbind) and return the count bound before
+    public static AtomicInteger bind(AtomicInteger count) {
+        AtomicInteger previous = COUNT.get();
+        if (count == null) {
+            COUNT.remove();
+        } else {
+            COUNT.set(count);
+        }
+        return previous;
+    }
+
+    // Count one statement if a count is bound to the current thread
+    public static void increment() {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    // Run the task with the count of the submitting thread, as a TaskDecorator of the async executor
+    public static Runnable decorate(Runnable task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+
+        return () -> {
+            AtomicInteger previous = bind(count);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+}
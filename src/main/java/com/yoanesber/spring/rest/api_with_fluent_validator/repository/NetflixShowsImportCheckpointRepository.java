@@ -0,0 +1,42 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Last committed record and counters of each import, written in the transaction of the chunk they describe,
+// so the stored offset always matches the rows the imports have committed
+@Repository
+public class NetflixShowsImportCheckpointRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public NetflixShowsImportCheckpointRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Insert or replace the checkpoint of the import; must run in the transaction of the chunk
+    public void save(String importId, long committedRecords, long recordsImported, long recordsRejected) {
+        jdbcTemplate.update("INSERT INTO netflix_shows_import_checkpoint (import_id, committed_records, records_imported, records_rejected) "
+            + "VALUES (:importId, :committedRecords, :recordsImported, :recordsRejected) "
+            + "ON CONFLICT (import_id) DO UPDATE SET committed_records = EXCLUDED.committed_records, "
+            + "records_imported = EXCLUDED.records_imported, records_rejected = EXCLUDED.records_rejected, updated_at = CURRENT_TIMESTAMP",
+            new MapSqlParameterSource("importId", importId)
+                .addValue("committedRecords", committedRecords)
+                .addValue("recordsImported", recordsImported)
+                .addValue("recordsRejected", recordsRejected));
+    }
+
+    // Get the checkpoint of the import, null if no chunk of it has been committed
+    public Checkpoint findById(String importId) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query("SELECT committed_records, records_imported, records_rejected "
+            + "FROM netflix_shows_import_checkpoint WHERE import_id = :importId",
+            new MapSqlParameterSource("importId", importId),
+            (rs, rowNum) -> new Checkpoint(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    public record Checkpoint(long committedRecords, long recordsImported, long recordsRejected) {}
+}
@@ -0,0 +1,152 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ELinkType;
+
+// Genre and cast links live in plain join tables, written with JDBC batches in the caller's transaction
+@Repository
+public class NetflixShowsLinkRepository {
+    // Keeps IN lists well below the driver's bind parameter limit
+    private static final int MAX_IN_SIZE = 1000;
+
+    private static final int FETCH_SIZE = 10000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public NetflixShowsLinkRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Get the ids of the given names, inserting the names that do not exist yet
+    public Map<String, Long> findOrCreateIds(ELinkType linkType, Collection<String> names) {
+        Map<String, Long> ids = findIds(linkType, names);
+        if (ids.size() == names.size()) {
+            return ids;
+        }
+
+        List<SqlParameterSource> missing = new ArrayList<>(names.size() - ids.size());
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                missing.add(new MapSqlParameterSource("name", name));
+            }
+        }
+
+        // Concurrent writers may insert the same name, so conflicts are ignored and the ids read back
+        jdbcTemplate.batchUpdate("INSERT INTO " + nameTable(linkType) + " (name) VALUES (:name) ON CONFLICT DO NOTHING",
+            missing.toArray(SqlParameterSource[]::new));
+        ids.putAll(findIds(linkType, missing.stream().map(p -> (String) p.getValue("name")).toList()));
+        return ids;
+    }
+
+    // Get the linked ids of every given show
+    public Map<Long, Set<Long>> findLinks(ELinkType linkType, Collection<Long> showIds) {
+        Map<Long, Set<Long>> links = new HashMap<>();
+        for (List<Long> chunk : chunks(showIds)) {
+            jdbcTemplate.query("SELECT show_id, " + linkColumn(linkType) + " FROM " + joinTable(linkType) + " WHERE show_id IN (:ids)",
+                new MapSqlParameterSource("ids", chunk),
+                rs -> {
+                    links.computeIfAbsent(rs.getLong(1), k -> new HashSet<>()).add(rs.getLong(2));
+                });
+        }
+
+        return links;
+    }
+
+    // Insert {showId, linkedId} pairs in one JDBC batch
+    public void insertLinks(ELinkType linkType, List<long[]> links) {
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + joinTable(linkType) + " (show_id, " + linkColumn(linkType) + ") VALUES (:showId, :linkedId)",
+                toParameters(links));
+        }
+    }
+
+    // Delete {showId, linkedId} pairs in one JDBC batch
+    public void deleteLinks(ELinkType linkType, List<long[]> links) {
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM " + joinTable(linkType) + " WHERE show_id = :showId AND " + linkColumn(linkType) + " = :linkedId",
+                toParameters(links));
+        }
+    }
+
+    // Get the id of every genre or person name
+    public Map<String, Long> findAllIds(ELinkType linkType) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM " + nameTable(linkType), rs -> {
+            ids.put(rs.getString(2), rs.getLong(1));
+        });
+
+        return ids;
+    }
+
+    // Hand over every {linkedId, showId} pair ordered by linked id, then show id, reading through a cursor
+    @Transactional(readOnly = true)
+    public void forEachLink(ELinkType linkType, BiConsumer<Long, Long> consumer) {
+        String sql = "SELECT " + linkColumn(linkType) + ", show_id FROM " + joinTable(linkType) + " ORDER BY 1, 2";
+        jdbcTemplate.getJdbcOperations().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getLong(1), rs.getLong(2));
+        });
+    }
+
+    private Map<String, Long> findIds(ELinkType linkType, Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : chunks(names)) {
+            jdbcTemplate.query("SELECT id, name FROM " + nameTable(linkType) + " WHERE name IN (:names)",
+                new MapSqlParameterSource("names", chunk),
+                rs -> {
+                    ids.put(rs.getString(2), rs.getLong(1));
+                });
+        }
+
+        return ids;
+    }
+
+    private static SqlParameterSource[] toParameters(List<long[]> links) {
+        SqlParameterSource[] parameters = new SqlParameterSource[links.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = new MapSqlParameterSource("showId", links.get(i)[0]).addValue("linkedId", links.get(i)[1]);
+        }
+
+        return parameters;
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> list = List.copyOf(values);
+        List<List<T>> chunks = new ArrayList<>((list.size() + MAX_IN_SIZE - 1) / MAX_IN_SIZE);
+        for (int from = 0; from < list.size(); from += MAX_IN_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + MAX_IN_SIZE, list.size())));
+        }
+
+        return chunks;
+    }
+
+    private static String nameTable(ELinkType linkType) {
+        return linkType == ELinkType.GENRE ? "genres" : "people";
+    }
+
+    private static String joinTable(ELinkType linkType) {
+        return linkType == ELinkType.GENRE ? "netflix_shows_genres" : "netflix_shows_cast";
+    }
+
+    private static String linkColumn(ELinkType linkType) {
+        return linkType == ELinkType.GENRE ? "genre_id" : "person_id";
+    }
+}
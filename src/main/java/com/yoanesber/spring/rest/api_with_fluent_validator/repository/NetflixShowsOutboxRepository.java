@@ -0,0 +1,74 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsChangeDTO;
+
+// Change feed rows, appended with JDBC batches in the writing transaction. Sequence numbers come from the single
+// row of netflix_shows_outbox_sequence: its row lock is held until commit, so numbers are assigned in commit order
+// and a reader that has seen a sequence number has seen every smaller one. The row is global, so the commits of all
+// writers are serialized on it.
+@Repository
+public class NetflixShowsOutboxRepository {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public NetflixShowsOutboxRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Assign the next sequence numbers to the changes and insert them in one JDBC batch
+    public void append(List<NetflixShowsChangeDTO> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        long last = jdbcTemplate.queryForObject(
+            "UPDATE netflix_shows_outbox_sequence SET last_seq = last_seq + :count RETURNING last_seq",
+            new MapSqlParameterSource("count", changes.size()), Long.class);
+
+        SqlParameterSource[] parameters = new SqlParameterSource[changes.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            NetflixShowsChangeDTO change = changes.get(i);
+            change.setSeq(last - changes.size() + 1 + i);
+            parameters[i] = new MapSqlParameterSource("seq", change.getSeq())
+                .addValue("showId", change.getId())
+                .addValue("changeType", change.getChangeType())
+                .addValue("payload", change.getNetflixShows());
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO netflix_shows_outbox (seq, show_id, change_type, payload) "
+            + "VALUES (:seq, :showId, :changeType, :payload)", parameters);
+    }
+
+    // Get at most limit changes after the sequence number, in sequence order
+    public List<NetflixShowsChangeDTO> findAfter(long seq, int limit) {
+        return jdbcTemplate.query("SELECT seq, show_id, change_type, payload FROM netflix_shows_outbox "
+            + "WHERE seq > :seq ORDER BY seq LIMIT :limit",
+            new MapSqlParameterSource("seq", seq).addValue("limit", limit),
+            (rs, rowNum) -> new NetflixShowsChangeDTO(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4)));
+    }
+
+    // Get the sequence number of the last committed change (0 if there is none)
+    public long findLastSeq() {
+        return jdbcTemplate.queryForObject("SELECT last_seq FROM netflix_shows_outbox_sequence",
+            new MapSqlParameterSource(), Long.class);
+    }
+
+    // Get the sequence number of the oldest retained change, null if the outbox is empty
+    public Long findFirstSeq() {
+        return jdbcTemplate.queryForObject("SELECT MIN(seq) FROM netflix_shows_outbox", new MapSqlParameterSource(), Long.class);
+    }
+
+    // Delete the changes committed before the given instant
+    public int deleteCreatedBefore(Instant instant) {
+        return jdbcTemplate.update("DELETE FROM netflix_shows_outbox WHERE created_at < :createdAt",
+            new MapSqlParameterSource("createdAt", Timestamp.from(instant)));
+    }
+}
@@ -1,11 +1,60 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO;
 import com.yoanesber.spring.rest.api_with_fluent_validator.entity.NetflixShows;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface NetflixShowsRepository extends JpaRepository<NetflixShows, Long> {
+public interface NetflixShowsRepository extends JpaRepository<NetflixShows, Long>, NetflixShowsRepositoryCustom {
+    // Get the next page of NetflixShows after the given id (keyset pagination); the queries are read-only like the
+    // inherited finders, so calls outside a transaction are routed to a replica when replicas are configured
+    @Transactional(readOnly = true)
+    List<NetflixShows> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Stream all NetflixShows ordered by id using a server-side cursor
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT n FROM NetflixShows n ORDER BY n.id ASC")
+    Stream<NetflixShows> streamAllOrderById();
+
+    // Get the version and update time of NetflixShows by id without reading the other columns
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO(n.id, n.version, n.updatedAt) "
+        + "FROM NetflixShows n WHERE n.id = :id")
+    Optional<NetflixShowsVersionDTO> findVersionById(@Param("id") Long id);
+
+    // Get the versions of the next page of NetflixShows after the given id (keyset pagination)
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO(n.id, n.version, n.updatedAt) "
+        + "FROM NetflixShows n WHERE n.id > :after ORDER BY n.id ASC")
+    List<NetflixShowsVersionDTO> findVersionsByIdGreaterThan(@Param("after") Long after, Limit limit);
+
+    // Get the id of the NetflixShows with the given normalized title, release year and show type through
+    // netflix_shows_duplicate_key_idx; not read-only, so the lookup sees the latest commits on the primary
+    @Query(value = "SELECT id FROM netflix_shows WHERE lower(btrim(regexp_replace(title, '\\s+', ' ', 'g'))) = :titleKey "
+        + "AND release_year = :releaseYear AND type = :showType", nativeQuery = true)
+    Optional<Long> findIdByDuplicateKey(@Param("titleKey") String titleKey, @Param("releaseYear") Integer releaseYear,
+        @Param("showType") String showType);
 
+    // Delete NetflixShows by id in a single statement and return the affected row count
+    @Modifying
+    @Query("DELETE FROM NetflixShows n WHERE n.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
 }
@@ -0,0 +1,41 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchCriteriaDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.NetflixShows;
+
+public interface NetflixShowsRepositoryCustom {
+    // Update the columns of NetflixShows by id in a single statement (null values are skipped when partial) and return the affected row count;
+    // a non-null version in values must match the stored one, otherwise no row is updated
+    int updateById(Long id, NetflixShows values, boolean partial);
+
+    // Get the next page of NetflixShows after the given id ordered by id, selecting only the columns of the given fields
+    // (id, version and updatedAt are always selected); the other properties of the DTOs are null
+    List<NetflixShowsDTO> findProjectedByIdGreaterThan(Long id, int limit, Set<ENetflixShowsField> fields);
+
+    // Get NetflixShows by id, selecting only the columns of the given fields as for findProjectedByIdGreaterThan
+    Optional<NetflixShowsDTO> findProjectedById(Long id, Set<ENetflixShowsField> fields);
+
+    // Search NetflixShows matching the criteria with id greater than the cursor, ordered by id
+    List<NetflixShows> search(NetflixShowsSearchCriteriaDTO criteria, Long after, int limit);
+
+    // Count the NetflixShows matching the criteria per showType, country and rating
+    Map<String, Map<String, Long>> searchFacets(NetflixShowsSearchCriteriaDTO criteria);
+
+    // Hand over the NetflixShows added within the optional inclusive date range ordered by id, reading rows through a cursor
+    void forEachByDateAdded(Date dateAddedFrom, Date dateAddedTo, Consumer<NetflixShows> consumer);
+
+    // Hand over every NetflixShows with only id, showType, country, releaseYear, rating and durationInMinute set, reading rows through a cursor
+    void forEachStatsColumns(Consumer<NetflixShows> consumer);
+
+    // Hand over every NetflixShows with only showType, title and releaseYear set, reading rows through a cursor
+    void forEachDuplicateKeyColumns(Consumer<NetflixShows> consumer);
+}
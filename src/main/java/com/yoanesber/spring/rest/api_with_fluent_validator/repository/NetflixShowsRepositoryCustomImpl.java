@@ -0,0 +1,342 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchCriteriaDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.NetflixShows;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+public class NetflixShowsRepositoryCustomImpl implements NetflixShowsRepositoryCustom {
+    // Generated tsvector column backed by a GIN index (see the DDL in README.md)
+    private static final String SEARCH_VECTOR = "search_vector @@ websearch_to_tsquery('english', :q)";
+
+    // Entity columns only, so the tsvector is not shipped back with every row
+    private static final String COLUMNS = "id, type, title, director, cast_members, country, date_added, "
+        + "release_year, rating, duration_in_minute, listed_in, description, version, updated_at";
+
+    private static final String[] FACETS = {"showType", "country", "rating"};
+
+    // Rows per round trip when reading through a cursor. The PostgreSQL driver ignores the fetch size in autocommit mode
+    // and buffers the whole result, so every cursor read runs in a transaction.
+    private static final int FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NetflixShowsRepositoryCustomImpl(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int updateById(Long id, NetflixShows values, boolean partial) {
+        Assert.notNull(id, "ID must not be null");
+        Assert.notNull(values, "NetflixShows must not be null");
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<NetflixShows> update = cb.createCriteriaUpdate(NetflixShows.class);
+        Root<NetflixShows> root = update.from(NetflixShows.class);
+
+        // Only the columns being changed end up in the SET clause
+        int columns = 0;
+        columns += set(update, "showType", values.getShowType(), partial);
+        columns += set(update, "title", values.getTitle(), partial);
+        columns += set(update, "director", values.getDirector(), partial);
+        columns += set(update, "castMembers", values.getCastMembers(), partial);
+        columns += set(update, "country", values.getCountry(), partial);
+        columns += set(update, "dateAdded", values.getDateAdded(), partial);
+        columns += set(update, "releaseYear", values.getReleaseYear(), partial);
+        columns += set(update, "rating", values.getRating(), partial);
+        columns += set(update, "durationInMinute", values.getDurationInMinute(), partial);
+        columns += set(update, "listedIn", values.getListedIn(), partial);
+        columns += set(update, "description", values.getDescription(), partial);
+        Assert.isTrue(columns > 0, "At least one column must be updated");
+
+        // Bulk updates bypass the entity lifecycle, so bump the version and the update time here
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.set(root.<Instant>get("updatedAt"), values.getUpdatedAt() != null ? values.getUpdatedAt()
+            : Instant.now().truncatedTo(ChronoUnit.MICROS));
+
+        // Optimistic locking: only update the row if it still has the version the client last saw
+        update.where(values.getVersion() == null ? cb.equal(root.get("id"), id)
+            : cb.and(cb.equal(root.get("id"), id), cb.equal(root.get("version"), values.getVersion())));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<NetflixShowsDTO> findProjectedByIdGreaterThan(Long id, int limit, Set<ENetflixShowsField> fields) {
+        Assert.notNull(id, "ID must not be null");
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+        return findProjected(fields, id, false, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<NetflixShowsDTO> findProjectedById(Long id, Set<ENetflixShowsField> fields) {
+        Assert.notNull(id, "ID must not be null");
+
+        return findProjected(fields, id, true, 1).stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<NetflixShows> search(NetflixShowsSearchCriteriaDTO criteria, Long after, int limit) {
+        Assert.notNull(criteria, "Search criteria must not be null");
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM netflix_shows WHERE id > :after");
+        params.put("after", after == null ? 0L : after);
+        appendFilters(sql, params, criteria);
+        sql.append(" ORDER BY id LIMIT :limit");
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), NetflixShows.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Map<String, Long>> searchFacets(NetflixShowsSearchCriteriaDTO criteria) {
+        Assert.notNull(criteria, "Search criteria must not be null");
+
+        // One scan over the matches, grouped once per facet column
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT GROUPING(type), GROUPING(country), CAST(type AS text), country, "
+            + "rating, COUNT(*) FROM netflix_shows WHERE 1 = 1");
+        appendFilters(sql, params, criteria);
+        sql.append(" GROUP BY GROUPING SETS ((type), (country), (rating)) ORDER BY COUNT(*) DESC");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+
+        return toFacets(query.getResultList());
+    }
+
+    // Map the rows of the grouping sets query to the counts per facet value. Shows without a value (e.g. no rating)
+    // are left out, as no filter value selects them.
+    static Map<String, Map<String, Long>> toFacets(List<Object[]> rows) {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            facets.put(facet, new LinkedHashMap<>());
+        }
+
+        for (Object[] row : rows) {
+            int facet = ((Number) row[0]).intValue() == 0 ? 0 : ((Number) row[1]).intValue() == 0 ? 1 : 2;
+            Object value = row[2 + facet];
+            if (value != null) {
+                facets.get(FACETS[facet]).put(value.toString(), ((Number) row[5]).longValue());
+            }
+        }
+
+        return facets;
+    }
+
+    @Override
+    public void forEachByDateAdded(Date dateAddedFrom, Date dateAddedTo, Consumer<NetflixShows> consumer) {
+        Assert.notNull(consumer, "Consumer must not be null");
+
+        List<Object> params = new ArrayList<>(2);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM netflix_shows WHERE 1 = 1");
+        if (dateAddedFrom != null) {
+            sql.append(" AND date_added >= ?");
+            params.add(dateAddedFrom);
+        }
+        if (dateAddedTo != null) {
+            sql.append(" AND date_added <= ?");
+            params.add(dateAddedTo);
+        }
+        sql.append(" ORDER BY id");
+
+        // Map the columns straight to a detached entity; the cursor only holds FETCH_SIZE rows at a time
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, rs -> {
+            NetflixShows netflixShows = new NetflixShows();
+            netflixShows.setId(rs.getLong(1));
+            netflixShows.setShowType(EShowType.valueOf(rs.getString(2)));
+            netflixShows.setTitle(rs.getString(3));
+            netflixShows.setDirector(rs.getString(4));
+            netflixShows.setCastMembers(rs.getString(5));
+            netflixShows.setCountry(rs.getString(6));
+            netflixShows.setDateAdded(rs.getDate(7));
+            netflixShows.setReleaseYear(rs.getObject(8, Integer.class));
+            netflixShows.setRating(rs.getObject(9, Integer.class));
+            netflixShows.setDurationInMinute(rs.getObject(10, Integer.class));
+            netflixShows.setListedIn(rs.getString(11));
+            netflixShows.setDescription(rs.getString(12));
+            netflixShows.setVersion(rs.getLong(13));
+            netflixShows.setUpdatedAt(rs.getTimestamp(14).toInstant());
+            consumer.accept(netflixShows);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachStatsColumns(Consumer<NetflixShows> consumer) {
+        Assert.notNull(consumer, "Consumer must not be null");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, type, country, release_year, rating, duration_in_minute FROM netflix_shows");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            NetflixShows netflixShows = new NetflixShows();
+            netflixShows.setId(rs.getLong(1));
+            netflixShows.setShowType(EShowType.valueOf(rs.getString(2)));
+            netflixShows.setCountry(rs.getString(3));
+            netflixShows.setReleaseYear(rs.getObject(4, Integer.class));
+            netflixShows.setRating(rs.getObject(5, Integer.class));
+            netflixShows.setDurationInMinute(rs.getObject(6, Integer.class));
+            consumer.accept(netflixShows);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachDuplicateKeyColumns(Consumer<NetflixShows> consumer) {
+        Assert.notNull(consumer, "Consumer must not be null");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT type, title, release_year FROM netflix_shows");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            NetflixShows netflixShows = new NetflixShows();
+            netflixShows.setShowType(EShowType.valueOf(rs.getString(1)));
+            netflixShows.setTitle(rs.getString(2));
+            netflixShows.setReleaseYear(rs.getObject(3, Integer.class));
+            consumer.accept(netflixShows);
+        });
+    }
+
+    // Select the columns of the fields as a tuple, so neither entities nor the unrequested TEXT columns are loaded
+    private List<NetflixShowsDTO> findProjected(Set<ENetflixShowsField> fields, Long id, boolean equal, int limit) {
+        Assert.notNull(fields, "Fields must not be null");
+
+        // The id, version and update time back the cursor, ETag and Last-Modified of every response
+        EnumSet<ENetflixShowsField> selected = EnumSet.of(ENetflixShowsField.ID, ENetflixShowsField.VERSION,
+            ENetflixShowsField.UPDATED_AT);
+        selected.addAll(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<NetflixShows> root = query.from(NetflixShows.class);
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (ENetflixShowsField field : selected) {
+            selections.add(root.get(field.getProperty()).alias(field.getProperty()));
+        }
+        query.multiselect(selections)
+            .where(equal ? cb.equal(root.get("id"), id) : cb.greaterThan(root.<Long>get("id"), id))
+            .orderBy(cb.asc(root.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultList();
+
+        List<NetflixShowsDTO> netflixShows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            NetflixShowsDTO netflixShowsDTO = new NetflixShowsDTO();
+            for (ENetflixShowsField field : selected) {
+                set(netflixShowsDTO, field, tuple.get(field.getProperty()));
+            }
+            netflixShows.add(netflixShowsDTO);
+        }
+
+        return netflixShows;
+    }
+
+    private static void set(NetflixShowsDTO netflixShowsDTO, ENetflixShowsField field, Object value) {
+        switch (field) {
+            case ID -> netflixShowsDTO.setId((Long) value);
+            case SHOW_TYPE -> netflixShowsDTO.setShowType(((EShowType) value).name());
+            case TITLE -> netflixShowsDTO.setTitle((String) value);
+            case DIRECTOR -> netflixShowsDTO.setDirector((String) value);
+            case CAST_MEMBERS -> netflixShowsDTO.setCastMembers((String) value);
+            case COUNTRY -> netflixShowsDTO.setCountry((String) value);
+            case DATE_ADDED -> netflixShowsDTO.setDateAdded((Date) value);
+            case RELEASE_YEAR -> netflixShowsDTO.setReleaseYear((Integer) value);
+            case RATING -> netflixShowsDTO.setRating((Integer) value);
+            case DURATION_IN_MINUTE -> netflixShowsDTO.setDurationInMinute((Integer) value);
+            case LISTED_IN -> netflixShowsDTO.setListedIn((String) value);
+            case DESCRIPTION -> netflixShowsDTO.setDescription((String) value);
+            case VERSION -> netflixShowsDTO.setVersion((Long) value);
+            case UPDATED_AT -> netflixShowsDTO.setUpdatedAt((Instant) value);
+        }
+    }
+
+    private static void appendFilters(StringBuilder sql, Map<String, Object> params, NetflixShowsSearchCriteriaDTO criteria) {
+        if (StringUtils.hasText(criteria.getQ())) {
+            sql.append(" AND ").append(SEARCH_VECTOR);
+            params.put("q", criteria.getQ());
+        }
+        if (criteria.getShowType() != null) {
+            sql.append(" AND type = :showType");
+            params.put("showType", criteria.getShowType());
+        }
+        if (criteria.getCountry() != null) {
+            sql.append(" AND country = :country");
+            params.put("country", criteria.getCountry());
+        }
+        if (criteria.getReleaseYearFrom() != null) {
+            sql.append(" AND release_year >= :releaseYearFrom");
+            params.put("releaseYearFrom", criteria.getReleaseYearFrom());
+        }
+        if (criteria.getReleaseYearTo() != null) {
+            sql.append(" AND release_year <= :releaseYearTo");
+            params.put("releaseYearTo", criteria.getReleaseYearTo());
+        }
+        if (criteria.getRating() != null) {
+            sql.append(" AND rating = :rating");
+            params.put("rating", criteria.getRating());
+        }
+    }
+
+    private static int set(CriteriaUpdate<NetflixShows> update, String attribute, Object value, boolean partial) {
+        if (partial && value == null) {
+            return 0;
+        }
+
+        update.set(attribute, value);
+        return 1;
+    }
+}
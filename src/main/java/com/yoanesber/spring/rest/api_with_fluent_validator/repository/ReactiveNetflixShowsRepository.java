@@ -0,0 +1,165 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveNetflixShowsRepository {
+    private static final String COLUMNS = "id, type, title, director, cast_members, country, date_added, "
+        + "release_year, rating, duration_in_minute, listed_in, description, version, updated_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveNetflixShowsRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Get the next page of NetflixShows after the given id (keyset pagination)
+    public Flux<NetflixShowsDTO> findPage(long after, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM netflix_shows WHERE id > :after ORDER BY id LIMIT :limit")
+            .bind("after", after)
+            .bind("limit", limit)
+            .map(ReactiveNetflixShowsRepository::toDTO)
+            .all();
+    }
+
+    // Stream all NetflixShows ordered by id; rows are requested from the database as the subscriber consumes them
+    public Flux<NetflixShowsDTO> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM netflix_shows ORDER BY id")
+            .map(ReactiveNetflixShowsRepository::toDTO)
+            .all();
+    }
+
+    // Get NetflixShows by id
+    public Mono<NetflixShowsDTO> findById(long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM netflix_shows WHERE id = :id")
+            .bind("id", id)
+            .map(ReactiveNetflixShowsRepository::toDTO)
+            .one();
+    }
+
+    // Insert NetflixShows and return the stored row, with the generated id, version and timestamp
+    public Mono<NetflixShowsDTO> insert(NetflixShowsDTO netflixShowsDTO) {
+        GenericExecuteSpec spec = databaseClient.sql("INSERT INTO netflix_shows (" + COLUMNS + ") VALUES ("
+            + "nextval('id_netflix_shows_seq'), :type, :title, :director, :castMembers, :country, :dateAdded, "
+            + ":releaseYear, :rating, :durationInMinute, :listedIn, :description, 0, CURRENT_TIMESTAMP) "
+            + "RETURNING " + COLUMNS);
+
+        return bindColumns(spec, netflixShowsDTO)
+            .map(ReactiveNetflixShowsRepository::toDTO)
+            .one();
+    }
+
+    // Check if NetflixShows exists by id
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("SELECT 1 FROM netflix_shows WHERE id = :id")
+            .bind("id", id)
+            .map(row -> Boolean.TRUE)
+            .one()
+            .hasElement();
+    }
+
+    // Update all columns of NetflixShows by id, only at the expected version when one is given, and return the stored
+    // row (empty if not found or at another version)
+    public Mono<NetflixShowsDTO> update(long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion) {
+        GenericExecuteSpec spec = databaseClient.sql("UPDATE netflix_shows SET type = :type, title = :title, "
+            + "director = :director, cast_members = :castMembers, country = :country, date_added = :dateAdded, "
+            + "release_year = :releaseYear, rating = :rating, duration_in_minute = :durationInMinute, "
+            + "listed_in = :listedIn, description = :description, version = version + 1, "
+            + "updated_at = CURRENT_TIMESTAMP WHERE id = :id" + versionCondition(expectedVersion) + " RETURNING " + COLUMNS)
+            .bind("id", id);
+
+        return bindVersion(bindColumns(spec, netflixShowsDTO), expectedVersion)
+            .map(ReactiveNetflixShowsRepository::toDTO)
+            .one();
+    }
+
+    // Write the non-null fields of the input over NetflixShows by id in a single statement, so concurrent patches cannot
+    // lose each other's fields; expectedVersion as for update. Return the stored row (empty if not found or at another
+    // version)
+    public Mono<NetflixShowsDTO> patch(long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion) {
+        GenericExecuteSpec spec = databaseClient.sql("UPDATE netflix_shows SET type = COALESCE(:type, type), "
+            + "title = COALESCE(:title, title), director = COALESCE(:director, director), "
+            + "cast_members = COALESCE(:castMembers, cast_members), country = COALESCE(:country, country), "
+            + "date_added = COALESCE(:dateAdded, date_added), release_year = COALESCE(:releaseYear, release_year), "
+            + "rating = COALESCE(:rating, rating), duration_in_minute = COALESCE(:durationInMinute, duration_in_minute), "
+            + "listed_in = COALESCE(:listedIn, listed_in), description = COALESCE(:description, description), "
+            + "version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = :id" + versionCondition(expectedVersion)
+            + " RETURNING " + COLUMNS)
+            .bind("id", id);
+
+        return bindVersion(bindColumns(spec, netflixShowsDTO), expectedVersion)
+            .map(ReactiveNetflixShowsRepository::toDTO)
+            .one();
+    }
+
+    // Delete NetflixShows by id and return the affected row count
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM netflix_shows WHERE id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static GenericExecuteSpec bindColumns(GenericExecuteSpec spec, NetflixShowsDTO netflixShowsDTO) {
+        LocalDate dateAdded = netflixShowsDTO.getDateAdded() == null ? null : netflixShowsDTO.getDateAdded().toLocalDate();
+
+        spec = bind(spec, "type", netflixShowsDTO.getShowType(), String.class);
+        spec = bind(spec, "title", netflixShowsDTO.getTitle(), String.class);
+        spec = bind(spec, "director", netflixShowsDTO.getDirector(), String.class);
+        spec = bind(spec, "castMembers", netflixShowsDTO.getCastMembers(), String.class);
+        spec = bind(spec, "country", netflixShowsDTO.getCountry(), String.class);
+        spec = bind(spec, "dateAdded", dateAdded, LocalDate.class);
+        spec = bind(spec, "releaseYear", netflixShowsDTO.getReleaseYear(), Integer.class);
+        spec = bind(spec, "rating", netflixShowsDTO.getRating(), Integer.class);
+        spec = bind(spec, "durationInMinute", netflixShowsDTO.getDurationInMinute(), Integer.class);
+        spec = bind(spec, "listedIn", netflixShowsDTO.getListedIn(), String.class);
+        return bind(spec, "description", netflixShowsDTO.getDescription(), String.class);
+    }
+
+    private static String versionCondition(Long expectedVersion) {
+        return expectedVersion == null ? "" : " AND version = :version";
+    }
+
+    private static GenericExecuteSpec bindVersion(GenericExecuteSpec spec, Long expectedVersion) {
+        return expectedVersion == null ? spec : spec.bind("version", expectedVersion);
+    }
+
+    private static GenericExecuteSpec bind(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static NetflixShowsDTO toDTO(Readable row) {
+        LocalDate dateAdded = row.get("date_added", LocalDate.class);
+
+        return new NetflixShowsDTO(
+            row.get("id", Long.class),
+            row.get("type", String.class),
+            row.get("title", String.class),
+            row.get("director", String.class),
+            row.get("cast_members", String.class),
+            row.get("country", String.class),
+            dateAdded == null ? null : Date.valueOf(dateAdded),
+            row.get("release_year", Integer.class),
+            row.get("rating", Integer.class),
+            row.get("duration_in_minute", Integer.class),
+            row.get("listed_in", String.class),
+            row.get("description", String.class),
+            row.get("version", Long.class),
+            row.get("updated_at", Instant.class));
+    }
+}
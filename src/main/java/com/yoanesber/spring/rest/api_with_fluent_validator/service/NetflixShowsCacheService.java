@@ -0,0 +1,23 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import java.util.function.Function;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.CacheStatsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+public interface NetflixShowsCacheService {
+    // Get NetflixShowsDTO by id from the cache, loading it on a miss (null results are not cached); the caller owns the returned DTO
+    NetflixShowsDTO get(Long id, Function<Long, NetflixShowsDTO> loader);
+
+    // Get NetflixShowsDTO by id if it is cached and loaded, without loading it; the caller owns the returned DTO
+    NetflixShowsDTO getIfPresent(Long id);
+
+    // Remove NetflixShowsDTO by id from the cache
+    void evict(Long id);
+
+    // Check if NetflixShows by id was changed within netflix-shows.datasource.replica-max-lag, so a read must not use a replica
+    boolean isRecentlyChanged(Long id);
+
+    // Get the cache statistics
+    CacheStatsDTO getStats();
+}
@@ -0,0 +1,14 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface NetflixShowsChangeFeedService {
+    // Get the sequence number of the last committed change
+    long getLastSeq();
+
+    // Check if every change after the sequence number is still in the outbox
+    boolean isRetained(long after);
+
+    // Stream the changes after the sequence number, then every change committed later (null if the subscriber limit is reached)
+    SseEmitter subscribe(long after);
+}
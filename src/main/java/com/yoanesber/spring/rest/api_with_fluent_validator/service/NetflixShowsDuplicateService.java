@@ -0,0 +1,28 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EDuplicatePolicy;
+
+public interface NetflixShowsDuplicateService {
+    // Error reported for a create that duplicates an existing NetflixShows
+    String DUPLICATE = "NetflixShows with the same title, release year and show type already exists";
+
+    // Error reported for an item that duplicates an earlier item of the same request
+    String DUPLICATE_IN_REQUEST = "NetflixShows with the same title, release year and show type appears earlier in the request";
+
+    // Get the policy for creates that duplicate an existing NetflixShows
+    EDuplicatePolicy getPolicy();
+
+    // Get the id of the existing NetflixShows with the same normalized title, release year and show type, or null if none
+    Long findDuplicateId(NetflixShowsDTO netflixShowsDTO);
+
+    // Get the duplicates among the creates of a list (items with an id are skipped) by index: the id of the existing
+    // NetflixShows, or null for an item that duplicates an earlier item of the list
+    Map<Integer, Long> findDuplicateIds(List<NetflixShowsDTO> netflixShowsDTOs);
+
+    // Check if the exception was caused by a concurrent create of the same NetflixShows (unique index violation)
+    boolean isDuplicateKeyViolation(Throwable e);
+}
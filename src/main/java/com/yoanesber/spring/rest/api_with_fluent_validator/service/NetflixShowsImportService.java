@@ -0,0 +1,33 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.ImportJobDTO;
+
+public interface NetflixShowsImportService {
+    // Store an uploaded csv or ndjson file and start importing it in the background
+    ImportJobDTO importUpload(InputStream content, String format);
+
+    // Start importing a file of the import source directory in the background
+    ImportJobDTO importFile(Path source, String format);
+
+    // Resolve a path inside the import source directory, or null if it is outside it or importing files is disabled
+    Path resolveSource(String path);
+
+    // Continue a failed, cancelled or interrupted import after its last committed record
+    ImportJobDTO resumeImport(String id);
+
+    // Stop a running import after the chunk being written; it can be resumed later
+    ImportJobDTO cancelImport(String id);
+
+    // Get an import by id, or null if it does not exist
+    ImportJobDTO getImport(String id);
+
+    // Get all imports, the most recent first
+    List<ImportJobDTO> getAllImports();
+
+    // Get the file of the rejected records of an import, or null if the import does not exist
+    Path getRejectFile(String id);
+}
@@ -0,0 +1,10 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import java.util.List;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ELinkType;
+
+public interface NetflixShowsIndexService {
+    // Get up to limit ids greater than the cursor of the NetflixShows linked to every one of the given names, in ascending order
+    long[] findShowIds(ELinkType linkType, List<String> names, Long after, int limit);
+}
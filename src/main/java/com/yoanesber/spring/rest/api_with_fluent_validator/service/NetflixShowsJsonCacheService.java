@@ -0,0 +1,11 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+public interface NetflixShowsJsonCacheService {
+    // Get the JSON encoding of NetflixShowsDTO, reusing the cached bytes while its id and version are unchanged
+    byte[] getJson(NetflixShowsDTO netflixShowsDTO);
+
+    // Remove the JSON encoding of NetflixShows by id from the cache
+    void evict(Long id);
+}
@@ -0,0 +1,13 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import java.util.List;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+public interface NetflixShowsLinkService {
+    // Sync the genre and cast links of saved NetflixShows with their listedIn and castMembers (must run in the write transaction)
+    void replaceLinks(List<NetflixShowsDTO> netflixShows);
+
+    // Remove the genre and cast links of NetflixShows before it is deleted (must run in the write transaction)
+    void removeLinks(Long id);
+}
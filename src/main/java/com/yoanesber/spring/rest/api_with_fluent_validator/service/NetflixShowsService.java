@@ -1,21 +1,61 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.service;
 
+import java.sql.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchCriteriaDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
 
 public interface NetflixShowsService {
     // Create NetflixShows
     NetflixShowsDTO createNetflixShows(NetflixShowsDTO netflixShowsDTO);
 
+    // Create or update NetflixShows in JDBC batches (null entries mark ids that were not found)
+    List<NetflixShowsDTO> createNetflixShowsBatch(List<NetflixShowsDTO> netflixShowsDTOs);
+
     // Get all NetflixShows
     List<NetflixShowsDTO> getAllNetflixShows();
 
+    // Get a page of NetflixShows with id greater than the cursor
+    List<NetflixShowsDTO> getNetflixShowsPage(Long after, int limit);
+
+    // Get a page of NetflixShows with id greater than the cursor, loading only the given fields (and id, version and updatedAt)
+    List<NetflixShowsDTO> getNetflixShowsPage(Long after, int limit, Set<ENetflixShowsField> fields);
+
+    // Get NetflixShows by ids in the given order (missing ids are skipped)
+    List<NetflixShowsDTO> getNetflixShowsByIds(long[] ids);
+
+    // Search a page of NetflixShows with id greater than the cursor (facet counts are included on request)
+    NetflixShowsSearchResultDTO searchNetflixShows(NetflixShowsSearchCriteriaDTO criteria, Long after, int limit, boolean facets);
+
+    // Stream all NetflixShows ordered by id
+    void streamAllNetflixShows(Consumer<NetflixShowsDTO> consumer);
+
+    // Stream the NetflixShows added within the optional inclusive date range ordered by id
+    void exportNetflixShows(Date dateAddedFrom, Date dateAddedTo, Consumer<NetflixShowsDTO> consumer);
+
+    // Get the version and update time of NetflixShows by id, from the cache when present
+    NetflixShowsVersionDTO getNetflixShowsVersion(Long id);
+
+    // Get the versions of the next page of NetflixShows after the given id (same rows as getNetflixShowsPage)
+    List<NetflixShowsVersionDTO> getNetflixShowsVersionsPage(Long after, int limit);
+
     // Get NetflixShows by id
     NetflixShowsDTO getNetflixShowsById(Long id);
 
-    // Update NetflixShows
-    NetflixShowsDTO updateNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO);
+    // Get NetflixShows by id from the cache when present, otherwise loading only the given fields (and id, version and updatedAt)
+    NetflixShowsDTO getNetflixShowsById(Long id, Set<ENetflixShowsField> fields);
+
+    // Update NetflixShows; a non-null expectedVersion must match the stored version (OptimisticLockingFailureException otherwise)
+    NetflixShowsDTO updateNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion);
+
+    // Patch NetflixShows (only non-null fields are updated); expectedVersion as for updateNetflixShows
+    NetflixShowsDTO patchNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion);
 
     // Delete NetflixShows
     Boolean deleteNetflixShows(Long id);
@@ -0,0 +1,11 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EStatsGroupBy;
+
+public interface NetflixShowsStatsService {
+    // Get the count, average rating and average duration of the NetflixShows of the given show type (all when null),
+    // in total and per group (no groups when groupBy is null)
+    NetflixShowsStatsResultDTO getStats(EStatsGroupBy groupBy, EShowType showType);
+}
@@ -0,0 +1,15 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+public interface NetflixShowsWriteBehindService {
+    // Check if creates are coalesced into grouped transactions (netflix-shows.write-behind.enabled)
+    boolean isEnabled();
+
+    // Queue a validated NetflixShowsDTO for creation; the future completes with the created NetflixShowsDTO
+    // once its group commits, or with a TimeoutException after netflix-shows.write-behind.timeout, or null is returned
+    // when the buffer is full
+    CompletableFuture<NetflixShowsDTO> submit(NetflixShowsDTO netflixShowsDTO);
+}
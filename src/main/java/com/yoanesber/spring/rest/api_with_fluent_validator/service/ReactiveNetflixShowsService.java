@@ -0,0 +1,31 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveNetflixShowsService {
+    // Create NetflixShows
+    Mono<NetflixShowsDTO> createNetflixShows(NetflixShowsDTO netflixShowsDTO);
+
+    // Get a page of NetflixShows with id greater than the cursor
+    Flux<NetflixShowsDTO> getNetflixShowsPage(Long after, int limit);
+
+    // Stream all NetflixShows ordered by id
+    Flux<NetflixShowsDTO> streamAllNetflixShows();
+
+    // Get NetflixShows by id (empty if not found)
+    Mono<NetflixShowsDTO> getNetflixShowsById(Long id);
+
+    // Update NetflixShows (empty if not found); a non-null expectedVersion must match the stored version
+    // (OptimisticLockingFailureException otherwise)
+    Mono<NetflixShowsDTO> updateNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion);
+
+    // Patch NetflixShows with the non-null fields of the input (empty if not found); expectedVersion as for
+    // updateNetflixShows
+    Mono<NetflixShowsDTO> patchNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion);
+
+    // Delete NetflixShows
+    Mono<Boolean> deleteNetflixShows(Long id);
+}
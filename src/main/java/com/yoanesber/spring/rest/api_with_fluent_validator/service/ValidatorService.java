@@ -13,4 +13,10 @@ public interface ValidatorService {
 
     // Validate NetflixShowsDTO
     ValidationResult validateNetflixShows(NetflixShowsDTO netflixShowsDTO);
+
+    // Validate the fields present in a partial NetflixShowsDTO (absent fields are not required)
+    ValidationResult validateNetflixShowsPatch(NetflixShowsDTO netflixShowsDTO);
+
+    // Validate a list of NetflixShowsDTO and return the error list of each invalid item by index
+    Map<Integer, Map<String, List<String>>> validateNetflixShowsBatch(List<NetflixShowsDTO> netflixShowsDTOs);
 }
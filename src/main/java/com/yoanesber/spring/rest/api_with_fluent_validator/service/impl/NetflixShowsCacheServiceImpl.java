@@ -0,0 +1,160 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.CacheStatsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsCacheService;
+
+@Service
+public class NetflixShowsCacheServiceImpl implements NetflixShowsCacheService {
+    // NetflixShowsDTO is mutable, so each entry is a private copy and every read returns a copy of its own
+    private final AsyncCache<Long, NetflixShowsDTO> cache;
+
+    // Ids changed within the replica lag; reads of them go to the primary
+    private final Cache<Long, Boolean> recentlyChanged;
+
+    public NetflixShowsCacheServiceImpl(@Value("${netflix-shows.cache.maximum-size:10000}") long maximumSize,
+        @Value("${netflix-shows.cache.expire-after-write:10m}") Duration expireAfterWrite,
+        @Value("${netflix-shows.datasource.replica-max-lag:5s}") Duration replicaMaxLag, MeterRegistry meterRegistry) {
+        Assert.isTrue(!replicaMaxLag.isNegative(), "Replica max lag must not be negative");
+
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .buildAsync();
+        this.recentlyChanged = Caffeine.newBuilder()
+            .expireAfterWrite(replicaMaxLag)
+            .build();
+
+        // Publish hit/miss/eviction counts as cache.* meters
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "netflix_shows");
+    }
+
+    @Override
+    public NetflixShowsDTO get(Long id, Function<Long, NetflixShowsDTO> loader) {
+        Assert.notNull(id, "ID must not be null");
+
+        // Publish a pending entry so concurrent readers of the same id wait for this load instead of querying too.
+        // The load itself runs outside any map lock, so a virtual thread blocked on JDBC is never pinned.
+        CompletableFuture<NetflixShowsDTO> loading = new CompletableFuture<>();
+        CompletableFuture<NetflixShowsDTO> existing = cache.get(id, (key, executor) -> loading);
+        if (existing != loading) {
+            try {
+                return copy(existing.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        // An eviction while loading removes the pending entry, so a row read before a commit is not kept
+        try {
+            NetflixShowsDTO netflixShowsDTO = loader.apply(id);
+            loading.complete(copy(netflixShowsDTO));
+            return netflixShowsDTO;
+        } catch (RuntimeException e) {
+            cache.asMap().remove(id, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public NetflixShowsDTO getIfPresent(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        // A pending or failed load is treated as absent rather than waited for
+        CompletableFuture<NetflixShowsDTO> cached = cache.getIfPresent(id);
+        return cached != null && cached.isDone() && !cached.isCompletedExceptionally() ? copy(cached.join()) : null;
+    }
+
+    @Override
+    public void evict(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        cache.synchronous().invalidate(id);
+    }
+
+    @Override
+    public boolean isRecentlyChanged(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        return recentlyChanged.getIfPresent(id) != null;
+    }
+
+    @Override
+    public CacheStatsDTO getStats() {
+        CacheStats stats = cache.synchronous().stats();
+        return new CacheStatsDTO(cache.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(), 
+            stats.hitRate(), stats.evictionCount());
+    }
+
+    // Update the cache once the change is visible to other transactions. The id is marked as recently changed first,
+    // so a reload after the eviction reads from the primary rather than from a replica that may lag behind.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNetflixShowsChanged(NetflixShowsChangedEvent event) {
+        recentlyChanged.put(event.getId(), Boolean.TRUE);
+        switch (event.getChangeType()) {
+            case CREATED -> {
+            }
+            case UPDATED -> replaceIfNewer(event.getId(), event.getNetflixShows());
+            case DELETED -> evict(event.getId());
+        }
+    }
+
+    // Replace a loaded entry only with a newer version, so the listeners of concurrent updates running out of order
+    // cannot leave an older state cached; an entry with the same or a newer version is kept
+    private void replaceIfNewer(Long id, NetflixShowsDTO netflixShowsDTO) {
+        if (netflixShowsDTO == null || netflixShowsDTO.getVersion() == null) {
+            evict(id);
+            return;
+        }
+
+        cache.asMap().compute(id, (key, cached) -> {
+            NetflixShowsDTO current = cached != null && cached.isDone() && !cached.isCompletedExceptionally()
+                ? cached.join() : null;
+
+            // Nothing loaded to compare with: evict, the next read reloads from the primary
+            if (current == null || current.getVersion() == null) {
+                return null;
+            }
+
+            return current.getVersion() < netflixShowsDTO.getVersion()
+                ? CompletableFuture.completedFuture(copy(netflixShowsDTO)) : cached;
+        });
+    }
+
+    // Copy every field, including the mutable java.sql.Date
+    private static NetflixShowsDTO copy(NetflixShowsDTO netflixShowsDTO) {
+        if (netflixShowsDTO == null) {
+            return null;
+        }
+
+        Date dateAdded = netflixShowsDTO.getDateAdded();
+        return new NetflixShowsDTO(netflixShowsDTO.getId(), netflixShowsDTO.getShowType(), netflixShowsDTO.getTitle(),
+            netflixShowsDTO.getDirector(), netflixShowsDTO.getCastMembers(), netflixShowsDTO.getCountry(),
+            dateAdded == null ? null : new Date(dateAdded.getTime()), netflixShowsDTO.getReleaseYear(),
+            netflixShowsDTO.getRating(), netflixShowsDTO.getDurationInMinute(), netflixShowsDTO.getListedIn(),
+            netflixShowsDTO.getDescription(), netflixShowsDTO.getVersion(), netflixShowsDTO.getUpdatedAt());
+    }
+}
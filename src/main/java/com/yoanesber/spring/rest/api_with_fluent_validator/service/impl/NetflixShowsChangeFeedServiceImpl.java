@@ -0,0 +1,369 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.changefeed.NetflixShowsChangeBuffer;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsChangeDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsOutboxRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsChangeFeedService;
+
+// Every change is appended to the outbox just before its transaction commits. A single poller thread reads the
+// committed changes into a shared buffer, woken after each local commit or every poll-interval for the commits of
+// other instances, and a small dispatch pool sends them to the subscribers: a subscriber only takes a dispatch thread
+// while it has changes to send, and reads from the outbox itself while it is behind the buffer.
+@Service
+public class NetflixShowsChangeFeedServiceImpl implements NetflixShowsChangeFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(NetflixShowsChangeFeedServiceImpl.class);
+
+    // Changes read from the outbox per query
+    private static final int PAGE_SIZE = 500;
+
+    // Changes sent to one subscriber before its dispatch thread moves on to the next subscriber
+    private static final int MAX_CHANGES_PER_DISPATCH = 5000;
+
+    private static final long CLEANUP_INTERVAL_NANOS = Duration.ofHours(1).toNanos();
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+
+        // Sequence number of the last change sent; only written by the subscriber's dispatch, which never runs twice at once
+        private volatile long cursor;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    private final NetflixShowsOutboxRepository outboxRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectWriter showWriter;
+
+    private final ObjectWriter changeWriter;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Key of the changes waiting for the current transaction to commit
+    private final Object pendingKey = new Object();
+
+    private final int bufferSize;
+
+    private final int maxSubscribers;
+
+    private final long pollIntervalNanos;
+
+    private final Duration timeout;
+
+    private final Duration retention;
+
+    private final ExecutorService dispatcher;
+
+    private final Counter sent;
+
+    // Null until the poller has read the last sequence number
+    private volatile NetflixShowsChangeBuffer buffer;
+
+    private volatile Thread poller;
+
+    private volatile boolean running;
+
+    public NetflixShowsChangeFeedServiceImpl(NetflixShowsOutboxRepository outboxRepository, EntityManager entityManager,
+        ObjectMapper objectMapper, MeterRegistry meterRegistry,
+        @Value("${netflix-shows.changes.buffer-size:10000}") int bufferSize,
+        @Value("${netflix-shows.changes.dispatch-threads:2}") int dispatchThreads,
+        @Value("${netflix-shows.changes.max-subscribers:10000}") int maxSubscribers,
+        @Value("${netflix-shows.changes.poll-interval:1s}") Duration pollInterval,
+        @Value("${netflix-shows.changes.timeout:30m}") Duration timeout,
+        @Value("${netflix-shows.changes.retention:7d}") Duration retention) {
+        Assert.isTrue(bufferSize > 0, "Change feed buffer size must be greater than 0");
+        Assert.isTrue(dispatchThreads > 0, "Change feed dispatch threads must be greater than 0");
+        Assert.isTrue(maxSubscribers > 0, "Change feed max subscribers must be greater than 0");
+        Assert.isTrue(!pollInterval.isNegative() && !pollInterval.isZero(), "Change feed poll interval must be greater than 0");
+        Assert.isTrue(!timeout.isNegative() && !timeout.isZero(), "Change feed timeout must be greater than 0");
+        Assert.isTrue(!retention.isNegative() && !retention.isZero(), "Change feed retention must be greater than 0");
+
+        this.outboxRepository = outboxRepository;
+        this.entityManager = entityManager;
+        this.showWriter = objectMapper.writerFor(NetflixShowsDTO.class);
+        this.changeWriter = objectMapper.writerFor(NetflixShowsChangeDTO.class);
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.timeout = timeout;
+        this.retention = retention;
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads,
+            Thread.ofPlatform().name("netflix-shows-changes-dispatch-", 0).factory());
+
+        Gauge.builder("netflix_shows.changes.subscribers", subscribers, Set::size)
+            .description("Open change feed streams")
+            .register(meterRegistry);
+        this.sent = Counter.builder("netflix_shows.changes.sent")
+            .description("Change events sent to change feed subscribers")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public long getLastSeq() {
+        try {
+            return outboxRepository.findLastSeq();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get last change sequence number: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRetained(long after) {
+        try {
+            // Changes are only deleted from the oldest end, so after must not precede the oldest retained change
+            Long first = outboxRepository.findFirstSeq();
+            return after >= (first == null ? outboxRepository.findLastSeq() : first - 1);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to check change retention: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(long after) {
+        // Check if the subscriber limit is reached
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, after);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // The replay starts right away; events sent before the response is ready are held by the emitter
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // Runs in the publishing transaction: the changes are collected and appended together just before it commits
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void onNetflixShowsChanged(NetflixShowsChangedEvent event) {
+        if (event.getChangeType() != EChangeType.DELETED && event.getNetflixShows() == null) {
+            return;
+        }
+
+        NetflixShowsChangeDTO change = new NetflixShowsChangeDTO(null, event.getId(), event.getChangeType().name(),
+            event.getNetflixShows() == null ? null : encode(showWriter, event.getNetflixShows()));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.append(List.of(change));
+            wake();
+            return;
+        }
+
+        List<NetflixShowsChangeDTO> pending = (List<NetflixShowsChangeDTO>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            List<NetflixShowsChangeDTO> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // The commit flushes the persistence context after this callback, so flush it here first:
+                    // the global sequence row is then locked only for the append and the commit itself
+                    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                        entityManager.flush();
+                    }
+                    outboxRepository.append(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                }
+            });
+            pending = changes;
+        }
+
+        pending.add(change);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        poller = Thread.ofPlatform().name("netflix-shows-changes-poller").start(this::run);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Thread thread = poller;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(Duration.ofSeconds(10));
+        }
+
+        // Clients reconnect with Last-Event-ID and resume where they stopped
+        dispatcher.shutdown();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void wake() {
+        Thread thread = poller;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        long nextCleanup = System.nanoTime();
+        while (running) {
+            try {
+                poll();
+                if (System.nanoTime() - nextCleanup >= 0) {
+                    int deleted = outboxRepository.deleteCreatedBefore(Instant.now().minus(retention));
+                    if (deleted > 0) {
+                        logger.info("Deleted {} changes older than {} from the outbox", deleted, retention);
+                    }
+                    nextCleanup = System.nanoTime() + CLEANUP_INTERVAL_NANOS;
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to read the change feed outbox: {}", e.getMessage());
+            }
+
+            LockSupport.parkNanos(this, pollIntervalNanos);
+        }
+    }
+
+    // Read the changes committed since the last poll and hand them to the subscribers that have not sent them yet
+    private void poll() {
+        long last = outboxRepository.findLastSeq();
+        NetflixShowsChangeBuffer current = buffer;
+
+        // Changes that nobody waits for or that would not stay in the buffer are not read;
+        // subscribers behind the buffer replay them from the outbox
+        if (current == null || subscribers.isEmpty() || last - current.head() > bufferSize) {
+            current = new NetflixShowsChangeBuffer(bufferSize, subscribers.isEmpty() ? last : last - bufferSize);
+            buffer = current;
+        }
+
+        List<NetflixShowsChangeDTO> changes;
+        do {
+            changes = outboxRepository.findAfter(current.head(), PAGE_SIZE);
+            current.append(changes.stream().map(this::render).toList());
+        } while (changes.size() == PAGE_SIZE);
+
+        long head = current.head();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor < head) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> dispatch(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    // Send the changes after the subscriber's cursor from the buffer, or from the outbox while it is behind the buffer
+    private void dispatch(Subscriber subscriber) {
+        try {
+            for (int count = 0; count < MAX_CHANGES_PER_DISPATCH; ) {
+                NetflixShowsChangeBuffer current = buffer;
+                List<NetflixShowsChangeBuffer.Change> changes = current == null ? null : current.after(subscriber.cursor, PAGE_SIZE);
+                if (changes == null) {
+                    changes = outboxRepository.findAfter(subscriber.cursor, PAGE_SIZE).stream().map(this::render).toList();
+                }
+                if (changes.isEmpty()) {
+                    break;
+                }
+
+                for (NetflixShowsChangeBuffer.Change change : changes) {
+                    subscriber.emitter.send(SseEmitter.event().id(Long.toString(change.seq())).name(change.name())
+                        .data(change.data(), MediaType.APPLICATION_JSON));
+                    subscriber.cursor = change.seq();
+                }
+                sent.increment(changes.size());
+                count += changes.size();
+            }
+        } catch (IOException e) {
+            // The client went away; the container completes the emitter
+            subscribers.remove(subscriber);
+            return;
+        } catch (Exception e) {
+            logger.warn("Failed to send changes to a change feed subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        }
+
+        // A poll may have skipped this subscriber while it was scheduled, so check again once it can be scheduled
+        subscriber.scheduled.set(false);
+        NetflixShowsChangeBuffer current = buffer;
+        if (current != null && subscriber.cursor < current.head() && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private NetflixShowsChangeBuffer.Change render(NetflixShowsChangeDTO change) {
+        return new NetflixShowsChangeBuffer.Change(change.getSeq(), change.getChangeType(), encode(changeWriter, change));
+    }
+
+    private static String encode(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode change: " + e.getMessage());
+        }
+    }
+}
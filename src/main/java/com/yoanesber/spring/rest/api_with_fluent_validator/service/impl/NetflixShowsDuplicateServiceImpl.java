@@ -0,0 +1,209 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.duplicate.BloomFilter;
+import com.yoanesber.spring.rest.api_with_fluent_validator.duplicate.NetflixShowsDuplicateKey;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EDuplicatePolicy;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsDuplicateService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Duplicate detection for creates: a Bloom filter of the keys of every NetflixShows, loaded at startup and fed with
+// committed writes, answers most creates without a query; only possible duplicates are looked up in the database,
+// where netflix_shows_duplicate_key_idx stays the source of truth
+@Service
+public class NetflixShowsDuplicateServiceImpl implements NetflixShowsDuplicateService {
+    private static final Logger logger = LoggerFactory.getLogger(NetflixShowsDuplicateServiceImpl.class);
+
+    // Name of the unique index, as reported by Hibernate for a violation
+    private static final String DUPLICATE_KEY_INDEX = "netflix_shows_duplicate_key_idx";
+
+    // SQLState of a unique violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private record Key(String title, int releaseYear, String showType) {
+    }
+
+    private final NetflixShowsRepository netflixShowsRepository;
+
+    private final EDuplicatePolicy policy;
+
+    private final long expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    // Null until loaded, so every create is looked up until then
+    private volatile BloomFilter filter;
+
+    // Filter being loaded; committed writes go to both so none is missed by the swap
+    private volatile BloomFilter loading;
+
+    private final Counter filtered;
+
+    private final Counter notFound;
+
+    private final Counter found;
+
+    public NetflixShowsDuplicateServiceImpl(NetflixShowsRepository netflixShowsRepository,
+        @Value("${netflix-shows.duplicates.policy:REJECT}") EDuplicatePolicy policy,
+        @Value("${netflix-shows.duplicates.expected-insertions:100000}") long expectedInsertions,
+        @Value("${netflix-shows.duplicates.false-positive-rate:0.01}") double falsePositiveRate, MeterRegistry meterRegistry) {
+        Assert.isTrue(expectedInsertions > 0, "Duplicates expected insertions must be greater than 0");
+        Assert.isTrue(falsePositiveRate > 0 && falsePositiveRate < 1, "Duplicates false-positive rate must be between 0 and 1");
+
+        this.netflixShowsRepository = netflixShowsRepository;
+        this.policy = policy;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filtered = meterRegistry.counter("netflix_shows.duplicates.checks", "result", "filtered");
+        this.notFound = meterRegistry.counter("netflix_shows.duplicates.checks", "result", "new");
+        this.found = meterRegistry.counter("netflix_shows.duplicates.checks", "result", "duplicate");
+    }
+
+    @Override
+    public EDuplicatePolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public Long findDuplicateId(NetflixShowsDTO netflixShowsDTO) {
+        Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
+
+        Key key = key(netflixShowsDTO);
+        return key == null ? null : findDuplicateId(key);
+    }
+
+    @Override
+    public Map<Integer, Long> findDuplicateIds(List<NetflixShowsDTO> netflixShowsDTOs) {
+        Assert.notNull(netflixShowsDTOs, "NetflixShowsDTO list must not be null");
+
+        Map<Integer, Long> duplicates = new HashMap<>();
+        Set<Key> seen = new HashSet<>();
+        for (int i = 0; i < netflixShowsDTOs.size(); i++) {
+            Key key = netflixShowsDTOs.get(i).getId() == null ? key(netflixShowsDTOs.get(i)) : null;
+            if (key == null) {
+                continue;
+            }
+
+            // Check if an earlier item has the same key, then if a stored NetflixShows has
+            if (!seen.add(key)) {
+                duplicates.put(i, null);
+                continue;
+            }
+            Long duplicateId = findDuplicateId(key);
+            if (duplicateId != null) {
+                duplicates.put(i, duplicateId);
+            }
+        }
+
+        return duplicates;
+    }
+
+    @Override
+    public boolean isDuplicateKeyViolation(Throwable e) {
+        // Services keep the cause when rethrowing; whether the violation surfaced at a flush or at the commit
+        // (as a DataIntegrityViolationException), Hibernate's exception carries the SQLState and the constraint name
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                    && DUPLICATE_KEY_INDEX.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            // Room for the table to double before the false-positive rate rises; the scan runs in its own read-only
+            // transaction, so rows are fetched through a cursor
+            BloomFilter next = new BloomFilter(Math.max(expectedInsertions, netflixShowsRepository.count() * 2), falsePositiveRate);
+            loading = next;
+            long[] count = {0};
+            netflixShowsRepository.forEachDuplicateKeyColumns(netflixShows -> {
+                if (netflixShows.getReleaseYear() != null) {
+                    next.put(hash(new Key(NetflixShowsDuplicateKey.normalizeTitle(netflixShows.getTitle()),
+                        netflixShows.getReleaseYear(), netflixShows.getShowType().name())));
+                    count[0]++;
+                }
+            });
+            filter = next;
+
+            logger.info("Loaded duplicate filter: {} keys", count[0]);
+        } catch (Exception e) {
+            logger.error("Failed to load duplicate filter: {}", e.getMessage());
+        } finally {
+            loading = null;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNetflixShowsChanged(NetflixShowsChangedEvent event) {
+        // Keys of updated or deleted NetflixShows stay in the filter; they only cost a lookup
+        Key key = event.getChangeType() == EChangeType.DELETED || event.getNetflixShows() == null ? null
+            : key(event.getNetflixShows());
+        if (key == null) {
+            return;
+        }
+
+        // Read the loading filter first: once it is null, the swap has happened and filter is the new one
+        long hash = hash(key);
+        BloomFilter next = loading;
+        BloomFilter current = filter;
+        if (next != null) {
+            next.put(hash);
+        }
+        if (current != null) {
+            current.put(hash);
+        }
+    }
+
+    private Long findDuplicateId(Key key) {
+        // Check if the key is definitely new
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(hash(key))) {
+            filtered.increment();
+            return null;
+        }
+
+        Long duplicateId = netflixShowsRepository.findIdByDuplicateKey(key.title(), key.releaseYear(), key.showType())
+            .orElse(null);
+        (duplicateId == null ? notFound : found).increment();
+        return duplicateId;
+    }
+
+    private static Key key(NetflixShowsDTO netflixShowsDTO) {
+        if (netflixShowsDTO.getTitle() == null || netflixShowsDTO.getReleaseYear() == null || netflixShowsDTO.getShowType() == null) {
+            return null;
+        }
+
+        return new Key(NetflixShowsDuplicateKey.normalizeTitle(netflixShowsDTO.getTitle()), netflixShowsDTO.getReleaseYear(),
+            netflixShowsDTO.getShowType());
+    }
+
+    private static long hash(Key key) {
+        return NetflixShowsDuplicateKey.hash(key.title(), key.releaseYear(), key.showType());
+    }
+}
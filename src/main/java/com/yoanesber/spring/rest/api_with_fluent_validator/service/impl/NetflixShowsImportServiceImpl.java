@@ -0,0 +1,299 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.ImportJobDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EImportStatus;
+import com.yoanesber.spring.rest.api_with_fluent_validator.importer.NetflixShowsImportJob;
+import com.yoanesber.spring.rest.api_with_fluent_validator.importer.NetflixShowsImportPipeline;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsImportCheckpointRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsDuplicateService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsImportService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.ValidatorService;
+
+// Runs imports in the background and keeps a status file per import in the work directory. The offset of the last
+// committed chunk is stored in the database with the chunk itself, so an import stopped by a failure, a cancel or
+// a crash is resumed exactly after it.
+@Service
+public class NetflixShowsImportServiceImpl implements NetflixShowsImportService {
+    private static final Logger logger = LoggerFactory.getLogger(NetflixShowsImportServiceImpl.class);
+
+    private final NetflixShowsImportPipeline pipeline;
+
+    private final NetflixShowsImportCheckpointRepository checkpointRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ExecutorService executor;
+
+    private final Path workDir;
+
+    private final Path sourceDir;
+
+    private final Map<String, NetflixShowsImportJob> jobs = new ConcurrentHashMap<>();
+
+    private final Map<String, Future<?>> runs = new ConcurrentHashMap<>();
+
+    public NetflixShowsImportServiceImpl(ValidatorService validatorService, NetflixShowsService netflixShowsService,
+        NetflixShowsDuplicateService netflixShowsDuplicateService, NetflixShowsImportCheckpointRepository checkpointRepository,
+        PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+        @Value("${netflix-shows.import.chunk-size:500}") int chunkSize,
+        @Value("${netflix-shows.import.workers:0}") int workers,
+        @Value("${netflix-shows.import.max-chunks-in-flight:8}") int maxChunksInFlight,
+        @Value("${netflix-shows.import.work-dir:${java.io.tmpdir}/netflix-shows-imports}") String workDir,
+        @Value("${netflix-shows.import.source-dir:}") String sourceDir) {
+        Assert.isTrue(chunkSize > 0, "Import chunk size must be greater than 0");
+        Assert.isTrue(maxChunksInFlight > 0, "Import max chunks in flight must be greater than 0");
+
+        // One writer, one reader and the validator workers per running import
+        this.executor = Executors.newCachedThreadPool(Thread.ofPlatform().name("netflix-shows-import-", 0).factory());
+        this.pipeline = new NetflixShowsImportPipeline(validatorService, netflixShowsService, netflixShowsDuplicateService,
+            checkpointRepository, new TransactionTemplate(transactionManager), objectMapper, executor, chunkSize,
+            workers > 0 ? workers : Runtime.getRuntime().availableProcessors(), maxChunksInFlight);
+        this.checkpointRepository = checkpointRepository;
+        this.objectMapper = objectMapper;
+        this.workDir = Path.of(workDir).toAbsolutePath().normalize();
+        this.sourceDir = sourceDir.isBlank() ? null : Path.of(sourceDir).toAbsolutePath().normalize();
+
+        try {
+            Files.createDirectories(this.workDir);
+            recover();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load the imports: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public ImportJobDTO importUpload(InputStream content, String format) {
+        Assert.notNull(content, "Content must not be null");
+        Assert.notNull(format, "Format must not be null");
+
+        try {
+            // Keep the upload so the import can be resumed
+            String id = UUID.randomUUID().toString();
+            Path source = workDir.resolve(id + "." + format);
+            Files.copy(content, source);
+
+            return start(new NetflixShowsImportJob(id, format, source, rejectFile(id)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store the import file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public ImportJobDTO importFile(Path source, String format) {
+        Assert.notNull(source, "Source must not be null");
+        Assert.notNull(format, "Format must not be null");
+
+        String id = UUID.randomUUID().toString();
+        return start(new NetflixShowsImportJob(id, format, source, rejectFile(id)));
+    }
+
+    @Override
+    public Path resolveSource(String path) {
+        Assert.notNull(path, "Path must not be null");
+
+        if (sourceDir == null) {
+            return null;
+        }
+
+        Path source = sourceDir.resolve(path).normalize();
+        return source.startsWith(sourceDir) && Files.isRegularFile(source) ? source : null;
+    }
+
+    @Override
+    public ImportJobDTO resumeImport(String id) {
+        Assert.notNull(id, "Id must not be null");
+
+        NetflixShowsImportJob job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+
+        synchronized (job) {
+            // Check if the import is still running or has nothing left to import
+            Future<?> run = runs.get(id);
+            if ((run != null && !run.isDone()) || job.getStatus() == EImportStatus.RUNNING) {
+                throw new IllegalStateException("Import is already running");
+            }
+            if (job.getStatus() == EImportStatus.COMPLETED) {
+                throw new IllegalStateException("Import is already completed");
+            }
+
+            try {
+                // Drop the rejects written after the checkpoint; their records are imported again
+                dropRejectsAfter(job.getRejectFile(), job.getCommittedRecords());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to resume the import: " + e.getMessage());
+            }
+
+            job.restart();
+            return run(job);
+        }
+    }
+
+    @Override
+    public ImportJobDTO cancelImport(String id) {
+        Assert.notNull(id, "Id must not be null");
+
+        NetflixShowsImportJob job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+
+        // Check if the import is not running
+        if (job.getStatus() != EImportStatus.RUNNING) {
+            throw new IllegalStateException("Import is not running");
+        }
+
+        job.requestStop(EImportStatus.CANCELLED, "Cancelled");
+        return job.toDTO();
+    }
+
+    @Override
+    public ImportJobDTO getImport(String id) {
+        Assert.notNull(id, "Id must not be null");
+
+        NetflixShowsImportJob job = jobs.get(id);
+        return job == null ? null : job.toDTO();
+    }
+
+    @Override
+    public List<ImportJobDTO> getAllImports() {
+        return jobs.values().stream().map(NetflixShowsImportJob::toDTO)
+            .sorted(Comparator.comparing(ImportJobDTO::getStartedAt).reversed()).toList();
+    }
+
+    @Override
+    public Path getRejectFile(String id) {
+        Assert.notNull(id, "Id must not be null");
+
+        NetflixShowsImportJob job = jobs.get(id);
+        return job == null ? null : job.getRejectFile();
+    }
+
+    // Stop the running imports after their current chunk so they can be resumed after a restart
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        jobs.values().stream().filter(job -> job.getStatus() == EImportStatus.RUNNING)
+            .forEach(job -> job.requestStop(EImportStatus.INTERRUPTED, "Interrupted by an application shutdown"));
+
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Imports did not stop within 30 seconds; they will be marked as interrupted on the next start");
+            executor.shutdownNow();
+        }
+    }
+
+    private ImportJobDTO start(NetflixShowsImportJob job) {
+        jobs.put(job.getId(), job);
+        synchronized (job) {
+            return run(job);
+        }
+    }
+
+    private ImportJobDTO run(NetflixShowsImportJob job) {
+        checkpoint(job);
+        runs.put(job.getId(), executor.submit(() -> {
+            pipeline.run(job, this::checkpoint);
+
+            // Drop the rejects of a chunk that failed to commit; its records are imported again on resume
+            if (job.getStatus() == EImportStatus.FAILED) {
+                try {
+                    dropRejectsAfter(job.getRejectFile(), job.getCommittedRecords());
+                } catch (IOException e) {
+                    logger.warn("Failed to drop the uncommitted rejects of import {}: {}", job.getId(), e.getMessage());
+                }
+            }
+        }));
+        return job.toDTO();
+    }
+
+    // Replace the status file atomically so a crash leaves either the previous or the new status
+    private void checkpoint(NetflixShowsImportJob job) {
+        try {
+            Path checkpoint = workDir.resolve(job.getId() + ".json");
+            Path temp = workDir.resolve(job.getId() + ".json.tmp");
+            objectMapper.writeValue(temp.toFile(), job.toDTO());
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save the import checkpoint: " + e.getMessage());
+        }
+    }
+
+    // Load the imports of previous runs; the ones still running when the application stopped are interrupted,
+    // and take the offset committed in the database, which the status file may lag behind
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> checkpoints = Files.newDirectoryStream(workDir, "*.json")) {
+            for (Path checkpoint : checkpoints) {
+                ImportJobDTO importJobDTO = objectMapper.readValue(checkpoint.toFile(), ImportJobDTO.class);
+                NetflixShowsImportJob job = new NetflixShowsImportJob(importJobDTO, rejectFile(importJobDTO.getId()));
+                if (job.getStatus() == EImportStatus.RUNNING) {
+                    NetflixShowsImportCheckpointRepository.Checkpoint committed = checkpointRepository.findById(job.getId());
+                    if (committed != null) {
+                        job.restoreCommitted(committed.committedRecords(), committed.recordsImported(), committed.recordsRejected());
+                    }
+                    dropRejectsAfter(job.getRejectFile(), job.getCommittedRecords());
+
+                    job.requestStop(EImportStatus.INTERRUPTED, "Interrupted by an application restart");
+                    job.finish(EImportStatus.INTERRUPTED, job.getMessage());
+                    checkpoint(job);
+                }
+                jobs.put(job.getId(), job);
+            }
+        }
+    }
+
+    private Path rejectFile(String id) {
+        return workDir.resolve(id + ".rejects.ndjson");
+    }
+
+    private void dropRejectsAfter(Path rejectFile, long committedRecords) throws IOException {
+        if (!Files.exists(rejectFile)) {
+            return;
+        }
+
+        Path temp = rejectFile.resolveSibling(rejectFile.getFileName() + ".tmp");
+        try (BufferedReader reader = Files.newBufferedReader(rejectFile, StandardCharsets.UTF_8);
+            BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (objectMapper.readTree(line).path("record").asLong() <= committedRecords) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(temp, rejectFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
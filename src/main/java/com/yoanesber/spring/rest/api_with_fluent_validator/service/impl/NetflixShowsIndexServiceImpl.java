@@ -0,0 +1,179 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ELinkType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsLinksChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsLinkRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsIndexService;
+
+// Inverted index from genre/person id to the sorted ids of the linked NetflixShows, loaded at startup
+// and kept in step with committed writes
+@Service
+public class NetflixShowsIndexServiceImpl implements NetflixShowsIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(NetflixShowsIndexServiceImpl.class);
+
+    private final NetflixShowsLinkRepository netflixShowsLinkRepository;
+
+    private final Map<ELinkType, Index> indexes = new EnumMap<>(ELinkType.class);
+
+    public NetflixShowsIndexServiceImpl(NetflixShowsLinkRepository netflixShowsLinkRepository) {
+        this.netflixShowsLinkRepository = netflixShowsLinkRepository;
+        for (ELinkType linkType : ELinkType.values()) {
+            indexes.put(linkType, new Index());
+        }
+    }
+
+    @Override
+    public long[] findShowIds(ELinkType linkType, List<String> names, Long after, int limit) {
+        Assert.notEmpty(names, "Names must not be empty");
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+        Index index = indexes.get(linkType);
+        index.lock.readLock().lock();
+        try {
+            // Resolve every name; an unknown name means nothing can match
+            SortedLongs[] postings = new SortedLongs[names.size()];
+            for (int i = 0; i < postings.length; i++) {
+                Long linkedId = index.ids.get(names.get(i));
+                postings[i] = linkedId == null ? null : index.postings.get(linkedId);
+                if (postings[i] == null) {
+                    return new long[0];
+                }
+            }
+
+            // Walk the shortest list from the cursor and probe the others until the page is full
+            Arrays.sort(postings, Comparator.comparingInt(p -> p.size));
+            long[] result = new long[Math.min(limit, postings[0].size)];
+            int count = 0;
+            for (int i = postings[0].indexAfter(after == null ? 0L : after); i < postings[0].size && count < result.length; i++) {
+                long showId = postings[0].values[i];
+                boolean inAll = true;
+                for (int j = 1; j < postings.length && inAll; j++) {
+                    inAll = postings[j].contains(showId);
+                }
+                if (inAll) {
+                    result[count++] = showId;
+                }
+            }
+
+            return Arrays.copyOf(result, count);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (ELinkType linkType : ELinkType.values()) {
+            Index index = indexes.get(linkType);
+            index.lock.writeLock().lock();
+            try {
+                // Rows arrive ordered by linked id and show id, so every list is built by appending
+                index.ids.clear();
+                index.postings.clear();
+                index.ids.putAll(netflixShowsLinkRepository.findAllIds(linkType));
+                netflixShowsLinkRepository.forEachLink(linkType, (linkedId, showId) -> 
+                    index.postings.computeIfAbsent(linkedId, k -> new SortedLongs()).append(showId));
+
+                logger.info("Loaded {} index: {} names, {} lists", linkType, index.ids.size(), index.postings.size());
+            } catch (Exception e) {
+                logger.error("Failed to load {} index: {}", linkType, e.getMessage());
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLinksChanged(NetflixShowsLinksChangedEvent event) {
+        Index index = indexes.get(event.getLinkType());
+        index.lock.writeLock().lock();
+        try {
+            index.ids.putAll(event.getNames());
+            for (long[] link : event.getRemoved()) {
+                SortedLongs postings = index.postings.get(link[1]);
+                if (postings != null) {
+                    postings.remove(link[0]);
+                }
+            }
+            for (long[] link : event.getAdded()) {
+                index.postings.computeIfAbsent(link[1], k -> new SortedLongs()).add(link[0]);
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Index {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<String, Long> ids = new HashMap<>();
+
+        private final Map<Long, SortedLongs> postings = new HashMap<>();
+    }
+
+    // Growable sorted set of primitive longs; new show ids come from a sequence, so adds are mostly appends
+    private static final class SortedLongs {
+        private long[] values = new long[4];
+
+        private int size;
+
+        void append(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void add(long value) {
+            if (size == 0 || values[size - 1] < value) {
+                append(value);
+                return;
+            }
+
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                return;
+            }
+
+            i = -i - 1;
+            append(0L);
+            System.arraycopy(values, i, values, i + 1, size - 1 - i);
+            values[i] = value;
+        }
+
+        void remove(long value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - 1 - i);
+                size--;
+            }
+        }
+
+        boolean contains(long value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        // Position of the first value greater than the given one
+        int indexAfter(long value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.encoder.NetflixShowsJsonEncoder;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsJsonCacheService;
+
+@Service
+public class NetflixShowsJsonCacheServiceImpl implements NetflixShowsJsonCacheService {
+    // The version is part of the value, so an entry written from a stale DTO is re-encoded instead of served
+    private record EncodedShow(Long version, byte[] json) {
+    }
+
+    // Cached arrays are written to many responses and must never be modified
+    private final Cache<Long, EncodedShow> cache;
+
+    private final NetflixShowsJsonEncoder netflixShowsJsonEncoder;
+
+    public NetflixShowsJsonCacheServiceImpl(NetflixShowsJsonEncoder netflixShowsJsonEncoder,
+        @Value("${netflix-shows.json-cache.maximum-size:64MB}") DataSize maximumSize,
+        @Value("${netflix-shows.json-cache.expire-after-access:30m}") Duration expireAfterAccess, MeterRegistry meterRegistry) {
+        this.netflixShowsJsonEncoder = netflixShowsJsonEncoder;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumSize.toBytes())
+            .weigher((Long id, EncodedShow encoded) -> encoded.json().length)
+            .expireAfterAccess(expireAfterAccess)
+            .recordStats()
+            .build();
+
+        // Publish hit/miss/eviction counts as cache.* meters
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "netflix_shows_json");
+    }
+
+    @Override
+    public byte[] getJson(NetflixShowsDTO netflixShowsDTO) {
+        Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
+
+        // Without an id and version there is nothing to check a cached encoding against
+        if (netflixShowsDTO.getId() == null || netflixShowsDTO.getVersion() == null) {
+            return netflixShowsJsonEncoder.encode(netflixShowsDTO);
+        }
+
+        EncodedShow cached = cache.getIfPresent(netflixShowsDTO.getId());
+        if (cached != null && Objects.equals(cached.version(), netflixShowsDTO.getVersion())) {
+            return cached.json();
+        }
+
+        // Encoding is cheap and idempotent, so concurrent misses just encode twice instead of waiting on each other
+        byte[] json = netflixShowsJsonEncoder.encode(netflixShowsDTO);
+        cache.put(netflixShowsDTO.getId(), new EncodedShow(netflixShowsDTO.getVersion(), json));
+        return json;
+    }
+
+    @Override
+    public void evict(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        cache.invalidate(id);
+    }
+
+    // Drop the encoding of the changed NetflixShows once the new state is visible to other transactions
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNetflixShowsChanged(NetflixShowsChangedEvent event) {
+        if (event.getChangeType() != EChangeType.CREATED) {
+            evict(event.getId());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ELinkType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsLinksChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsLinkRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsLinkService;
+
+@Service
+public class NetflixShowsLinkServiceImpl implements NetflixShowsLinkService {
+    private final NetflixShowsLinkRepository netflixShowsLinkRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NetflixShowsLinkServiceImpl(NetflixShowsLinkRepository netflixShowsLinkRepository,
+        ApplicationEventPublisher eventPublisher) {
+        this.netflixShowsLinkRepository = netflixShowsLinkRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void replaceLinks(List<NetflixShowsDTO> netflixShows) {
+        Assert.notNull(netflixShows, "NetflixShowsDTO list must not be null");
+
+        for (ELinkType linkType : ELinkType.values()) {
+            // Split the comma-separated names of every show
+            Map<Long, Set<String>> wanted = new HashMap<>();
+            Set<String> names = new HashSet<>();
+            for (NetflixShowsDTO netflixShowsDTO : netflixShows) {
+                Set<String> showNames = splitNames(linkType == ELinkType.GENRE 
+                    ? netflixShowsDTO.getListedIn() : netflixShowsDTO.getCastMembers());
+                wanted.put(netflixShowsDTO.getId(), showNames);
+                names.addAll(showNames);
+            }
+
+            Map<String, Long> ids = names.isEmpty() ? Map.of() : netflixShowsLinkRepository.findOrCreateIds(linkType, names);
+            Map<Long, Set<Long>> current = netflixShowsLinkRepository.findLinks(linkType, wanted.keySet());
+
+            // Only the links that differ are written
+            List<long[]> added = new ArrayList<>();
+            List<long[]> removed = new ArrayList<>();
+            for (Map.Entry<Long, Set<String>> entry : wanted.entrySet()) {
+                long showId = entry.getKey();
+                Set<Long> existing = current.getOrDefault(showId, Set.of());
+                Set<Long> target = new HashSet<>();
+                for (String name : entry.getValue()) {
+                    Long linkedId = ids.get(name);
+                    target.add(linkedId);
+                    if (!existing.contains(linkedId)) {
+                        added.add(new long[] {showId, linkedId});
+                    }
+                }
+                for (Long linkedId : existing) {
+                    if (!target.contains(linkedId)) {
+                        removed.add(new long[] {showId, linkedId});
+                    }
+                }
+            }
+
+            writeLinks(linkType, ids, added, removed);
+        }
+    }
+
+    @Override
+    public void removeLinks(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        for (ELinkType linkType : ELinkType.values()) {
+            List<long[]> removed = new ArrayList<>();
+            for (Long linkedId : netflixShowsLinkRepository.findLinks(linkType, List.of(id)).getOrDefault(id, Set.of())) {
+                removed.add(new long[] {id, linkedId});
+            }
+
+            writeLinks(linkType, Map.of(), List.of(), removed);
+        }
+    }
+
+    private void writeLinks(ELinkType linkType, Map<String, Long> ids, List<long[]> added, List<long[]> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        netflixShowsLinkRepository.deleteLinks(linkType, removed);
+        netflixShowsLinkRepository.insertLinks(linkType, added);
+        eventPublisher.publishEvent(new NetflixShowsLinksChangedEvent(linkType, ids, added, removed));
+    }
+
+    // Split a comma-separated list into trimmed, non-empty, distinct names
+    private static Set<String> splitNames(String value) {
+        Set<String> names = new LinkedHashSet<>();
+        if (value == null) {
+            return names;
+        }
+
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                names.add(trimmed);
+            }
+        }
+
+        return names;
+    }
+}
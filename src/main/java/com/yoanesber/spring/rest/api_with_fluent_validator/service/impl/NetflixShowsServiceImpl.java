@@ -1,24 +1,77 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
 
+import java.sql.Date;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchCriteriaDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsSearchResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsVersionDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
 import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
 import com.yoanesber.spring.rest.api_with_fluent_validator.entity.NetflixShows;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsCacheService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsLinkService;
 import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
 import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsRepository;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+
 @Service
+@Timed(value = "netflix_shows.service", percentiles = {0.5, 0.99})
 public class NetflixShowsServiceImpl implements NetflixShowsService {
     private final NetflixShowsRepository netflixShowsRepository;
 
-    public NetflixShowsServiceImpl(NetflixShowsRepository netflixShowsRepository) {
+    private final EntityManager entityManager;
+
+    private final NetflixShowsCacheService netflixShowsCacheService;
+
+    private final NetflixShowsLinkService netflixShowsLinkService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Read-write, so the reads it wraps use the primary even when replicas are configured
+    private final TransactionTemplate primaryTransaction;
+
+    private final int batchSize;
+
+    public NetflixShowsServiceImpl(NetflixShowsRepository netflixShowsRepository,
+        EntityManager entityManager, NetflixShowsCacheService netflixShowsCacheService,
+        NetflixShowsLinkService netflixShowsLinkService, ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager, @Value("${netflix-shows.jdbc.batch-size:50}") int batchSize) {
         this.netflixShowsRepository = netflixShowsRepository;
+        this.entityManager = entityManager;
+        this.netflixShowsCacheService = netflixShowsCacheService;
+        this.netflixShowsLinkService = netflixShowsLinkService;
+        this.eventPublisher = eventPublisher;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -29,26 +82,85 @@ public class NetflixShowsServiceImpl implements NetflixShowsService {
         try {
             // Create NetflixShows object
             NetflixShows netflixShows = new NetflixShows();
-            netflixShows.setShowType(EShowType.valueOf(netflixShowsDTO.getShowType()));
-            netflixShows.setTitle(netflixShowsDTO.getTitle());
-            netflixShows.setDirector(netflixShowsDTO.getDirector());
-            netflixShows.setCastMembers(netflixShowsDTO.getCastMembers());
-            netflixShows.setCountry(netflixShowsDTO.getCountry());
-            netflixShows.setDateAdded(netflixShowsDTO.getDateAdded());
-            netflixShows.setReleaseYear(netflixShowsDTO.getReleaseYear());
-            netflixShows.setRating(netflixShowsDTO.getRating());
-            netflixShows.setDurationInMinute(netflixShowsDTO.getDurationInMinute());
-            netflixShows.setListedIn(netflixShowsDTO.getListedIn());
-            netflixShows.setDescription(netflixShowsDTO.getDescription());
+            copyToEntity(netflixShowsDTO, netflixShows);
+
+            // Save NetflixShows object (flushed so the genre and cast links can reference it) & Return NetflixShowsDTO
+            NetflixShowsDTO created = new NetflixShowsDTO(netflixShowsRepository.saveAndFlush(netflixShows));
+            netflixShowsLinkService.replaceLinks(List.of(created));
+            publishChange(created.getId(), EChangeType.CREATED, created);
+            return created;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create NetflixShows: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<NetflixShowsDTO> createNetflixShowsBatch(List<NetflixShowsDTO> netflixShowsDTOs) {
+        Assert.notNull(netflixShowsDTOs, "NetflixShowsDTO list must not be null");
+
+        try {
+            List<NetflixShowsDTO> result = new ArrayList<>(netflixShowsDTOs.size());
 
-            // Save NetflixShows object & Return NetflixShowsDTO
-            return new NetflixShowsDTO(netflixShowsRepository.save(netflixShows));
+            for (int from = 0; from < netflixShowsDTOs.size(); from += batchSize) {
+                List<NetflixShowsDTO> chunk = netflixShowsDTOs.subList(from, Math.min(from + batchSize, netflixShowsDTOs.size()));
+
+                // Load the rows to be updated with a single query per chunk
+                List<Long> ids = chunk.stream().map(NetflixShowsDTO::getId).filter(Objects::nonNull).toList();
+                Map<Long, NetflixShows> existing = ids.isEmpty() ? Map.of() : netflixShowsRepository.findAllById(ids)
+                    .stream().collect(Collectors.toMap(NetflixShows::getId, Function.identity()));
+
+                List<NetflixShows> entities = new ArrayList<>(chunk.size());
+                List<EChangeType> changeTypes = new ArrayList<>(chunk.size());
+                for (NetflixShowsDTO netflixShowsDTO : chunk) {
+                    NetflixShows netflixShows = netflixShowsDTO.getId() == null ? new NetflixShows()
+                        : existing.get(netflixShowsDTO.getId());
+
+                    // Check if the NetflixShows to update is missing
+                    if (netflixShows == null) {
+                        entities.add(null);
+                        changeTypes.add(null);
+                        continue;
+                    }
+
+                    copyToEntity(netflixShowsDTO, netflixShows);
+                    if (netflixShows.getId() == null) {
+                        entityManager.persist(netflixShows);
+                        changeTypes.add(EChangeType.CREATED);
+                    } else {
+                        changeTypes.add(EChangeType.UPDATED);
+                    }
+                    entities.add(netflixShows);
+                }
+
+                // Send the chunk as one JDBC batch and release the managed entities
+                entityManager.flush();
+                List<NetflixShowsDTO> savedChunk = new ArrayList<>(entities.size());
+                for (int i = 0; i < entities.size(); i++) {
+                    if (entities.get(i) == null) {
+                        result.add(null);
+                        continue;
+                    }
+
+                    NetflixShowsDTO saved = new NetflixShowsDTO(entities.get(i));
+                    publishChange(saved.getId(), changeTypes.get(i), saved);
+                    savedChunk.add(saved);
+                    result.add(saved);
+                }
+                entityManager.clear();
+
+                // Sync the genre and cast links of the whole chunk
+                netflixShowsLinkService.replaceLinks(savedChunk);
+            }
+
+            return result;
         } catch (Exception e) {
-            throw new RuntimeException("Failed to create NetflixShows: " + e.getMessage());
+            throw new RuntimeException("Failed to create NetflixShows batch: " + e.getMessage(), e);
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<NetflixShowsDTO> getAllNetflixShows() {
         try {
             // Get all NetflixShows
@@ -62,7 +174,132 @@ public class NetflixShowsServiceImpl implements NetflixShowsService {
             // Convert NetflixShows to NetflixShowsDTO
             return netflixShows.stream().map(NetflixShowsDTO::new).toList();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to get all NetflixShows: " + e.getMessage());
+            throw new RuntimeException("Failed to get all NetflixShows: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NetflixShowsDTO> getNetflixShowsPage(Long after, int limit) {
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+        try {
+            // Get the next page of NetflixShows after the cursor
+            List<NetflixShows> netflixShows = netflixShowsRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, Limit.of(limit));
+
+            // Convert NetflixShows to NetflixShowsDTO
+            return netflixShows.stream().map(NetflixShowsDTO::new).toList();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get NetflixShows page: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NetflixShowsDTO> getNetflixShowsPage(Long after, int limit, Set<ENetflixShowsField> fields) {
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+        Assert.notNull(fields, "Fields must not be null");
+
+        try {
+            // Get the next page of NetflixShows after the cursor, selecting only the requested columns
+            return netflixShowsRepository.findProjectedByIdGreaterThan(after == null ? 0L : after, limit, fields);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get NetflixShows page: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NetflixShowsDTO> getNetflixShowsByIds(long[] ids) {
+        Assert.notNull(ids, "IDs must not be null");
+
+        try {
+            // Load the rows with a single query & Keep the order of the given ids
+            Map<Long, NetflixShows> netflixShows = netflixShowsRepository.findAllById(Arrays.stream(ids).boxed().toList())
+                .stream().collect(Collectors.toMap(NetflixShows::getId, Function.identity()));
+
+            return Arrays.stream(ids).mapToObj(netflixShows::get).filter(Objects::nonNull)
+                .map(NetflixShowsDTO::new).toList();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get NetflixShows by IDs: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NetflixShowsSearchResultDTO searchNetflixShows(NetflixShowsSearchCriteriaDTO criteria, Long after, int limit, boolean facets) {
+        Assert.notNull(criteria, "Search criteria must not be null");
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+        try {
+            // Get the next page of matching NetflixShows after the cursor
+            List<NetflixShowsDTO> netflixShows = netflixShowsRepository.search(criteria, after, limit)
+                .stream().map(NetflixShowsDTO::new).toList();
+
+            // Count the matches per facet value
+            return new NetflixShowsSearchResultDTO(netflixShows, 
+                facets ? netflixShowsRepository.searchFacets(criteria) : null);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to search NetflixShows: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllNetflixShows(Consumer<NetflixShowsDTO> consumer) {
+        Assert.notNull(consumer, "Consumer must not be null");
+
+        try (Stream<NetflixShows> netflixShows = netflixShowsRepository.streamAllOrderById()) {
+            // Hand over each row and detach it so the persistence context stays empty
+            netflixShows.forEach(n -> {
+                consumer.accept(new NetflixShowsDTO(n));
+                entityManager.detach(n);
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to stream NetflixShows: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportNetflixShows(Date dateAddedFrom, Date dateAddedTo, Consumer<NetflixShowsDTO> consumer) {
+        Assert.notNull(consumer, "Consumer must not be null");
+
+        try {
+            // Rows bypass the persistence context, so nothing accumulates while the export runs
+            netflixShowsRepository.forEachByDateAdded(dateAddedFrom, dateAddedTo, n -> consumer.accept(new NetflixShowsDTO(n)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to export NetflixShows: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public NetflixShowsVersionDTO getNetflixShowsVersion(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        try {
+            // A cached DTO carries its version, so no query is needed
+            NetflixShowsDTO cached = netflixShowsCacheService.getIfPresent(id);
+            if (cached != null) {
+                return new NetflixShowsVersionDTO(cached.getId(), cached.getVersion(), cached.getUpdatedAt());
+            }
+
+            return readAfterWrite(id, () -> netflixShowsRepository.findVersionById(id).orElse(null));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get NetflixShows version by ID: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NetflixShowsVersionDTO> getNetflixShowsVersionsPage(Long after, int limit) {
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+        try {
+            return netflixShowsRepository.findVersionsByIdGreaterThan(after == null ? 0L : after, Limit.of(limit));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get NetflixShows versions page: " + e.getMessage(), e);
         }
     }
 
@@ -71,78 +308,155 @@ public class NetflixShowsServiceImpl implements NetflixShowsService {
         Assert.notNull(id, "ID must not be null");
 
         try {
-            // Get NetflixShows by ID
-            NetflixShows netflixShows = netflixShowsRepository.findById(id)
-                .orElse(null);
+            // Get NetflixShows by ID through the cache, loading it from the database on a miss
+            return netflixShowsCacheService.get(id, key -> readAfterWrite(key, () -> netflixShowsRepository.findById(key)
+                .map(NetflixShowsDTO::new)
+                .orElse(null)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get NetflixShows by ID: " + e.getMessage(), e);
+        }
+    }
 
-            // Check if the NetflixShows is null
-            if (netflixShows == null) {
-                return null;
+    @Override
+    public NetflixShowsDTO getNetflixShowsById(Long id, Set<ENetflixShowsField> fields) {
+        Assert.notNull(id, "ID must not be null");
+        Assert.notNull(fields, "Fields must not be null");
+
+        try {
+            // A cached DTO already has every field; a partial one is not cached
+            NetflixShowsDTO cached = netflixShowsCacheService.getIfPresent(id);
+            if (cached != null) {
+                return cached;
             }
 
-            // Return NetflixShowsDTO
-            return new NetflixShowsDTO(netflixShows);
+            return readAfterWrite(id, () -> netflixShowsRepository.findProjectedById(id, fields).orElse(null));
         } catch (Exception e) {
-            throw new RuntimeException("Failed to get NetflixShows by ID: " + e.getMessage());
+            throw new RuntimeException("Failed to get NetflixShows by ID: " + e.getMessage(), e);
         }
     }
 
     @Override
     @Transactional
-    public NetflixShowsDTO updateNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO) {
+    public NetflixShowsDTO updateNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion) {
         Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
         Assert.notNull(id, "ID must not be null");
 
         try {
-            // Get NetflixShows by ID
-            NetflixShows netflixShows = netflixShowsRepository.findById(id)
-                .orElse(null);
+            // Update NetflixShows object
+            NetflixShows netflixShows = new NetflixShows();
+            copyToEntity(netflixShowsDTO, netflixShows);
+            netflixShows.setVersion(expectedVersion);
+            netflixShows.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
 
-            // Check if the NetflixShows is null
-            if (netflixShows == null) {
-                return null;
+            // Update all columns in a single statement & Check if the NetflixShows was not found or has changed
+            if (netflixShowsRepository.updateById(id, netflixShows, false) == 0) {
+                return notUpdated(id, expectedVersion);
             }
 
-            // Update NetflixShows object
-            netflixShows.setShowType(EShowType.valueOf(netflixShowsDTO.getShowType()));
-            netflixShows.setTitle(netflixShowsDTO.getTitle());
-            netflixShows.setDirector(netflixShowsDTO.getDirector());
-            netflixShows.setCastMembers(netflixShowsDTO.getCastMembers());
-            netflixShows.setCountry(netflixShowsDTO.getCountry());
-            netflixShows.setDateAdded(netflixShowsDTO.getDateAdded());
-            netflixShows.setReleaseYear(netflixShowsDTO.getReleaseYear());
-            netflixShows.setRating(netflixShowsDTO.getRating());
-            netflixShows.setDurationInMinute(netflixShowsDTO.getDurationInMinute());
-            netflixShows.setListedIn(netflixShowsDTO.getListedIn());
-            netflixShows.setDescription(netflixShowsDTO.getDescription());
-
-            // Save NetflixShows object & Return NetflixShowsDTO
-            return new NetflixShowsDTO(netflixShowsRepository.save(netflixShows));
+            // The row now holds exactly the given values, so only the version may need to be read back
+            netflixShows.setId(id);
+            netflixShows.setVersion(expectedVersion != null ? Long.valueOf(expectedVersion + 1)
+                : netflixShowsRepository.findVersionById(id).map(NetflixShowsVersionDTO::getVersion).orElse(null));
+            NetflixShowsDTO updated = new NetflixShowsDTO(netflixShows);
+            netflixShowsLinkService.replaceLinks(List.of(updated));
+            publishChange(id, EChangeType.UPDATED, updated);
+            return updated;
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Failed to update NetflixShows: " + e.getMessage());
+            throw new RuntimeException("Failed to update NetflixShows: " + e.getMessage(), e);
         }
     }
 
     @Override
     @Transactional
-    public Boolean deleteNetflixShows(Long id) {
+    public NetflixShowsDTO patchNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion) {
+        Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
         Assert.notNull(id, "ID must not be null");
 
         try {
-            // Get NetflixShows by ID
-            NetflixShows netflixShows = netflixShowsRepository.findById(id)
+            // Keep only the fields present in the request
+            NetflixShows netflixShows = new NetflixShows();
+            copyToEntity(netflixShowsDTO, netflixShows, true);
+            netflixShows.setVersion(expectedVersion);
+
+            // Update the changed columns in a single statement & Check if the NetflixShows was not found or has changed
+            if (netflixShowsRepository.updateById(id, netflixShows, true) == 0) {
+                return notUpdated(id, expectedVersion);
+            }
+
+            // Read back the merged row & Return NetflixShowsDTO
+            NetflixShowsDTO patched = netflixShowsRepository.findById(id)
+                .map(NetflixShowsDTO::new)
                 .orElse(null);
+            if (patched != null && (netflixShowsDTO.getListedIn() != null || netflixShowsDTO.getCastMembers() != null)) {
+                netflixShowsLinkService.replaceLinks(List.of(patched));
+            }
+            publishChange(id, EChangeType.UPDATED, patched);
+            return patched;
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to patch NetflixShows: " + e.getMessage(), e);
+        }
+    }
 
-            // Check if the NetflixShows is null
-            if (netflixShows == null) {
+    @Override
+    @Transactional
+    public Boolean deleteNetflixShows(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        try {
+            // Delete the genre and cast links first, then NetflixShows in a single statement & Check if the NetflixShows was not found
+            netflixShowsLinkService.removeLinks(id);
+            if (netflixShowsRepository.deleteByIdReturningCount(id) == 0) {
                 return false;
             }
 
-            // Delete NetflixShows object
-            netflixShowsRepository.delete(netflixShows);
+            publishChange(id, EChangeType.DELETED, null);
             return true;
         } catch (Exception e) {
-            throw new RuntimeException("Failed to delete NetflixShows: " + e.getMessage());
+            throw new RuntimeException("Failed to delete NetflixShows: " + e.getMessage(), e);
+        }
+    }
+
+    // Run a read of the given id in a read-write transaction if the id changed within the replica lag, so a client
+    // reading its own write is served by the primary; other reads keep their read-only transactions and replicas
+    private <T> T readAfterWrite(Long id, Supplier<T> read) {
+        return netflixShowsCacheService.isRecentlyChanged(id) ? primaryTransaction.execute(status -> read.get()) : read.get();
+    }
+
+    // No row was updated: the NetflixShows is missing (null) or no longer has the expected version
+    private NetflixShowsDTO notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion != null && netflixShowsRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("NetflixShows has been modified by another request");
+        }
+
+        return null;
+    }
+
+    // Notify listeners; transactional listeners run when the surrounding transaction completes
+    private void publishChange(Long id, EChangeType changeType, NetflixShowsDTO netflixShowsDTO) {
+        eventPublisher.publishEvent(new NetflixShowsChangedEvent(id, changeType, netflixShowsDTO));
+    }
+
+    private void copyToEntity(NetflixShowsDTO netflixShowsDTO, NetflixShows netflixShows) {
+        copyToEntity(netflixShowsDTO, netflixShows, false);
+    }
+
+    private void copyToEntity(NetflixShowsDTO netflixShowsDTO, NetflixShows netflixShows, boolean partial) {
+        if (!partial || netflixShowsDTO.getShowType() != null) {
+            netflixShows.setShowType(EShowType.valueOf(netflixShowsDTO.getShowType()));
         }
+        netflixShows.setTitle(netflixShowsDTO.getTitle());
+        netflixShows.setDirector(netflixShowsDTO.getDirector());
+        netflixShows.setCastMembers(netflixShowsDTO.getCastMembers());
+        netflixShows.setCountry(netflixShowsDTO.getCountry());
+        netflixShows.setDateAdded(netflixShowsDTO.getDateAdded());
+        netflixShows.setReleaseYear(netflixShowsDTO.getReleaseYear());
+        netflixShows.setRating(netflixShowsDTO.getRating());
+        netflixShows.setDurationInMinute(netflixShowsDTO.getDurationInMinute());
+        netflixShows.setListedIn(netflixShowsDTO.getListedIn());
+        netflixShows.setDescription(netflixShowsDTO.getDescription());
     }
 }
@@ -0,0 +1,87 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EStatsGroupBy;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsStatsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.stats.NetflixShowsColumnarSnapshot;
+
+// Statistics computed from a columnar snapshot of netflix_shows, loaded at startup and kept in step with committed writes
+@Service
+public class NetflixShowsStatsServiceImpl implements NetflixShowsStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(NetflixShowsStatsServiceImpl.class);
+
+    private final NetflixShowsRepository netflixShowsRepository;
+
+    private final NetflixShowsColumnarSnapshot snapshot = new NetflixShowsColumnarSnapshot();
+
+    // Aggregations only read the snapshot, so they run side by side; writes wait for them to finish
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public NetflixShowsStatsServiceImpl(NetflixShowsRepository netflixShowsRepository) {
+        this.netflixShowsRepository = netflixShowsRepository;
+    }
+
+    @Override
+    public NetflixShowsStatsResultDTO getStats(EStatsGroupBy groupBy, EShowType showType) {
+        lock.readLock().lock();
+        try {
+            return snapshot.aggregate(groupBy, showType);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            // Writes committed while loading wait for the lock and are applied afterwards; applying one twice is harmless.
+            // The scan runs in its own read-only transaction, so rows are fetched through a cursor.
+            snapshot.clear();
+            netflixShowsRepository.forEachStatsColumns(netflixShows -> snapshot.upsert(netflixShows.getId(),
+                netflixShows.getShowType(), netflixShows.getCountry(), netflixShows.getReleaseYear(),
+                netflixShows.getRating(), netflixShows.getDurationInMinute()));
+
+            logger.info("Loaded stats snapshot: {} rows", snapshot.size());
+        } catch (Exception e) {
+            logger.error("Failed to load stats snapshot: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNetflixShowsChanged(NetflixShowsChangedEvent event) {
+        NetflixShowsDTO netflixShows = event.getNetflixShows();
+        if (event.getChangeType() != EChangeType.DELETED && netflixShows == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (event.getChangeType() == EChangeType.DELETED) {
+                snapshot.delete(event.getId());
+            } else {
+                snapshot.upsert(event.getId(), EShowType.valueOf(netflixShows.getShowType()), netflixShows.getCountry(),
+                    netflixShows.getReleaseYear(), netflixShows.getRating(), netflixShows.getDurationInMinute());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsWriteBehindService;
+
+// Request threads only enqueue; a single flusher thread commits the queued creates in groups of up to
+// max-batch-size, waiting at most max-delay for a group to fill, through createNetflixShowsBatch
+@Service
+public class NetflixShowsWriteBehindServiceImpl implements NetflixShowsWriteBehindService {
+    private static final Logger logger = LoggerFactory.getLogger(NetflixShowsWriteBehindServiceImpl.class);
+
+    private record PendingShow(NetflixShowsDTO netflixShowsDTO, CompletableFuture<NetflixShowsDTO> future) {
+    }
+
+    private final Queue<PendingShow> queue = new ConcurrentLinkedQueue<>();
+
+    // Slots reserved in the queue; reserving before offering bounds the queue without a lock
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final NetflixShowsService netflixShowsService;
+
+    private final boolean enabled;
+
+    private final int capacity;
+
+    private final int maxBatchSize;
+
+    private final long maxDelayNanos;
+
+    private final Duration timeout;
+
+    private final Duration shutdownTimeout;
+
+    private final DistributionSummary batchSizes;
+
+    private final Thread flusher;
+
+    private volatile boolean running;
+
+    public NetflixShowsWriteBehindServiceImpl(NetflixShowsService netflixShowsService, MeterRegistry meterRegistry,
+        @Value("${netflix-shows.write-behind.enabled:false}") boolean enabled,
+        @Value("${netflix-shows.write-behind.capacity:10000}") int capacity,
+        @Value("${netflix-shows.write-behind.max-batch-size:500}") int maxBatchSize,
+        @Value("${netflix-shows.write-behind.max-delay:5ms}") Duration maxDelay,
+        @Value("${netflix-shows.write-behind.timeout:10s}") Duration timeout,
+        @Value("${netflix-shows.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        Assert.isTrue(capacity > 0, "Write-behind capacity must be greater than 0");
+        Assert.isTrue(maxBatchSize > 0, "Write-behind max batch size must be greater than 0");
+        Assert.isTrue(!maxDelay.isNegative() && !maxDelay.isZero(), "Write-behind max delay must be greater than 0");
+        Assert.isTrue(!timeout.isNegative() && !timeout.isZero(), "Write-behind timeout must be greater than 0");
+        Assert.isTrue(!shutdownTimeout.isNegative(), "Write-behind shutdown timeout must not be negative");
+
+        this.netflixShowsService = netflixShowsService;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timeout = timeout;
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("netflix_shows.write_behind.queue", size, AtomicInteger::get)
+            .description("NetflixShows creates waiting to be committed")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("netflix_shows.write_behind.batch")
+            .description("NetflixShows creates committed per transaction")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+
+        if (enabled) {
+            this.running = true;
+            this.flusher = Thread.ofPlatform().name("netflix-shows-write-behind").start(this::run);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public CompletableFuture<NetflixShowsDTO> submit(NetflixShowsDTO netflixShowsDTO) {
+        Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
+        Assert.state(enabled, "Write-behind is disabled");
+
+        // Check if the buffer is full
+        int reserved = size.incrementAndGet();
+        if (reserved > capacity) {
+            size.decrementAndGet();
+            return null;
+        }
+
+        // A create ignores the id, but createNetflixShowsBatch would treat it as an update
+        netflixShowsDTO.setId(null);
+        PendingShow pending = new PendingShow(netflixShowsDTO, new CompletableFuture<>());
+        queue.offer(pending);
+
+        // Check if the flusher has stopped; if it already took the item, it completes it
+        if (!running && queue.remove(pending)) {
+            size.decrementAndGet();
+            throw new IllegalStateException("Write-behind is shutting down");
+        }
+
+        // Wake the flusher for the first item of a group and once a group is full
+        if (reserved == 1 || reserved >= maxBatchSize) {
+            LockSupport.unpark(flusher);
+        }
+
+        // Bound the wait of the request; a create that times out before the flusher takes it is not committed
+        return pending.future().orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // Commit whatever is queued before the beans the flusher depends on are destroyed
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(shutdownTimeout);
+        if (flusher.isAlive()) {
+            logger.warn("Write-behind did not flush within {}; {} queued creates were failed", shutdownTimeout,
+                drain(new IllegalStateException("Write-behind did not flush before shutdown")));
+        }
+    }
+
+    private void run() {
+        List<PendingShow> group = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || size.get() > 0) {
+                if (size.get() == 0) {
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                // Give the group until the end of the time window to fill, unless it is full or the application is stopping;
+                // an early wake-up (a permit left by a previous unpark, or a spurious one) parks again for the rest
+                long deadline = System.nanoTime() + maxDelayNanos;
+                long remaining;
+                while (running && size.get() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+
+                // Skip the creates whose request has timed out
+                PendingShow pending;
+                while (group.size() < maxBatchSize && (pending = queue.poll()) != null) {
+                    size.decrementAndGet();
+                    if (!pending.future().isDone()) {
+                        group.add(pending);
+                    }
+                }
+
+                if (!group.isEmpty()) {
+                    flush(group);
+                    group.clear();
+                }
+            }
+        } catch (Throwable e) {
+            logger.error("Write-behind flusher stopped: {}", e.getMessage(), e);
+            for (PendingShow pending : group) {
+                pending.future().completeExceptionally(e);
+            }
+        } finally {
+            // No request may wait for a flusher that is gone: new creates are rejected and queued ones failed
+            running = false;
+            drain(new IllegalStateException("Write-behind stopped before the NetflixShows was created"));
+        }
+    }
+
+    // Fail the creates still queued and return how many there were
+    private int drain(RuntimeException e) {
+        int drained = 0;
+        PendingShow pending;
+        while ((pending = queue.poll()) != null) {
+            size.decrementAndGet();
+            pending.future().completeExceptionally(e);
+            drained++;
+        }
+
+        return drained;
+    }
+
+    private void flush(List<PendingShow> group) {
+        batchSizes.record(group.size());
+
+        try {
+            List<NetflixShowsDTO> created = netflixShowsService.createNetflixShowsBatch(
+                group.stream().map(PendingShow::netflixShowsDTO).toList());
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).future().complete(created.get(i));
+            }
+        } catch (RuntimeException e) {
+            // One failing row rolls back the whole group, so create the rows one by one to fail only that one
+            logger.warn("Failed to create a group of {} NetflixShows, retrying one by one: {}", group.size(), e.getMessage());
+            for (PendingShow pending : group) {
+                try {
+                    pending.future().complete(netflixShowsService.createNetflixShows(pending.netflixShowsDTO()));
+                } catch (RuntimeException ex) {
+                    pending.future().completeExceptionally(ex);
+                }
+            }
+        }
+    }
+}
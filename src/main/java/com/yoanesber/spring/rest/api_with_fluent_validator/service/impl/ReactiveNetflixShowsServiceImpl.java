@@ -0,0 +1,100 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.ReactiveNetflixShowsRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.ReactiveNetflixShowsService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveNetflixShowsServiceImpl implements ReactiveNetflixShowsService {
+    private final ReactiveNetflixShowsRepository reactiveNetflixShowsRepository;
+
+    public ReactiveNetflixShowsServiceImpl(ReactiveNetflixShowsRepository reactiveNetflixShowsRepository) {
+        this.reactiveNetflixShowsRepository = reactiveNetflixShowsRepository;
+    }
+
+    @Override
+    public Mono<NetflixShowsDTO> createNetflixShows(NetflixShowsDTO netflixShowsDTO) {
+        Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
+
+        // Insert NetflixShows & Return the stored row with the generated id, version and timestamp
+        return reactiveNetflixShowsRepository.insert(netflixShowsDTO)
+            .onErrorMap(e -> new RuntimeException("Failed to create NetflixShows: " + e.getMessage()));
+    }
+
+    @Override
+    public Flux<NetflixShowsDTO> getNetflixShowsPage(Long after, int limit) {
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+        return reactiveNetflixShowsRepository.findPage(after == null ? 0L : after, limit)
+            .onErrorMap(e -> new RuntimeException("Failed to get NetflixShows page: " + e.getMessage()));
+    }
+
+    @Override
+    public Flux<NetflixShowsDTO> streamAllNetflixShows() {
+        return reactiveNetflixShowsRepository.findAll()
+            .onErrorMap(e -> new RuntimeException("Failed to stream NetflixShows: " + e.getMessage()));
+    }
+
+    @Override
+    public Mono<NetflixShowsDTO> getNetflixShowsById(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        return reactiveNetflixShowsRepository.findById(id)
+            .onErrorMap(e -> new RuntimeException("Failed to get NetflixShows by ID: " + e.getMessage()));
+    }
+
+    @Override
+    public Mono<NetflixShowsDTO> updateNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion) {
+        Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
+        Assert.notNull(id, "ID must not be null");
+
+        // Update all columns in a single statement & Check if the NetflixShows was not found or at another version
+        return reactiveNetflixShowsRepository.update(id, netflixShowsDTO, expectedVersion)
+            .switchIfEmpty(notUpdated(id, expectedVersion))
+            .onErrorMap(e -> !(e instanceof OptimisticLockingFailureException),
+                e -> new RuntimeException("Failed to update NetflixShows: " + e.getMessage(), e));
+    }
+
+    @Override
+    public Mono<NetflixShowsDTO> patchNetflixShows(Long id, NetflixShowsDTO netflixShowsDTO, Long expectedVersion) {
+        Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
+        Assert.notNull(id, "ID must not be null");
+
+        // Write the present fields over the stored row in a single statement & Return the stored row
+        return reactiveNetflixShowsRepository.patch(id, netflixShowsDTO, expectedVersion)
+            .switchIfEmpty(notUpdated(id, expectedVersion))
+            .onErrorMap(e -> !(e instanceof OptimisticLockingFailureException),
+                e -> new RuntimeException("Failed to patch NetflixShows: " + e.getMessage(), e));
+    }
+
+    @Override
+    public Mono<Boolean> deleteNetflixShows(Long id) {
+        Assert.notNull(id, "ID must not be null");
+
+        return reactiveNetflixShowsRepository.deleteById(id)
+            .map(deleted -> deleted > 0)
+            .onErrorMap(e -> new RuntimeException("Failed to delete NetflixShows: " + e.getMessage()));
+    }
+
+    // Nothing was written: a conflict when the NetflixShows exists at another version, empty when it is not found
+    private Mono<NetflixShowsDTO> notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+
+        return reactiveNetflixShowsRepository.existsById(id)
+            .flatMap(exists -> exists
+                ? Mono.error(new OptimisticLockingFailureException("NetflixShows has been modified by another request"))
+                : Mono.empty());
+    }
+}
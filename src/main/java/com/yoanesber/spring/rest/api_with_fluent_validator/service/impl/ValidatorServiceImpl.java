@@ -1,44 +1,192 @@
 package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import br.com.fluentvalidator.context.Error;
 import br.com.fluentvalidator.context.ValidationResult;
 
 import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
 import com.yoanesber.spring.rest.api_with_fluent_validator.service.ValidatorService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator;
 import com.yoanesber.spring.rest.api_with_fluent_validator.validator.NetflixShowsValidator;
 
 @Service
+@Timed(value = "netflix_shows.validation", percentiles = {0.5, 0.99})
 public class ValidatorServiceImpl implements ValidatorService {
 
-    private final NetflixShowsValidator netflixShowsValidator;
+    private final Function<NetflixShowsDTO, ValidationResult> netflixShowsValidator;
+
+    // Reports every error: a patch drops the errors of its absent fields, so it cannot stop at the first ones
+    private final Function<NetflixShowsDTO, ValidationResult> netflixShowsPatchValidator;
+
+    private final MeterRegistry meterRegistry;
+
+    // Batches of at least this many items are validated in parallel
+    private final int parallelThreshold;
+
+    // Failure counter per field and message; both come from a fixed set of rule constants
+    private final Map<String, Map<String, Counter>> failureCounters = new ConcurrentHashMap<>();
 
-    public ValidatorServiceImpl(NetflixShowsValidator netflixShowsValidator) {
-        this.netflixShowsValidator = netflixShowsValidator;
+    // Getter of each validated field, keyed by the field name used in the validation errors
+    private static final Map<String, Function<NetflixShowsDTO, Object>> FIELDS = Map.of(
+        "ShowType", NetflixShowsDTO::getShowType,
+        "Title", NetflixShowsDTO::getTitle,
+        "Director", NetflixShowsDTO::getDirector,
+        "CastMembers", NetflixShowsDTO::getCastMembers,
+        "Country", NetflixShowsDTO::getCountry,
+        "DateAdded", NetflixShowsDTO::getDateAdded,
+        "ReleaseYear", NetflixShowsDTO::getReleaseYear,
+        "Rating", NetflixShowsDTO::getRating,
+        "ListedIn", NetflixShowsDTO::getListedIn);
+
+    public ValidatorServiceImpl(NetflixShowsValidator netflixShowsValidator,
+        CompiledNetflixShowsValidator compiledNetflixShowsValidator,
+        @Value("${netflix-shows.validator.mode:compiled}") String mode, MeterRegistry meterRegistry,
+        @Value("${netflix-shows.validator.parallel-threshold:1000}") int parallelThreshold) {
+        Assert.isTrue(parallelThreshold > 0, "Validator parallel threshold must be greater than 0");
+
+        this.meterRegistry = meterRegistry;
+        this.parallelThreshold = parallelThreshold;
+
+        // Pick the validator once so the hot path does not branch on the mode
+        switch (mode) {
+            case "compiled" -> {
+                this.netflixShowsValidator = compiledNetflixShowsValidator::validate;
+                this.netflixShowsPatchValidator = new CompiledNetflixShowsValidator()::validate;
+            }
+            case "fluent" -> {
+                this.netflixShowsValidator = netflixShowsValidator::validate;
+                this.netflixShowsPatchValidator = new NetflixShowsValidator()::validate;
+            }
+            default -> throw new IllegalArgumentException("Unknown validator mode: " + mode);
+        }
     }
 
     @Override
     public Map<String, List<String>> getErrorList(ValidationResult result) {
-        // Group the errors by field
-        return new TreeMap<>(result.getErrors().stream().collect(Collectors.groupingBy(e -> e.getField(), 
-            Collectors.mapping(e -> e.getMessage(), Collectors.toList()))));
+        // Group the errors by field, sorted by field name
+        Map<String, List<String>> errorList = new TreeMap<>();
+        for (Error error : result.getErrors()) {
+            List<String> messages = errorList.get(error.getField());
+            if (messages == null) {
+                messages = new ArrayList<>(2);
+                errorList.put(error.getField(), messages);
+            }
+            messages.add(error.getMessage());
+        }
+
+        return errorList;
+    }
+
+    @Override
+    public ValidationResult validateNetflixShowsPatch(NetflixShowsDTO netflixShowsDTO) {
+        ValidationResult validationResult = validate(netflixShowsPatchValidator, netflixShowsDTO);
+        if (validationResult.isValid()) {
+            return validationResult;
+        }
+
+        // Drop the errors of fields that are absent from the patch and therefore keep their stored value
+        List<Error> errors = validationResult.getErrors().stream()
+            .filter(e -> {
+                Function<NetflixShowsDTO, Object> getter = FIELDS.get(e.getField());
+                return getter == null || getter.apply(netflixShowsDTO) != null;
+            })
+            .toList();
+
+        if (errors.isEmpty()) {
+            return ValidationResult.ok();
+        }
+
+        countFailures(errors);
+        return ValidationResult.fail(errors);
+    }
+
+    @Override
+    public Map<Integer, Map<String, List<String>>> validateNetflixShowsBatch(List<NetflixShowsDTO> netflixShowsDTOs) {
+        Assert.notNull(netflixShowsDTOs, "NetflixShowsDTO list must not be null");
+
+        // Validate large batches across the cores; the validators keep their per-call state in a thread local
+        // and build their rules once, so the shared singletons can validate on several threads at once
+        int size = netflixShowsDTOs.size();
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>>[] itemErrors = new Map[size];
+        IntStream indexes = IntStream.range(0, size);
+        (size >= parallelThreshold ? indexes.parallel() : indexes)
+            .forEach(i -> itemErrors[i] = getItemErrors(netflixShowsDTOs.get(i)));
+
+        // Keep the error list of each invalid item by index
+        Map<Integer, Map<String, List<String>>> errors = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            if (itemErrors[i] != null) {
+                errors.put(i, itemErrors[i]);
+            }
+        }
+
+        return errors;
+    }
+
+    // Get the error list of one batch item, or null when it is valid
+    private Map<String, List<String>> getItemErrors(NetflixShowsDTO netflixShowsDTO) {
+        // Check if the item is null
+        if (netflixShowsDTO == null) {
+            return Map.of("NetflixShowsDTO", List.of("NetflixShowsDTO must not be null"));
+        }
+
+        ValidationResult validationResult = validateNetflixShows(netflixShowsDTO);
+        return validationResult.isValid() ? null : getErrorList(validationResult);
     }
 
     @Override
     public ValidationResult validateNetflixShows(NetflixShowsDTO netflixShowsDTO) {
+        ValidationResult validationResult = validate(netflixShowsValidator, netflixShowsDTO);
+        if (!validationResult.isValid()) {
+            countFailures(validationResult.getErrors());
+        }
+
+        return validationResult;
+    }
+
+    private static ValidationResult validate(Function<NetflixShowsDTO, ValidationResult> validator,
+        NetflixShowsDTO netflixShowsDTO) {
         Assert.notNull(netflixShowsDTO, "NetflixShowsDTO must not be null");
 
         try {
-            return netflixShowsValidator.validate(netflixShowsDTO);
+            return validator.apply(netflixShowsDTO);
         } catch (Exception e) {
             throw new RuntimeException("Failed to validate NetflixShows: " + e.getMessage());
         }
     }
 
+    private void countFailures(Iterable<Error> errors) {
+        for (Error error : errors) {
+            Map<String, Counter> counters = failureCounters.get(error.getField());
+            if (counters == null) {
+                counters = failureCounters.computeIfAbsent(error.getField(), k -> new ConcurrentHashMap<>());
+            }
+
+            Counter counter = counters.get(error.getMessage());
+            if (counter == null) {
+                counter = counters.computeIfAbsent(error.getMessage(), message -> Counter.builder("netflix_shows.validation.failures")
+                    .description("Validation rule failures")
+                    .tags("field", error.getField(), "message", message)
+                    .register(meterRegistry));
+            }
+            counter.increment();
+        }
+    }
+
 }
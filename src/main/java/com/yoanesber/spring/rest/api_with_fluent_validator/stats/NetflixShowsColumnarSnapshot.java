@@ -0,0 +1,346 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EStatsGroupBy;
+
+// Column-oriented copy of the aggregated columns of netflix_shows: one primitive array per column, with the
+// country dictionary-encoded and the show type stored as its ordinal (about 50 bytes per row including the id map).
+// Rows are kept dense: a delete moves the last row into the gap. Not thread-safe; callers guard it with a
+// read/write lock, and aggregate may be called by many readers at once.
+public class NetflixShowsColumnarSnapshot {
+    // Marks a missing release year, rating or duration
+    private static final int NULL = Integer.MIN_VALUE;
+
+    // Rows scanned by one fork-join leaf
+    private static final int LEAF_SIZE = 1 << 16;
+
+    // Accumulators per group: count, rating sum, rating count, duration sum, duration count
+    private static final int FIELDS = 5;
+
+    private static final EShowType[] SHOW_TYPES = EShowType.values();
+
+    private long[] ids = new long[1024];
+
+    private byte[] showTypes = new byte[1024];
+
+    private int[] countries = new int[1024];
+
+    private int[] releaseYears = new int[1024];
+
+    private int[] ratings = new int[1024];
+
+    private int[] durations = new int[1024];
+
+    private int size;
+
+    private final LongIntMap rows = new LongIntMap();
+
+    private final List<String> countryNames = new ArrayList<>();
+
+    private final Map<String, Integer> countryCodes = new HashMap<>();
+
+    private int minReleaseYear = Integer.MAX_VALUE;
+
+    private int maxReleaseYear = Integer.MIN_VALUE;
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+        rows.clear();
+        countryNames.clear();
+        countryCodes.clear();
+        minReleaseYear = Integer.MAX_VALUE;
+        maxReleaseYear = Integer.MIN_VALUE;
+    }
+
+    // Add the NetflixShows or replace its values
+    public void upsert(long id, EShowType showType, String country, Integer releaseYear, Integer rating, Integer durationInMinute) {
+        int row = rows.get(id);
+        if (row < 0) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            ids[row] = id;
+            rows.put(id, row);
+        }
+
+        showTypes[row] = (byte) showType.ordinal();
+        countries[row] = countryCodes.computeIfAbsent(country, c -> {
+            countryNames.add(c);
+            return countryNames.size() - 1;
+        });
+        releaseYears[row] = releaseYear == null ? NULL : releaseYear;
+        ratings[row] = rating == null ? NULL : rating;
+        durations[row] = durationInMinute == null ? NULL : durationInMinute;
+
+        // The year range only grows, so a deleted extreme year leaves an empty group that is skipped
+        if (releaseYear != null) {
+            minReleaseYear = Math.min(minReleaseYear, releaseYear);
+            maxReleaseYear = Math.max(maxReleaseYear, releaseYear);
+        }
+    }
+
+    public void delete(long id) {
+        int row = rows.remove(id);
+        if (row < 0) {
+            return;
+        }
+
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            showTypes[row] = showTypes[last];
+            countries[row] = countries[last];
+            releaseYears[row] = releaseYears[last];
+            ratings[row] = ratings[last];
+            durations[row] = durations[last];
+            rows.put(ids[row], row);
+        }
+    }
+
+    // Count and average the NetflixShows of the given show type (all when null), in total and per group (none when null)
+    public NetflixShowsStatsResultDTO aggregate(EStatsGroupBy groupBy, EShowType showType) {
+        int groups = groupCount(groupBy);
+        long[] accumulators = ForkJoinPool.commonPool().invoke(
+            new AggregateTask(groupBy, groups, showType == null ? -1 : showType.ordinal(), 0, size));
+
+        long[] total = new long[FIELDS];
+        List<NetflixShowsStatsDTO> result = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            int base = group * FIELDS;
+            for (int field = 0; field < FIELDS; field++) {
+                total[field] += accumulators[base + field];
+            }
+            if (groupBy != null && accumulators[base] > 0) {
+                result.add(toDTO(groupKey(groupBy, group, groups), accumulators, base));
+            }
+        }
+
+        if (groupBy == null) {
+            return new NetflixShowsStatsResultDTO(toDTO(null, total, 0), null);
+        }
+
+        result.sort(Comparator.comparing(NetflixShowsStatsDTO::getCount).reversed()
+            .thenComparing(NetflixShowsStatsDTO::getKey, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new NetflixShowsStatsResultDTO(toDTO(null, total, 0), result);
+    }
+
+    private int groupCount(EStatsGroupBy groupBy) {
+        if (groupBy == null) {
+            return 1;
+        }
+
+        return switch (groupBy) {
+            case SHOW_TYPE -> SHOW_TYPES.length;
+            case COUNTRY -> Math.max(countryNames.size(), 1);
+            // One group per year of the range, plus one for a missing year
+            case RELEASE_YEAR -> minReleaseYear > maxReleaseYear ? 1 : maxReleaseYear - minReleaseYear + 2;
+        };
+    }
+
+    private int groupOf(EStatsGroupBy groupBy, int groups, int row) {
+        if (groupBy == null) {
+            return 0;
+        }
+
+        return switch (groupBy) {
+            case SHOW_TYPE -> showTypes[row];
+            case COUNTRY -> countries[row];
+            case RELEASE_YEAR -> releaseYears[row] == NULL ? groups - 1 : releaseYears[row] - minReleaseYear;
+        };
+    }
+
+    private String groupKey(EStatsGroupBy groupBy, int group, int groups) {
+        return switch (groupBy) {
+            case SHOW_TYPE -> SHOW_TYPES[group].name();
+            case COUNTRY -> countryNames.get(group);
+            case RELEASE_YEAR -> group == groups - 1 ? null : String.valueOf(minReleaseYear + group);
+        };
+    }
+
+    private static NetflixShowsStatsDTO toDTO(String key, long[] accumulators, int base) {
+        return new NetflixShowsStatsDTO(key, accumulators[base],
+            accumulators[base + 2] == 0 ? null : (double) accumulators[base + 1] / accumulators[base + 2],
+            accumulators[base + 4] == 0 ? null : (double) accumulators[base + 3] / accumulators[base + 4]);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        showTypes = Arrays.copyOf(showTypes, capacity);
+        countries = Arrays.copyOf(countries, capacity);
+        releaseYears = Arrays.copyOf(releaseYears, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+    }
+
+    // Scans a row range, splitting it in halves down to LEAF_SIZE rows; each leaf fills its own accumulators
+    private final class AggregateTask extends RecursiveTask<long[]> {
+        private final EStatsGroupBy groupBy;
+
+        private final int groups;
+
+        private final int showType;
+
+        private final int from;
+
+        private final int to;
+
+        AggregateTask(EStatsGroupBy groupBy, int groups, int showType, int from, int to) {
+            this.groupBy = groupBy;
+            this.groups = groups;
+            this.showType = showType;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                AggregateTask left = new AggregateTask(groupBy, groups, showType, from, middle);
+                left.fork();
+                long[] right = new AggregateTask(groupBy, groups, showType, middle, to).compute();
+                long[] merged = left.join();
+                for (int i = 0; i < merged.length; i++) {
+                    merged[i] += right[i];
+                }
+                return merged;
+            }
+
+            long[] accumulators = new long[groups * FIELDS];
+            for (int row = from; row < to; row++) {
+                if (showType >= 0 && showTypes[row] != showType) {
+                    continue;
+                }
+
+                int base = groupOf(groupBy, groups, row) * FIELDS;
+                accumulators[base]++;
+                int rating = ratings[row];
+                if (rating != NULL) {
+                    accumulators[base + 1] += rating;
+                    accumulators[base + 2]++;
+                }
+                int duration = durations[row];
+                if (duration != NULL) {
+                    accumulators[base + 3] += duration;
+                    accumulators[base + 4]++;
+                }
+            }
+
+            return accumulators;
+        }
+    }
+
+    // Open-addressing map from show id to row with linear probing and backward-shift deletion
+    private static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+
+        private int[] values;
+
+        private int mask;
+
+        private int size;
+
+        LongIntMap() {
+            allocate(1024);
+        }
+
+        // Row of the id, or -1 if absent
+        int get(long key) {
+            for (int i = slot(key); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash();
+            }
+
+            int i = slot(key);
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                size++;
+            }
+            values[i] = value;
+        }
+
+        // Row of the removed id, or -1 if absent
+        int remove(long key) {
+            int i = slot(key);
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int value = values[i];
+
+            // Move back every following entry whose home slot is at or before the gap, so lookups never stop early
+            int gap = i;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                if (((j - slot(keys[j])) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = EMPTY;
+            size--;
+            return value;
+        }
+
+        void clear() {
+            allocate(1024);
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.validator;
+
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.ValidationPredicates.isEmptyOrNull;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.ValidationPredicates.isPrintableAscii;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.ValidationPredicates.isShowType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+import br.com.fluentvalidator.context.Error;
+import br.com.fluentvalidator.context.ValidationResult;
+
+// Straight-line equivalent of NetflixShowsValidator: the same rules, field names and messages in the
+// same order, but each field is read and checked for emptiness once, without regular expressions,
+// predicate chains or a thread-local validation context. With an error limit or fail-fast, the
+// remaining fields are not checked once the limit or the first field with errors is reached.
+public class CompiledNetflixShowsValidator {
+    public static final String SHOW_TYPE_REQUIRED = "ShowType must not be null or empty";
+    public static final String SHOW_TYPE_INVALID = "ShowType must be either " + ValidationPredicates.SHOW_TYPE_NAMES;
+    public static final String TITLE_REQUIRED = "Title must not be null or empty";
+    public static final String TITLE_NOT_ASCII = "Title must contain only printable ASCII characters";
+    public static final String DIRECTOR_NOT_ASCII = "Director must contain only printable ASCII characters";
+    public static final String CAST_MEMBERS_NOT_ASCII = "Cast members must contain only printable ASCII characters";
+    public static final String COUNTRY_REQUIRED = "Country must not be null or empty";
+    public static final String COUNTRY_NOT_ASCII = "Country must contain only printable ASCII characters";
+    public static final String COUNTRY_TOO_LONG = "Country must be less than or equal to 60 character length";
+    public static final String DATE_ADDED_REQUIRED = "DateAdded must not be null or empty";
+    public static final String RELEASE_YEAR_REQUIRED = "ReleaseYear must not be null or empty";
+    public static final String RATING_OUT_OF_RANGE = "Rating must be between 1 and 10";
+    public static final String LISTED_IN_NOT_ASCII = "ListedIn must contain only printable ASCII characters";
+
+    public static final int COUNTRY_MAX_LENGTH = 60;
+
+    private final int maxErrors;
+
+    private final boolean failFast;
+
+    // Report every error
+    public CompiledNetflixShowsValidator() {
+        this(0, false);
+    }
+
+    // Stop after maxErrors errors (0 = no limit) or, with failFast, after the first field with errors
+    public CompiledNetflixShowsValidator(int maxErrors, boolean failFast) {
+        this.maxErrors = maxErrors > 0 ? maxErrors : Integer.MAX_VALUE;
+        this.failFast = failFast;
+    }
+
+    public ValidationResult validate(NetflixShowsDTO netflixShowsDTO) {
+        List<Error> errors = null;
+
+        String showType = netflixShowsDTO.getShowType();
+        if (isEmptyOrNull(showType)) {
+            errors = add(errors, "ShowType", SHOW_TYPE_REQUIRED, showType);
+        } else if (!isShowType(showType)) {
+            errors = add(errors, "ShowType", SHOW_TYPE_INVALID, showType);
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        String title = netflixShowsDTO.getTitle();
+        if (isEmptyOrNull(title)) {
+            errors = add(errors, "Title", TITLE_REQUIRED, title);
+        } else if (!isPrintableAscii(title)) {
+            errors = add(errors, "Title", TITLE_NOT_ASCII, title);
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        String director = netflixShowsDTO.getDirector();
+        if (!isEmptyOrNull(director) && !isPrintableAscii(director)) {
+            errors = add(errors, "Director", DIRECTOR_NOT_ASCII, director);
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        String castMembers = netflixShowsDTO.getCastMembers();
+        if (!isEmptyOrNull(castMembers) && !isPrintableAscii(castMembers)) {
+            errors = add(errors, "CastMembers", CAST_MEMBERS_NOT_ASCII, castMembers);
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        String country = netflixShowsDTO.getCountry();
+        if (isEmptyOrNull(country)) {
+            errors = add(errors, "Country", COUNTRY_REQUIRED, country);
+        } else {
+            if (!isPrintableAscii(country)) {
+                errors = add(errors, "Country", COUNTRY_NOT_ASCII, country);
+            }
+            if (country.length() > COUNTRY_MAX_LENGTH) {
+                errors = add(errors, "Country", COUNTRY_TOO_LONG, country);
+            }
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        if (netflixShowsDTO.getDateAdded() == null) {
+            errors = add(errors, "DateAdded", DATE_ADDED_REQUIRED, null);
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        if (netflixShowsDTO.getReleaseYear() == null) {
+            errors = add(errors, "ReleaseYear", RELEASE_YEAR_REQUIRED, null);
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        Integer rating = netflixShowsDTO.getRating();
+        if (rating != null && (rating < 1 || rating > 10)) {
+            errors = add(errors, "Rating", RATING_OUT_OF_RANGE, rating);
+        }
+        if (isDone(errors)) {
+            return ValidationResult.fail(errors);
+        }
+
+        String listedIn = netflixShowsDTO.getListedIn();
+        if (!isEmptyOrNull(listedIn) && !isPrintableAscii(listedIn)) {
+            errors = add(errors, "ListedIn", LISTED_IN_NOT_ASCII, listedIn);
+        }
+
+        return errors == null ? ValidationResult.ok() : ValidationResult.fail(errors);
+    }
+
+    // Check if the remaining fields can be skipped
+    private boolean isDone(List<Error> errors) {
+        return errors != null && (failFast || errors.size() >= maxErrors);
+    }
+
+    // Allocate the error list only once the first error is found
+    private List<Error> add(List<Error> errors, String field, String message, Object attemptedValue) {
+        List<Error> list = errors == null ? new ArrayList<>(4) : errors;
+        if (list.size() < maxErrors) {
+            list.add(Error.create(field, message, null, attemptedValue));
+        }
+        return list;
+    }
+}
@@ -3,95 +3,138 @@ package com.yoanesber.spring.rest.api_with_fluent_validator.validator;
 import static br.com.fluentvalidator.predicate.LogicalPredicate.not;
 import static br.com.fluentvalidator.predicate.ObjectPredicate.nullValue;
 import static br.com.fluentvalidator.predicate.StringPredicate.stringEmptyOrNull;
-import static br.com.fluentvalidator.predicate.StringPredicate.stringMatches;
 import static br.com.fluentvalidator.predicate.StringPredicate.stringSizeLessThanOrEqual;
-
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.CAST_MEMBERS_NOT_ASCII;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.COUNTRY_MAX_LENGTH;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.COUNTRY_NOT_ASCII;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.COUNTRY_REQUIRED;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.COUNTRY_TOO_LONG;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.DATE_ADDED_REQUIRED;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.DIRECTOR_NOT_ASCII;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.LISTED_IN_NOT_ASCII;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.RATING_OUT_OF_RANGE;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.RELEASE_YEAR_REQUIRED;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.SHOW_TYPE_INVALID;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.SHOW_TYPE_REQUIRED;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.TITLE_NOT_ASCII;
+import static com.yoanesber.spring.rest.api_with_fluent_validator.validator.CompiledNetflixShowsValidator.TITLE_REQUIRED;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
-import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
 
 import br.com.fluentvalidator.AbstractValidator;
+import br.com.fluentvalidator.context.Error;
+import br.com.fluentvalidator.context.ValidationResult;
 
 public class NetflixShowsValidator extends AbstractValidator<NetflixShowsDTO> {
+    private final int maxErrors;
+
+    private final boolean failFast;
+
+    // Report every error
+    public NetflixShowsValidator() {
+        this(0, false);
+    }
+
+    // Keep the first maxErrors errors (0 = no limit) or, with failFast, the errors of the first field with errors
+    public NetflixShowsValidator(int maxErrors, boolean failFast) {
+        this.maxErrors = maxErrors > 0 ? maxErrors : Integer.MAX_VALUE;
+        this.failFast = failFast;
+    }
+
+    // The library only stops at critical rules, which would also cut the rule chain of a field at its first error,
+    // so every rule still runs and the errors are cut afterwards; CompiledNetflixShowsValidator stops checking instead
     @Override
-    public void rules() {
-        String enumRegex = Arrays.stream(EShowType.values())
-                         .map(Enum::name)
-                         .collect(Collectors.joining("|", "^(", ")$"));
+    public ValidationResult validate(NetflixShowsDTO netflixShowsDTO) {
+        ValidationResult validationResult = super.validate(netflixShowsDTO);
+        if (validationResult.isValid() || (!failFast && validationResult.getErrors().size() <= maxErrors)) {
+            return validationResult;
+        }
 
-        String showTypes = Arrays.stream(EShowType.values())
-                         .map(Enum::name)
-                         .collect(Collectors.joining(" or ", "", ""));
+        // The errors of a field are adjacent, in the order of the rules
+        List<Error> errors = new ArrayList<>();
+        for (Error error : validationResult.getErrors()) {
+            if (errors.size() == maxErrors || (failFast && !errors.isEmpty()
+                && !errors.get(0).getField().equals(error.getField()))) {
+                break;
+            }
+            errors.add(error);
+        }
 
+        return ValidationResult.fail(errors);
+    }
+
+    @Override
+    public void rules() {
         ruleFor(NetflixShowsDTO::getShowType)
             .must(not(stringEmptyOrNull()))
-                .withMessage("ShowType must not be null or empty")
+                .withMessage(SHOW_TYPE_REQUIRED)
                 .withFieldName("ShowType")
-            .must(type -> type != null && type.matches(enumRegex))
+            .must(ValidationPredicates::isShowType)
                 .when(not(stringEmptyOrNull()))
-                .withMessage("ShowType must be either " + showTypes)
+                .withMessage(SHOW_TYPE_INVALID)
                 .withFieldName("ShowType");
 
         ruleFor(NetflixShowsDTO::getTitle)
             .must(not(stringEmptyOrNull()))
-                .withMessage("Title must not be null or empty")
+                .withMessage(TITLE_REQUIRED)
                 .withFieldName("Title")
-            .must(stringMatches("^[\\x20-\\x7E]+$"))
+            .must(ValidationPredicates::isPrintableAscii)
                 .when(not(stringEmptyOrNull()))
-                .withMessage("Title must contain only printable ASCII characters")
+                .withMessage(TITLE_NOT_ASCII)
                 .withFieldName("Title");
 
         ruleFor(NetflixShowsDTO::getDirector)
-            .must(stringMatches("^[\\x20-\\x7E]+$"))
+            .must(ValidationPredicates::isPrintableAscii)
                 .when(not(stringEmptyOrNull()))
-                .withMessage("Director must contain only printable ASCII characters")
+                .withMessage(DIRECTOR_NOT_ASCII)
                 .withFieldName("Director");
 
         ruleFor(NetflixShowsDTO::getCastMembers)
-            .must(stringMatches("^[\\x20-\\x7E]+$"))
+            .must(ValidationPredicates::isPrintableAscii)
                 .when(not(stringEmptyOrNull()))
-                .withMessage("Cast members must contain only printable ASCII characters")
+                .withMessage(CAST_MEMBERS_NOT_ASCII)
                 .withFieldName("CastMembers");
 
         ruleFor(NetflixShowsDTO::getCountry)
             .must(not(stringEmptyOrNull()))
-                .withMessage("Country must not be null or empty")
+                .withMessage(COUNTRY_REQUIRED)
                 .withFieldName("Country")
-            .must(stringMatches("^[\\x20-\\x7E]+$"))
+            .must(ValidationPredicates::isPrintableAscii)
                 .when(not(stringEmptyOrNull()))
-                .withMessage("Country must contain only printable ASCII characters")
+                .withMessage(COUNTRY_NOT_ASCII)
                 .withFieldName("Country")
-            .must(stringSizeLessThanOrEqual(60))
+            .must(stringSizeLessThanOrEqual(COUNTRY_MAX_LENGTH))
                 .when(not(stringEmptyOrNull()))
-                .withMessage("Country must be less than or equal to 60 character length")
+                .withMessage(COUNTRY_TOO_LONG)
                 .withFieldName("Country");
 
         ruleFor(NetflixShowsDTO::getDateAdded)
             .must(not(nullValue()))
-                .withMessage("DateAdded must not be null or empty")
+                .withMessage(DATE_ADDED_REQUIRED)
                 .withFieldName("DateAdded");
 
         ruleFor(NetflixShowsDTO::getReleaseYear)
             .must(not(nullValue()))
-                .withMessage("ReleaseYear must not be null or empty")
+                .withMessage(RELEASE_YEAR_REQUIRED)
                 .withFieldName("ReleaseYear");
 
         ruleFor(NetflixShowsDTO::getRating)
             .must(this::checkRatingRange)
                 .when(not(nullValue()))
-                .withMessage("Rating must be between 1 and 10")
+                .withMessage(RATING_OUT_OF_RANGE)
                 .withFieldName("Rating");
 
         ruleFor(NetflixShowsDTO::getListedIn)
-            .must(stringMatches("^[\\x20-\\x7E]+$"))
+            .must(ValidationPredicates::isPrintableAscii)
                 .when(not(stringEmptyOrNull()))
-                .withMessage("ListedIn must contain only printable ASCII characters")
+                .withMessage(LISTED_IN_NOT_ASCII)
                 .withFieldName("ListedIn");
 
         // ruleFor(NetflixShowsDTO::getDescription)
-        //     .must(stringMatches("^[\\x20-\\x7E]+$"))
+        //     .must(ValidationPredicates::isPrintableAscii)
         //         .when(not(stringEmptyOrNull()))
         //         .withMessage("Description must contain only printable ASCII characters")
         //         .withFieldName("Description");
@@ -0,0 +1,48 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.validator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+
+public final class ValidationPredicates {
+    // Lookup table of the EShowType names, built once
+    private static final Map<String, EShowType> SHOW_TYPES = Arrays.stream(EShowType.values())
+        .collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+
+    // Human readable list of the EShowType names, e.g. "MOVIE or TV_SHOW"
+    public static final String SHOW_TYPE_NAMES = Arrays.stream(EShowType.values())
+        .map(Enum::name)
+        .collect(Collectors.joining(" or ", "", ""));
+
+    private ValidationPredicates() {
+    }
+
+    // Check if the value is the exact name of an EShowType
+    public static boolean isShowType(String value) {
+        return value != null && SHOW_TYPES.containsKey(value);
+    }
+
+    // Check if the value is non-empty and contains only printable ASCII characters (0x20 - 0x7E)
+    public static boolean isPrintableAscii(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Check if the value is null or empty
+    public static boolean isEmptyOrNull(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.changefeed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class NetflixShowsChangeBufferTests {
+
+	@Test
+	void returnsChangesAfterSequenceNumber() {
+		NetflixShowsChangeBuffer buffer = new NetflixShowsChangeBuffer(8, 10);
+		assertEquals(10, buffer.head());
+		assertTrue(buffer.after(10, 100).isEmpty());
+
+		buffer.append(changes(11, 15));
+		assertEquals(15, buffer.head());
+		assertEquals(List.of(11L, 12L, 13L, 14L, 15L), seqs(buffer.after(10, 100)));
+		assertEquals(List.of(13L, 14L), seqs(buffer.after(12, 2)));
+		assertTrue(buffer.after(15, 100).isEmpty());
+		assertTrue(buffer.after(20, 100).isEmpty());
+
+		// Changes before the floor were never buffered
+		assertNull(buffer.after(9, 100));
+	}
+
+	@Test
+	void dropsOldestChangesWhenFull() {
+		NetflixShowsChangeBuffer buffer = new NetflixShowsChangeBuffer(4, 0);
+		buffer.append(changes(1, 3));
+		buffer.append(changes(4, 7));
+
+		assertEquals(3, buffer.floor());
+		assertEquals(7, buffer.head());
+		assertNull(buffer.after(2, 100));
+		assertEquals(List.of(4L, 5L, 6L, 7L), seqs(buffer.after(3, 100)));
+		assertEquals(List.of(6L, 7L), seqs(buffer.after(5, 100)));
+	}
+
+	@Test
+	void findsChangesAcrossGaps() {
+		// Retention can leave gaps between sequence numbers
+		NetflixShowsChangeBuffer buffer = new NetflixShowsChangeBuffer(4, 0);
+		buffer.append(List.of(change(2), change(5), change(6), change(9), change(12)));
+
+		assertEquals(List.of(9L, 12L), seqs(buffer.after(7, 100)));
+		assertEquals(List.of(5L, 6L, 9L, 12L), seqs(buffer.after(2, 100)));
+		assertNull(buffer.after(1, 100));
+	}
+
+	private static List<NetflixShowsChangeBuffer.Change> changes(long from, long to) {
+		List<NetflixShowsChangeBuffer.Change> changes = new ArrayList<>();
+		for (long seq = from; seq <= to; seq++) {
+			changes.add(change(seq));
+		}
+
+		return changes;
+	}
+
+	private static NetflixShowsChangeBuffer.Change change(long seq) {
+		return new NetflixShowsChangeBuffer.Change(seq, "UPDATED", "{\"seq\":" + seq + "}");
+	}
+
+	private static List<Long> seqs(List<NetflixShowsChangeBuffer.Change> changes) {
+		return changes.stream().map(NetflixShowsChangeBuffer.Change::seq).toList();
+	}
+}
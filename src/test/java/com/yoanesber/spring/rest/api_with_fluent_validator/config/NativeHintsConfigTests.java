@@ -0,0 +1,46 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+// Stands in for a native smoke test: every DTO can end up as the Object data of a CustomHttpResponse, which
+// Spring AOT cannot see, so each one needs its binding hints or the native executable fails to serialize it
+class NativeHintsConfigTests {
+
+	@Test
+	void registersBindingHintsForEveryDto() throws Exception {
+		RuntimeHints hints = new RuntimeHints();
+		new NativeHintsConfig.NetflixShowsRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		List<Class<?>> dtos = dtos();
+		assertFalse(dtos.isEmpty());
+		for (Class<?> dto : dtos) {
+			assertTrue(RuntimeHintsPredicates.reflection().onType(dto).test(hints), dto.getSimpleName() + " has no reflection hints");
+		}
+	}
+
+	private static List<Class<?>> dtos() throws Exception {
+		String dtoPackage = NetflixShowsDTO.class.getPackageName();
+		List<Class<?>> dtos = new ArrayList<>();
+		for (Resource resource : new PathMatchingResourcePatternResolver()
+			.getResources("classpath*:" + dtoPackage.replace('.', '/') + "/*.class")) {
+			String name = resource.getFilename().replace(".class", "");
+			if (!name.contains("$")) {
+				dtos.add(Class.forName(dtoPackage + "." + name));
+			}
+		}
+
+		return dtos;
+	}
+}
@@ -0,0 +1,84 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+// The databases are stood in by mocks: one connection per DataSource identifies where a connection came from
+class ReplicaRoutingDataSourceTests {
+
+	private final Connection primaryConnection = mock(Connection.class);
+
+	private final Connection replica0Connection = mock(Connection.class);
+
+	private final Connection replica1Connection = mock(Connection.class);
+
+	private final DataSource primary = dataSource(primaryConnection);
+
+	private final DataSource replica0 = dataSource(replica0Connection);
+
+	private final DataSource replica1 = dataSource(replica1Connection);
+
+	@Test
+	void spreadsConnectionsOverReplicas() throws SQLException {
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1));
+
+		assertSame(replica0Connection, routing.getConnection());
+		assertSame(replica1Connection, routing.getConnection());
+		assertSame(replica0Connection, routing.getConnection());
+	}
+
+	@Test
+	void skipsFailingReplicaAndFallsBackToPrimary() throws SQLException {
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1));
+
+		// A failed connection attempt takes the replica out of the rotation
+		when(replica0.getConnection()).thenThrow(new SQLException("Connection refused"));
+		assertSame(replica1Connection, routing.getConnection());
+		assertSame(replica1Connection, routing.getConnection());
+		assertFalse(routing.isHealthy(0));
+
+		when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+		assertSame(primaryConnection, routing.getConnection());
+		assertFalse(routing.isHealthy(1));
+	}
+
+	@Test
+	void healthCheckRestoresRecoveredReplica() throws SQLException {
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica0));
+
+		when(replica0.getConnection()).thenThrow(new SQLException("Connection refused"));
+		routing.checkHealth();
+		assertFalse(routing.isHealthy(0));
+		assertSame(primaryConnection, routing.getConnection());
+
+		// Stubbed without calling getConnection(), which still throws
+		doReturn(replica0Connection).when(replica0).getConnection();
+		when(replica0Connection.isValid(anyInt())).thenReturn(true);
+		routing.checkHealth();
+		assertTrue(routing.isHealthy(0));
+		assertSame(replica0Connection, routing.getConnection());
+	}
+
+	private static DataSource dataSource(Connection connection) {
+		DataSource dataSource = mock(DataSource.class);
+		try {
+			when(dataSource.getConnection()).thenReturn(connection);
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+		return dataSource;
+	}
+}
@@ -0,0 +1,46 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.duplicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class NetflixShowsDuplicateKeyTests {
+
+	@Test
+	void normalizesCaseAndWhitespace() {
+		assertEquals("the smart money woman", NetflixShowsDuplicateKey.normalizeTitle("  The  Smart\tMoney\nWoman "));
+		assertEquals("", NetflixShowsDuplicateKey.normalizeTitle(" \t "));
+	}
+
+	@Test
+	void hashesTheWholeKey() {
+		long hash = NetflixShowsDuplicateKey.hash("dick johnson is dead", 2020, "MOVIE");
+
+		assertEquals(hash, NetflixShowsDuplicateKey.hash("dick johnson is dead", 2020, "MOVIE"));
+		assertNotEquals(hash, NetflixShowsDuplicateKey.hash("dick johnson is dead", 2021, "MOVIE"));
+		assertNotEquals(hash, NetflixShowsDuplicateKey.hash("dick johnson is dead", 2020, "TV_SHOW"));
+	}
+
+	@Test
+	void bloomFilterHasNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int year = 0; year < 10_000; year++) {
+			filter.put(NetflixShowsDuplicateKey.hash("title", year, "MOVIE"));
+		}
+
+		int falsePositives = 0;
+		for (int year = 0; year < 10_000; year++) {
+			assertTrue(filter.mightContain(NetflixShowsDuplicateKey.hash("title", year, "MOVIE")));
+			if (filter.mightContain(NetflixShowsDuplicateKey.hash("title", year, "TV_SHOW"))) {
+				falsePositives++;
+			}
+		}
+
+		// About 1% is expected; allow for variance
+		assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+		assertFalse(new BloomFilter(10, 0.01).mightContain(NetflixShowsDuplicateKey.hash("title", 2020, "MOVIE")));
+	}
+}
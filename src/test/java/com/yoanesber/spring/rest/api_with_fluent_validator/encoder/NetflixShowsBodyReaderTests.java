@@ -0,0 +1,85 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+class NetflixShowsBodyReaderTests {
+
+	private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+	private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+	private final NetflixShowsProtobufCodec codec = new NetflixShowsProtobufCodec(jsonMapper);
+
+	private final NetflixShowsBodyReader reader = new NetflixShowsBodyReader(jsonMapper, cborMapper, smileMapper, codec);
+
+	private final List<NetflixShowsDTO> shows = List.of(show(1L), show(2L));
+
+	@Test
+	void readsJson() throws Exception {
+		assertEquals(show(1L), read(jsonMapper.writeValueAsBytes(show(1L)), "application/json"));
+		assertEquals(shows, read(jsonMapper.writeValueAsBytes(shows), "application/json;charset=UTF-8"));
+
+		// Without a Content-Type the body is read as JSON
+		assertEquals(shows, reader.read(new ByteArrayInputStream(jsonMapper.writeValueAsBytes(shows)), null));
+
+		// Neither an item nor a list
+		assertNull(read(jsonMapper.writeValueAsBytes("title"), "application/json"));
+	}
+
+	@Test
+	void readsCbor() throws Exception {
+		assertEquals(show(1L), read(cborMapper.writeValueAsBytes(show(1L)), "application/cbor"));
+		assertEquals(shows, read(cborMapper.writeValueAsBytes(shows), "application/cbor"));
+	}
+
+	@Test
+	void readsSmile() throws Exception {
+		assertEquals(show(1L), read(smileMapper.writeValueAsBytes(show(1L)), "application/x-jackson-smile"));
+		assertEquals(shows, read(smileMapper.writeValueAsBytes(shows), "application/x-jackson-smile"));
+	}
+
+	@Test
+	void readsProtobuf() throws Exception {
+		assertEquals(show(1L), read(codec.encodeShow(show(1L)), "application/x-protobuf"));
+		assertEquals(show(1L), read(codec.encodeShow(show(1L)), "application/x-protobuf;messageType=netflixshows.v1.NetflixShows"));
+		assertEquals(shows, read(codec.encodeShows(shows), "application/x-protobuf;messageType=netflixshows.v1.NetflixShowsList"));
+
+		assertThrows(HttpMediaTypeNotSupportedException.class,
+			() -> read(codec.encodeShows(shows), "application/x-protobuf;messageType=netflixshows.v1.Response"));
+	}
+
+	@Test
+	void rejectsOtherFormats() {
+		assertThrows(HttpMediaTypeNotSupportedException.class, () -> read(new byte[0], "application/xml"));
+		assertThrows(HttpMediaTypeNotSupportedException.class, () -> read(new byte[0], "application/x-www-form-urlencoded"));
+	}
+
+	private Object read(byte[] body, String contentType) throws IOException, HttpMediaTypeNotSupportedException {
+		return reader.read(new ByteArrayInputStream(body), MediaType.parseMediaType(contentType));
+	}
+
+	// dateAdded is left out: java.sql.Date is read back at midnight UTC rather than in the local time zone
+	private static NetflixShowsDTO show(Long id) {
+		return new NetflixShowsDTO(id, "MOVIE", "Blood & Water", "Oliver Parker", "Ama Qamata, Khosi Ngema", "South Africa",
+			null, 2024, 7, 90, "Comedies", "A woman adjusting to life after a loss.", 3L,
+			Instant.parse("2025-02-27T21:20:05.124513Z"));
+	}
+}
@@ -0,0 +1,101 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+
+class NetflixShowsJsonEncoderTests {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final NetflixShowsJsonEncoder encoder = new NetflixShowsJsonEncoder(objectMapper);
+
+	private final byte[] message = encoder.encodeMessage("NetflixShows \"retrieved\" successfully");
+
+	@Test
+	void encodesSameResponseAsJackson() throws IOException {
+		NetflixShowsDTO show = show(1L);
+
+		assertSameAsJackson(encoder.response(200, message, encoder.encode(show)), show);
+	}
+
+	@Test
+	void encodesSameListResponseAsJackson() throws IOException {
+		for (int size : new int[] {0, 1, 3}) {
+			List<NetflixShowsDTO> shows = new ArrayList<>();
+			List<byte[]> data = new ArrayList<>();
+			for (long id = 1; id <= size; id++) {
+				shows.add(show(id));
+				data.add(encoder.encode(shows.get(shows.size() - 1)));
+			}
+
+			assertSameAsJackson(encoder.response(200, message, data), shows);
+		}
+	}
+
+	@Test
+	void encodesRequestedFieldsLikeFullEncoding() throws IOException {
+		NetflixShowsDTO show = show(1L);
+
+		// Fields are written in declaration order, whatever the order they were requested in
+		ObjectNode expected = (ObjectNode) objectMapper.readTree(encoder.encode(show));
+		expected.retain("id", "title", "dateAdded", "updatedAt");
+		byte[] encoded = encoder.encode(show, ENetflixShowsField.parse("updatedAt, title,id,dateAdded"));
+		assertEquals(objectMapper.writeValueAsString(expected), new String(encoded, StandardCharsets.UTF_8));
+
+		assertNull(ENetflixShowsField.parse("id,cast"));
+		assertNull(ENetflixShowsField.parse(""));
+	}
+
+	@Test
+	void writesRequestedFieldsInCborLikeJson() throws IOException {
+		ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+		NetflixShowsDTO show = show(1L);
+		EnumSet<ENetflixShowsField> fields = ENetflixShowsField.parse("title,id");
+
+		// fields= with Accept: application/cbor carries the same properties as the JSON projection
+		CustomHttpResponse response = new CustomHttpResponse(200, "NetflixShows retrieved successfully",
+			List.of(NetflixShowsJsonEncoder.properties(show, fields)));
+		JsonNode data = cborMapper.readTree(cborMapper.writeValueAsBytes(response)).get("data").get(0);
+		assertEquals(objectMapper.readTree(encoder.encode(show, fields)), data);
+		assertEquals(List.of("id", "title"), data.properties().stream().map(Map.Entry::getKey).toList());
+	}
+
+	private void assertSameAsJackson(PreEncodedHttpResponse response, Object data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.writeTo(out);
+		assertEquals(response.getContentLength(), out.size());
+
+		// The property order must match too, so compare the text with the timestamp of the pre-encoded response
+		JsonNode encoded = objectMapper.readTree(out.toByteArray());
+		CustomHttpResponse expected = new CustomHttpResponse(200, "NetflixShows \"retrieved\" successfully", data);
+		expected.setTimestamp(objectMapper.treeToValue(encoded.get("timestamp"), LocalDateTime.class));
+		assertEquals(objectMapper.writeValueAsString(expected), out.toString());
+	}
+
+	private static NetflixShowsDTO show(Long id) {
+		return new NetflixShowsDTO(id, "MOVIE", "Blood & Water", "Oliver Parker", "Ama Qamata, Khosi Ngema", "South Africa",
+			Date.valueOf("2021-09-24"), 2024, 7, 90, "Comedies", "A woman adjusting to life after a loss.", 3L, Instant.EPOCH);
+	}
+}
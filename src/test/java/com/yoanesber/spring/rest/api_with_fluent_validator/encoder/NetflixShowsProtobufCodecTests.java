@@ -0,0 +1,123 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.encoder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Date;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.CustomHttpResponse;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.ENetflixShowsField;
+
+class NetflixShowsProtobufCodecTests {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final NetflixShowsProtobufCodec codec = new NetflixShowsProtobufCodec(objectMapper);
+
+	@Test
+	void readsShowsAsWritten() throws IOException {
+		NetflixShowsDTO sparse = new NetflixShowsDTO();
+		sparse.setTitle("");
+		sparse.setRating(0);
+		List<NetflixShowsDTO> shows = List.of(show(1L), sparse, show(Long.MAX_VALUE));
+
+		assertEquals(shows, codec.readShows(new ByteArrayInputStream(codec.encodeShows(shows))));
+		assertEquals(List.of(), codec.readShows(new ByteArrayInputStream(codec.encodeShows(List.of()))));
+	}
+
+	@Test
+	void leavesUnsetFieldsNull() throws IOException {
+		NetflixShowsDTO show = new NetflixShowsDTO();
+		show.setId(150L);
+
+		// Field 1, varint 150: the example of the protobuf encoding guide
+		byte[] encoded = codec.encodeShow(show);
+		assertArrayEquals(new byte[] {0x08, (byte) 0x96, 0x01}, encoded);
+
+		NetflixShowsDTO decoded = codec.readShow(new ByteArrayInputStream(encoded));
+		assertEquals(150L, decoded.getId());
+		assertNull(decoded.getTitle());
+		assertNull(decoded.getRating());
+		assertNull(decoded.getDateAdded());
+		assertNull(decoded.getUpdatedAt());
+	}
+
+	@Test
+	void writesShowListResponse() throws IOException {
+		List<NetflixShowsDTO> shows = List.of(show(1L), show(2L));
+		CustomHttpResponse response = new CustomHttpResponse(200, "NetflixShows retrieved successfully", shows);
+
+		Map<Integer, Object> fields = readResponse(response);
+		assertEquals(200, fields.get(1));
+		assertEquals(response.getTimestamp().toString(), fields.get(2));
+		assertEquals("NetflixShows retrieved successfully", fields.get(3));
+		assertEquals(shows, codec.readShows(new ByteArrayInputStream((byte[]) fields.get(5))));
+	}
+
+	@Test
+	void writesOnlyRequestedFieldsOfProjection() throws IOException {
+		// fields= with Accept: application/x-protobuf, e.g. of a cached NetflixShows that has every field
+		NetflixShowsDTO projected = NetflixShowsProtobufCodec.project(show(1L), ENetflixShowsField.parse("title,rating"));
+		CustomHttpResponse response = new CustomHttpResponse(200, "NetflixShows retrieved successfully", List.of(projected));
+
+		NetflixShowsDTO expected = new NetflixShowsDTO();
+		expected.setTitle("Blood & Water");
+		expected.setRating(7);
+		assertEquals(List.of(expected), codec.readShows(new ByteArrayInputStream((byte[]) readResponse(response).get(5))));
+	}
+
+	@Test
+	void writesOtherDataAsJson() throws IOException {
+		NetflixShowsStatsDTO stats = new NetflixShowsStatsDTO(null, 2L, 5.0, 90.0);
+
+		Map<Integer, Object> fields = readResponse(new CustomHttpResponse(200, "NetflixShows statistics retrieved successfully", stats));
+		assertArrayEquals(objectMapper.writeValueAsBytes(stats), (byte[]) fields.get(9));
+
+		// No data at all
+		assertEquals(List.of(1, 2, 3), List.copyOf(readResponse(new CustomHttpResponse(404, "NetflixShows not found", null)).keySet()));
+	}
+
+	// Response fields by number: varints as Integer, strings as String, messages and bytes as byte[]
+	private Map<Integer, Object> readResponse(CustomHttpResponse response) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.writeResponse(response, out);
+
+		Map<Integer, Object> fields = new HashMap<>();
+		CodedInputStream input = CodedInputStream.newInstance(out.toByteArray());
+		for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+			int field = WireFormat.getTagFieldNumber(tag);
+			if (field == 1) {
+				fields.put(field, input.readInt32());
+			} else if (field == 2 || field == 3) {
+				fields.put(field, input.readString());
+			} else {
+				fields.put(field, input.readByteArray());
+			}
+		}
+
+		return fields;
+	}
+
+	private static NetflixShowsDTO show(Long id) {
+		return new NetflixShowsDTO(id, "MOVIE", "Blood & Water", "Oliver Parker", "Ama Qamata, Khosi Ngema", "South Africa",
+			Date.valueOf("2021-09-24"), 2024, 7, 90, "Comedies", "A woman adjusting to life after a loss.", 3L,
+			Instant.parse("2025-02-27T21:20:05.124513Z"));
+	}
+}
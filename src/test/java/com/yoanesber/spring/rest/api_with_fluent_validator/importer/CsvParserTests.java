@@ -0,0 +1,64 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+class CsvParserTests {
+
+	@Test
+	void parsesQuotedFields() throws IOException {
+		CsvParser parser = new CsvParser(new StringReader(
+			"\uFEFFtype,title,cast\r\nMovie,\"Dick Johnson, Is Dead\",\"Line\nbreak \"\"quoted\"\"\"\n\nTV Show,,\n"));
+
+		assertEquals(List.of("type", "title", "cast"), parser.next());
+		assertEquals(List.of("Movie", "Dick Johnson, Is Dead", "Line\nbreak \"quoted\""), parser.next());
+		assertEquals(List.of(""), parser.next());
+		assertEquals(List.of("TV Show", "", ""), parser.next());
+		assertNull(parser.next());
+	}
+
+	@Test
+	void rejectsUnterminatedQuote() {
+		CsvParser parser = new CsvParser(new StringReader("title\n\"Sankofa"));
+
+		assertThrows(IOException.class, () -> {
+			parser.next();
+			parser.next();
+		});
+	}
+
+	@Test
+	void mapsNetflixDatasetColumns() {
+		NetflixShowsRecordMapper mapper = new NetflixShowsRecordMapper(
+			List.of("show_id", "type", "title", "director", "cast", "country", "date_added", "release_year", "rating",
+				"duration", "listed_in", "description"));
+		Map<String, List<String>> errors = new TreeMap<>();
+
+		NetflixShowsDTO netflixShowsDTO = mapper.map(List.of("s1", "TV Show", "Blood & Water", "", "Ama Qamata",
+			"South Africa", "September 24, 2021", "2021", "TV-MA", "2 Seasons", "International TV Shows", "A story."), errors);
+
+		assertEquals(Map.of(), errors);
+		assertNull(netflixShowsDTO.getId());
+		assertEquals("TV_SHOW", netflixShowsDTO.getShowType());
+		assertNull(netflixShowsDTO.getDirector());
+		assertEquals(Date.valueOf("2021-09-24"), netflixShowsDTO.getDateAdded());
+		assertEquals(2021, netflixShowsDTO.getReleaseYear());
+		assertNull(netflixShowsDTO.getRating());
+		assertNull(netflixShowsDTO.getDurationInMinute());
+
+		mapper.map(List.of("s2", "Movie", "Sankofa", "", "", "", "yesterday", "2021", "7", "125 min", "", ""), errors);
+		assertEquals(List.of("DateAdded"), List.copyOf(errors.keySet()));
+	}
+}
@@ -0,0 +1,210 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.ImportJobDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EImportStatus;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsImportCheckpointRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsDuplicateService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.ValidatorService;
+
+// Records are NDJSON lines {"title":"Show <n>"}; a line that is not JSON is a reject. The validator accepts everything,
+// the transaction manager only calls back, and the created titles and saved checkpoints are recorded in commit order.
+class NetflixShowsImportPipelineTests {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final ValidatorService validatorService = mock(ValidatorService.class);
+
+	private final NetflixShowsService netflixShowsService = mock(NetflixShowsService.class);
+
+	private final NetflixShowsImportCheckpointRepository checkpointRepository = mock(NetflixShowsImportCheckpointRepository.class);
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final List<String> created = Collections.synchronizedList(new ArrayList<>());
+
+	private final List<Long> checkpoints = Collections.synchronizedList(new ArrayList<>());
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void commitsChunksInFileOrder() throws IOException {
+		stubCreate();
+		stubCheckpoint();
+
+		// Validation takes a random time, so the workers finish the chunks out of order
+		when(validatorService.validateNetflixShows(any())).thenAnswer(invocation -> {
+			Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+			return null;
+		});
+
+		NetflixShowsImportJob job = job(write(40, 7, 22));
+		pipeline(2, 4, 4).run(job, j -> {});
+
+		ImportJobDTO status = job.toDTO();
+		assertEquals(EImportStatus.COMPLETED.name(), status.getStatus());
+		assertEquals(38L, status.getRecordsImported());
+		assertEquals(2L, status.getRecordsRejected());
+		assertEquals(titles(1, 40, 7, 22), created);
+		assertEquals(LongStream.rangeClosed(1, 20).map(chunk -> chunk * 2).boxed().toList(), checkpoints);
+
+		// Rejects are appended in file order with their record number
+		List<String> rejects = Files.readAllLines(job.getRejectFile());
+		assertEquals(2, rejects.size());
+		assertEquals(7, objectMapper.readTree(rejects.get(0)).get("record").asInt());
+		assertEquals(22, objectMapper.readTree(rejects.get(1)).get("record").asInt());
+	}
+
+	@Test
+	void boundsChunksInFlightWhileWriterIsBlocked() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenAnswer(invocation -> {
+			writing.countDown();
+			release.await();
+			return invocation.getArgument(0);
+		});
+
+		NetflixShowsImportJob job = job(write(100));
+		Future<?> run = executor.submit(() -> pipeline(2, 1, 2).run(job, j -> {}));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+		Thread.sleep(200);
+
+		// Two chunks hold the permits and the reader waits with a third one filled: 3 chunks of 2 records
+		assertEquals(6L, job.toDTO().getRecordsRead());
+
+		release.countDown();
+		run.get(10, TimeUnit.SECONDS);
+		assertEquals(EImportStatus.COMPLETED.name(), job.toDTO().getStatus());
+		assertEquals(100L, job.toDTO().getRecordsImported());
+	}
+
+	@Test
+	void resumesAfterLastCommittedChunk() throws IOException {
+		stubCreate();
+		stubCheckpoint();
+
+		// The transaction of the third chunk fails after its rows were sent
+		doThrow(new IllegalStateException("Connection reset")).when(checkpointRepository)
+			.save(anyString(), eq(6L), anyLong(), anyLong());
+
+		NetflixShowsImportJob job = job(write(10, 3));
+		pipeline(2, 2, 2).run(job, j -> {});
+
+		ImportJobDTO failed = job.toDTO();
+		assertEquals(EImportStatus.FAILED.name(), failed.getStatus());
+		assertEquals("Failed to import record 5 onwards: Connection reset", failed.getMessage());
+		assertEquals(4L, failed.getCommittedRecords());
+		assertEquals(3L, failed.getRecordsImported());
+		assertEquals(1L, failed.getRecordsRejected());
+		assertEquals(List.of(2L, 4L), checkpoints);
+
+		// The second run starts with the first record after the checkpoint
+		reset(checkpointRepository);
+		stubCheckpoint();
+		created.clear();
+		job.restart();
+		pipeline(2, 2, 2).run(job, j -> {});
+
+		ImportJobDTO completed = job.toDTO();
+		assertEquals(EImportStatus.COMPLETED.name(), completed.getStatus());
+		assertEquals(titles(5, 10), created);
+		assertEquals(List.of(2L, 4L, 6L, 8L, 10L), checkpoints);
+		assertEquals(9L, completed.getRecordsImported());
+		assertEquals(1L, completed.getRecordsRejected());
+		assertEquals(10L, completed.getCommittedRecords());
+	}
+
+	private NetflixShowsImportPipeline pipeline(int chunkSize, int workers, int maxChunksInFlight) {
+		return new NetflixShowsImportPipeline(validatorService, netflixShowsService, mock(NetflixShowsDuplicateService.class),
+			checkpointRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)), objectMapper, executor,
+			chunkSize, workers, maxChunksInFlight);
+	}
+
+	private NetflixShowsImportJob job(Path source) {
+		return new NetflixShowsImportJob("import-1", "ndjson", source, dir.resolve("import-1.rejects.ndjson"));
+	}
+
+	private void stubCreate() {
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenAnswer(invocation -> {
+			List<NetflixShowsDTO> netflixShowsDTOs = invocation.getArgument(0);
+			netflixShowsDTOs.forEach(netflixShowsDTO -> created.add(netflixShowsDTO.getTitle()));
+			return netflixShowsDTOs;
+		});
+	}
+
+	private void stubCheckpoint() {
+		doAnswer(invocation -> checkpoints.add(invocation.getArgument(1))).when(checkpointRepository)
+			.save(anyString(), anyLong(), anyLong(), anyLong());
+	}
+
+	// Write records 1 to count, the given ones as rejects
+	private Path write(int count, int... rejects) throws IOException {
+		List<String> lines = new ArrayList<>(count);
+		for (int record = 1; record <= count; record++) {
+			int current = record;
+			lines.add(Arrays.stream(rejects).anyMatch(r -> r == current) ? "not json" : "{\"title\":\"Show " + record + "\"}");
+		}
+
+		Path source = dir.resolve("shows.ndjson");
+		Files.write(source, lines, StandardCharsets.UTF_8);
+		return source;
+	}
+
+	private static List<String> titles(int from, int to, int... except) {
+		List<String> titles = new ArrayList<>();
+		for (int record = from; record <= to; record++) {
+			int current = record;
+			if (Arrays.stream(except).noneMatch(r -> r == current)) {
+				titles.add("Show " + record);
+			}
+		}
+
+		return titles;
+	}
+}
@@ -0,0 +1,97 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+
+class QueryCountFilterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final QueryCountFilter filter = new QueryCountFilter(meterRegistry);
+
+	@Test
+	void recordsStatementsPerEndpoint() throws Exception {
+		for (int queries = 1; queries <= 2; queries++) {
+			int count = queries;
+			filter.doFilter(request("/api/v1/netflix-shows/{id}"), new MockHttpServletResponse(), (req, res) -> {
+				for (int i = 0; i < count; i++) {
+					QueryCounter.increment();
+				}
+			});
+		}
+
+		DistributionSummary summary = summary();
+		assertEquals(2L, summary.count());
+		assertEquals(3.0, summary.totalAmount());
+		assertEquals(1, meterRegistry.find("netflix_shows.db.queries").summaries().size());
+
+		// Nothing is counted outside a request
+		QueryCounter.increment();
+		assertEquals(3.0, summary.totalAmount());
+	}
+
+	@Test
+	void countsStatementsOfStreamedBody() throws Exception {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+		executor.setTaskDecorator(QueryCounter::decorate);
+
+		MockHttpServletRequest request = request("/api/v1/netflix-shows/export");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+
+		// The handler runs one statement, then the body is written on the executor with two more
+		filter.doFilter(request, response, (req, res) -> {
+			QueryCounter.increment();
+			asyncManager.setTaskExecutor(executor);
+			asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+			try {
+				asyncManager.startCallableProcessing(() -> {
+					QueryCounter.increment();
+					QueryCounter.increment();
+					return null;
+				});
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		assertNull(meterRegistry.find("netflix_shows.db.queries").summary());
+
+		for (int attempt = 0; !asyncManager.hasConcurrentResult(); attempt++) {
+			assertTrue(attempt < 100, "Body not written within 5 seconds");
+			Thread.sleep(50);
+		}
+
+		// The container dispatches again once the body is written
+		request.setAsyncStarted(false);
+		request.setDispatcherType(DispatcherType.ASYNC);
+		filter.doFilter(request, response, (req, res) -> {});
+
+		assertEquals(1L, summary().count());
+		assertEquals(3.0, summary().totalAmount());
+	}
+
+	private DistributionSummary summary() {
+		return meterRegistry.get("netflix_shows.db.queries").summary();
+	}
+
+	private static MockHttpServletRequest request(String pattern) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+		request.setAsyncSupported(true);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+		return request;
+	}
+}
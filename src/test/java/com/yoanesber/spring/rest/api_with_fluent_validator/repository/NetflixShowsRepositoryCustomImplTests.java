@@ -0,0 +1,30 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class NetflixShowsRepositoryCustomImplTests {
+
+	@Test
+	void leavesNullFacetValuesOut() {
+		// GROUPING(type), GROUPING(country), type, country, rating, count; one grouping set per facet
+		List<Object[]> rows = List.of(
+			new Object[] {0, 1, "MOVIE", null, null, 5L},
+			new Object[] {0, 1, "TV_SHOW", null, null, 2L},
+			new Object[] {1, 0, null, "India", null, 4L},
+			new Object[] {1, 0, null, null, null, 3L},
+			new Object[] {1, 1, null, null, null, 6L},
+			new Object[] {1, 1, null, null, 5, 1L});
+
+		Map<String, Map<String, Long>> facets = NetflixShowsRepositoryCustomImpl.toFacets(rows);
+
+		assertEquals(Map.of("MOVIE", 5L, "TV_SHOW", 2L), facets.get("showType"));
+		assertEquals(Map.of("India", 4L), facets.get("country"));
+		assertEquals(Map.of("5", 1L), facets.get("rating"));
+		assertEquals(List.of("showType", "country", "rating"), List.copyOf(facets.keySet()));
+	}
+}
@@ -0,0 +1,270 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+
+// The database is stood in by a connection factory that records each statement with its bind values (by $n marker
+// index, NULL as null) and answers with queued rows or update counts
+class ReactiveNetflixShowsRepositoryTests {
+
+	private final StubDatabase database = new StubDatabase();
+
+	private final ReactiveNetflixShowsRepository repository = new ReactiveNetflixShowsRepository(DatabaseClient.create(database));
+
+	@Test
+	void insertsAndReturnsStoredRow() {
+		database.willReturn(row(7L, 0L));
+
+		// The generated id, version and timestamp come from the database, not from the input
+		assertEquals(stored(7L, 0L), repository.insert(show(null)).block());
+		assertTrue(database.statements.get(0).startsWith("INSERT INTO netflix_shows"));
+		assertTrue(database.statements.get(0).contains("RETURNING id,"));
+		assertTrue(database.binds.get(0).containsValue("Blood & Water"));
+	}
+
+	@Test
+	void findsByIdOrNothing() {
+		database.willReturn(row(1L, 3L));
+		database.willReturn();
+
+		assertEquals(stored(1L, 3L), repository.findById(1L).block());
+		assertNull(repository.findById(2L).block());
+	}
+
+	@Test
+	void updatesAndReturnsStoredRowOrNothing() {
+		database.willReturn(row(1L, 4L));
+		database.willReturn();
+
+		assertEquals(stored(1L, 4L), repository.update(1L, show(null), null).block());
+		assertNull(repository.update(2L, show(null), null).block());
+		assertFalse(database.statements.get(0).contains("version = $"));
+	}
+
+	@Test
+	void updatesOnlyAtExpectedVersion() {
+		database.willReturn();
+		database.willReturn(Map.of("id", 1L));
+
+		assertNull(repository.update(1L, show(null), 3L).block());
+		assertTrue(database.statements.get(0).contains("WHERE id = $12 AND version = $13 RETURNING"));
+		assertEquals(3L, database.binds.get(0).get(12));
+
+		// Tells a stale version apart from a missing row
+		assertTrue(repository.existsById(1L).block());
+	}
+
+	@Test
+	void deletesByRowCount() {
+		database.willUpdate(1);
+		database.willUpdate(0);
+
+		assertEquals(1L, repository.deleteById(1L).block());
+		assertEquals(0L, repository.deleteById(2L).block());
+		assertTrue(database.statements.get(0).startsWith("DELETE FROM netflix_shows"));
+	}
+
+	@Test
+	void patchesPresentFieldsInOneStatement() {
+		database.willReturn(row(1L, 4L));
+
+		NetflixShowsDTO patch = new NetflixShowsDTO();
+		patch.setTitle("New title");
+		assertEquals(stored(1L, 4L), repository.patch(1L, patch, null).block());
+
+		// No read before the write: the stored columns are kept by the statement itself
+		assertEquals(1, database.statements.size());
+		String sql = database.statements.get(0);
+		assertTrue(sql.startsWith("UPDATE netflix_shows SET type = COALESCE($1, type), title = COALESCE($2, title)"));
+		assertTrue(sql.contains("version = version + 1"));
+		assertTrue(sql.contains("RETURNING id,"));
+
+		// Absent fields are bound as NULL so COALESCE keeps the stored value
+		Map<Integer, Object> binds = database.binds.get(0);
+		assertEquals("New title", binds.get(1));
+		assertTrue(binds.containsKey(0));
+		assertNull(binds.get(0));
+		assertEquals(1L, binds.get(11));
+	}
+
+	@Test
+	void patchOfMissingRowIsEmpty() {
+		database.willReturn();
+
+		NetflixShowsDTO patch = new NetflixShowsDTO();
+		patch.setRating(8);
+		assertNull(repository.patch(9L, patch, null).block());
+		assertFalse(database.statements.isEmpty());
+	}
+
+	@Test
+	void patchesOnlyAtExpectedVersion() {
+		database.willReturn(row(1L, 4L));
+
+		NetflixShowsDTO patch = new NetflixShowsDTO();
+		patch.setRating(8);
+		assertEquals(stored(1L, 4L), repository.patch(1L, patch, 3L).block());
+		assertTrue(database.statements.get(0).contains("AND version = $13"));
+		assertEquals(3L, database.binds.get(0).get(12));
+	}
+
+	private static NetflixShowsDTO show(Long id) {
+		return new NetflixShowsDTO(id, "MOVIE", "Blood & Water", "Oliver Parker", "Ama Qamata, Khosi Ngema", "South Africa",
+			Date.valueOf("2021-09-24"), 2024, 7, 90, "Comedies", "A woman adjusting to life after a loss.", null, null);
+	}
+
+	private static NetflixShowsDTO stored(Long id, Long version) {
+		NetflixShowsDTO show = show(id);
+		show.setVersion(version);
+		show.setUpdatedAt(Instant.parse("2025-02-27T21:20:05.124513Z"));
+		return show;
+	}
+
+	private static Map<String, Object> row(Long id, Long version) {
+		Map<String, Object> row = new HashMap<>();
+		row.put("id", id);
+		row.put("type", "MOVIE");
+		row.put("title", "Blood & Water");
+		row.put("director", "Oliver Parker");
+		row.put("cast_members", "Ama Qamata, Khosi Ngema");
+		row.put("country", "South Africa");
+		row.put("date_added", LocalDate.parse("2021-09-24"));
+		row.put("release_year", 2024);
+		row.put("rating", 7);
+		row.put("duration_in_minute", 90);
+		row.put("listed_in", "Comedies");
+		row.put("description", "A woman adjusting to life after a loss.");
+		row.put("version", version);
+		row.put("updated_at", Instant.parse("2025-02-27T21:20:05.124513Z"));
+		return row;
+	}
+
+	static class StubDatabase implements ConnectionFactory {
+
+		final List<String> statements = new ArrayList<>();
+
+		final List<Map<Integer, Object>> binds = new ArrayList<>();
+
+		private final Deque<Result> results = new ArrayDeque<>();
+
+		@SafeVarargs
+		final void willReturn(Map<String, Object>... rows) {
+			results.add(new StubResult(List.of(rows), 0));
+		}
+
+		void willUpdate(long rowsUpdated) {
+			results.add(new StubResult(List.of(), rowsUpdated));
+		}
+
+		@Override
+		public Publisher<? extends Connection> create() {
+			Connection connection = mock(Connection.class);
+			when(connection.createStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+			when(connection.close()).thenAnswer(invocation -> Mono.empty());
+			return Mono.just(connection);
+		}
+
+		@Override
+		public ConnectionFactoryMetadata getMetadata() {
+			return () -> "PostgreSQL";
+		}
+
+		private Statement statement(String sql) {
+			Map<Integer, Object> values = new HashMap<>();
+			statements.add(sql);
+			binds.add(values);
+
+			Statement statement = mock(Statement.class, RETURNS_SELF);
+			when(statement.bind(anyInt(), any())).thenAnswer(invocation -> {
+				Object value = invocation.getArgument(1);
+				values.put(invocation.getArgument(0), value instanceof Parameter parameter ? parameter.getValue() : value);
+				return statement;
+			});
+			when(statement.bindNull(anyInt(), any())).thenAnswer(invocation -> {
+				values.put(invocation.getArgument(0), null);
+				return statement;
+			});
+			when(statement.execute()).thenAnswer(invocation -> Mono.just(results.remove()));
+			return statement;
+		}
+	}
+
+	record StubResult(List<Map<String, Object>> rows, long rowsUpdated) implements Result {
+
+		@Override
+		public Publisher<Long> getRowsUpdated() {
+			return Mono.just(rowsUpdated);
+		}
+
+		@Override
+		public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+			return Flux.fromIterable(rows).map(row -> mappingFunction.apply(new StubRow(row), null));
+		}
+
+		@Override
+		public Result filter(Predicate<Segment> filter) {
+			return this;
+		}
+
+		@Override
+		public <T> Publisher<T> flatMap(Function<Segment, ? extends Publisher<? extends T>> mappingFunction) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	record StubRow(Map<String, Object> values) implements Row {
+
+		@Override
+		public <T> T get(int index, Class<T> type) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public <T> T get(String name, Class<T> type) {
+			return type.cast(values.get(name));
+		}
+
+		@Override
+		public RowMetadata getMetadata() {
+			return null;
+		}
+	}
+}
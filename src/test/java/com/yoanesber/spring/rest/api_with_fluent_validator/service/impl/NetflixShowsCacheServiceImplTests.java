@@ -0,0 +1,52 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.sql.Date;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+
+class NetflixShowsCacheServiceImplTests {
+
+	private final NetflixShowsCacheServiceImpl cache = new NetflixShowsCacheServiceImpl(100, Duration.ofMinutes(10),
+		Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+	@Test
+	void callersCannotChangeCachedShow() {
+		NetflixShowsDTO loaded = cache.get(1L, id -> show(id, 1L));
+		loaded.setTitle("Changed by the loader's caller");
+
+		NetflixShowsDTO hit = cache.get(1L, id -> show(id, 2L));
+		assertEquals("Blood & Water", hit.getTitle());
+		hit.setTitle("Changed by a reader");
+		hit.getDateAdded().setTime(0L);
+
+		NetflixShowsDTO present = cache.getIfPresent(1L);
+		assertNotSame(hit, present);
+		assertEquals(show(1L, 1L), present);
+	}
+
+	@Test
+	void publisherCannotChangeCachedShow() {
+		cache.get(1L, id -> show(id, 1L));
+
+		NetflixShowsDTO changed = show(1L, 2L);
+		cache.onNetflixShowsChanged(new NetflixShowsChangedEvent(1L, EChangeType.UPDATED, changed));
+		changed.setTitle("Changed after the commit");
+
+		assertEquals(show(1L, 2L), cache.getIfPresent(1L));
+	}
+
+	private static NetflixShowsDTO show(Long id, Long version) {
+		return new NetflixShowsDTO(id, "MOVIE", "Blood & Water", "Oliver Parker", "Ama Qamata, Khosi Ngema", "South Africa",
+			Date.valueOf("2021-09-24"), 2024, 7, 90, "Comedies", "A woman adjusting to life after a loss.", version, null);
+	}
+}
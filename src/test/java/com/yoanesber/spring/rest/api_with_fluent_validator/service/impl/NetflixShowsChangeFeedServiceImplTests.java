@@ -0,0 +1,60 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EChangeType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.event.NetflixShowsChangedEvent;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsOutboxRepository;
+
+class NetflixShowsChangeFeedServiceImplTests {
+
+	private final NetflixShowsOutboxRepository outboxRepository = mock(NetflixShowsOutboxRepository.class);
+
+	private final EntityManager entityManager = mock(EntityManager.class);
+
+	private final NetflixShowsChangeFeedServiceImpl service = new NetflixShowsChangeFeedServiceImpl(outboxRepository,
+		entityManager, Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(), 100, 1, 10,
+		Duration.ofSeconds(1), Duration.ofMinutes(30), Duration.ofDays(7));
+
+	@AfterEach
+	void clearTransaction() throws InterruptedException {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		service.shutdown();
+	}
+
+	@Test
+	void flushesBeforeTakingSequenceNumbers() {
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		service.onNetflixShowsChanged(new NetflixShowsChangedEvent(1L, EChangeType.UPDATED, new NetflixShowsDTO()));
+		service.onNetflixShowsChanged(new NetflixShowsChangedEvent(2L, EChangeType.DELETED, null));
+		verify(outboxRepository, never()).append(anyList());
+
+		// The pending writes reach the database before the global sequence row is locked
+		TransactionSynchronizationUtils.triggerBeforeCommit(false);
+		InOrder order = inOrder(entityManager, outboxRepository);
+		order.verify(entityManager).flush();
+		order.verify(outboxRepository).append(anyList());
+	}
+}
@@ -0,0 +1,44 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EDuplicatePolicy;
+
+class NetflixShowsDuplicateServiceImplTests {
+
+	private final NetflixShowsDuplicateServiceImpl service = new NetflixShowsDuplicateServiceImpl(null,
+		EDuplicatePolicy.REJECT, 1000, 0.01, new SimpleMeterRegistry());
+
+	@Test
+	void detectsViolationOfTheDuplicateKeyIndex() {
+		// As rethrown by a service after a failed commit
+		assertTrue(service.isDuplicateKeyViolation(new RuntimeException("Failed to create NetflixShows",
+			new DataIntegrityViolationException("could not execute statement",
+				violation("23505", "netflix_shows_duplicate_key_idx")))));
+	}
+
+	@Test
+	void ignoresOtherViolations() {
+		assertFalse(service.isDuplicateKeyViolation(violation("23505", "netflix_shows_pkey")));
+		assertFalse(service.isDuplicateKeyViolation(violation("23514", "netflix_shows_duplicate_key_idx")));
+
+		// The index name in a message is not enough
+		assertFalse(service.isDuplicateKeyViolation(new RuntimeException(
+			"duplicate key value violates unique constraint \"netflix_shows_duplicate_key_idx\"")));
+		assertFalse(service.isDuplicateKeyViolation(null));
+	}
+
+	private static ConstraintViolationException violation(String sqlState, String constraintName) {
+		return new ConstraintViolationException("could not execute statement", new SQLException("violation", sqlState),
+			constraintName);
+	}
+}
@@ -0,0 +1,154 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.ImportJobDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EImportStatus;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.NetflixShowsImportCheckpointRepository;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsDuplicateService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.ValidatorService;
+
+// Records are NDJSON lines {"title":"Show <n>"}; record 5 is not JSON and so a reject
+class NetflixShowsImportServiceImplTests {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final NetflixShowsService netflixShowsService = mock(NetflixShowsService.class);
+
+	private final NetflixShowsImportCheckpointRepository checkpointRepository = mock(NetflixShowsImportCheckpointRepository.class);
+
+	private NetflixShowsImportServiceImpl service;
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void shutdown() throws InterruptedException {
+		if (service != null) {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void dropsRejectsOfFailedChunkAndWritesThemOnceOnResume() throws Exception {
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		// The chunk of records 5 and 6 writes its reject, then fails to commit
+		doThrow(new IllegalStateException("Connection reset")).when(checkpointRepository)
+			.save(anyString(), eq(6L), anyLong(), anyLong());
+
+		service = service();
+		String id = service.importFile(source(), "ndjson").getId();
+		await(() -> EImportStatus.FAILED.name().equals(service.getImport(id).getStatus()));
+		assertEquals(4L, service.getImport(id).getCommittedRecords());
+
+		// The reject of record 5 was not committed, so it is dropped
+		Path rejectFile = service.getRejectFile(id);
+		await(() -> rejectedRecords(rejectFile).isEmpty());
+
+		// Resumed from record 5, which is rejected again, once
+		doNothing().when(checkpointRepository).save(anyString(), eq(6L), anyLong(), anyLong());
+		resume(id);
+		await(() -> EImportStatus.COMPLETED.name().equals(service.getImport(id).getStatus()));
+		assertEquals(List.of(5L), rejectedRecords(rejectFile));
+		assertEquals(9L, service.getImport(id).getRecordsImported());
+		assertEquals(1L, service.getImport(id).getRecordsRejected());
+	}
+
+	@Test
+	void dropsRejectsPastDatabaseCheckpointOnRestart() throws IOException, InterruptedException {
+		// The application stopped while the import was running; its status file lags the committed chunk by one,
+		// and the reject file already has a record of the chunk that did not commit
+		Files.writeString(dir.resolve("import-1.json"), objectMapper.writeValueAsString(new ImportJobDTO("import-1", "ndjson",
+			source().toString(), EImportStatus.RUNNING.name(), 4L, 2L, 0L, 2L, LocalDateTime.now(), null, null)));
+		Files.write(dir.resolve("import-1.rejects.ndjson"), List.of("{\"record\":3,\"errors\":{}}", "{\"record\":5,\"errors\":{}}"),
+			StandardCharsets.UTF_8);
+		when(checkpointRepository.findById("import-1")).thenReturn(new NetflixShowsImportCheckpointRepository.Checkpoint(4L, 3L, 1L));
+
+		service = service();
+
+		ImportJobDTO recovered = service.getImport("import-1");
+		assertEquals(EImportStatus.INTERRUPTED.name(), recovered.getStatus());
+		assertEquals(4L, recovered.getCommittedRecords());
+		assertEquals(3L, recovered.getRecordsImported());
+		assertEquals(List.of(3L), rejectedRecords(service.getRejectFile("import-1")));
+	}
+
+	private NetflixShowsImportServiceImpl service() {
+		return new NetflixShowsImportServiceImpl(mock(ValidatorService.class), netflixShowsService,
+			mock(NetflixShowsDuplicateService.class), checkpointRepository, mock(PlatformTransactionManager.class), objectMapper,
+			2, 2, 2, dir.toString(), "");
+	}
+
+	private Path source() throws IOException {
+		List<String> lines = new ArrayList<>();
+		for (int record = 1; record <= 10; record++) {
+			lines.add(record == 5 ? "not json" : "{\"title\":\"Show " + record + "\"}");
+		}
+
+		Path source = dir.resolve("shows.ndjson");
+		Files.write(source, lines, StandardCharsets.UTF_8);
+		return source;
+	}
+
+	// The run of a failed import finishes dropping its rejects just after its status changes
+	private void resume(String id) throws InterruptedException {
+		for (int attempt = 0; ; attempt++) {
+			try {
+				service.resumeImport(id);
+				return;
+			} catch (IllegalStateException e) {
+				if (attempt == 100) {
+					throw e;
+				}
+				Thread.sleep(50);
+			}
+		}
+	}
+
+	private List<Long> rejectedRecords(Path rejectFile) {
+		try {
+			List<Long> records = new ArrayList<>();
+			for (String line : Files.readAllLines(rejectFile)) {
+				records.add(objectMapper.readTree(line).get("record").asLong());
+			}
+			return records;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		for (int attempt = 0; !condition.getAsBoolean(); attempt++) {
+			assertTrue(attempt < 100, "Condition not met within 5 seconds");
+			Thread.sleep(50);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.NetflixShowsService;
+
+class NetflixShowsWriteBehindServiceImplTests {
+
+	private final NetflixShowsService netflixShowsService = mock(NetflixShowsService.class);
+
+	// Sizes of the groups passed to createNetflixShowsBatch, in commit order
+	private final List<Integer> groups = Collections.synchronizedList(new ArrayList<>());
+
+	private final AtomicLong ids = new AtomicLong();
+
+	private NetflixShowsWriteBehindServiceImpl service;
+
+	@AfterEach
+	void shutdown() throws InterruptedException {
+		if (service != null) {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void groupsUpToMaxBatchSize() throws Exception {
+		stubBatch();
+		service = service(3, Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+		// A full group is committed without waiting for the rest of the time window
+		List<CompletableFuture<NetflixShowsDTO>> full = List.of(service.submit(show("1")), service.submit(show("2")),
+			service.submit(show("3")));
+		for (CompletableFuture<NetflixShowsDTO> future : full) {
+			assertTrue(future.get(5, TimeUnit.SECONDS).getId() > 0);
+		}
+		assertEquals(List.of(3), groups);
+
+		// What is left is committed on shutdown
+		CompletableFuture<NetflixShowsDTO> partial = service.submit(show("4"));
+		service.shutdown();
+		assertTrue(partial.get(5, TimeUnit.SECONDS).getId() > 0);
+		assertEquals(List.of(3, 1), groups);
+	}
+
+	@Test
+	void commitsPartialGroupAfterMaxDelay() throws Exception {
+		stubBatch();
+		service = service(100, Duration.ofMillis(200), Duration.ofSeconds(30));
+
+		CompletableFuture<NetflixShowsDTO> first = service.submit(show("1"));
+		CompletableFuture<NetflixShowsDTO> second = service.submit(show("2"));
+
+		assertTrue(first.get(5, TimeUnit.SECONDS).getId() > 0);
+		assertTrue(second.get(5, TimeUnit.SECONDS).getId() > 0);
+		assertEquals(List.of(2), groups);
+	}
+
+	@Test
+	void failsOnlyTheFailingRow() throws Exception {
+		RuntimeException failure = new RuntimeException("Failed to create NetflixShows: value too long");
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenThrow(failure);
+		when(netflixShowsService.createNetflixShows(any())).thenAnswer(invocation -> {
+			NetflixShowsDTO netflixShowsDTO = invocation.getArgument(0);
+			if ("bad".equals(netflixShowsDTO.getTitle())) {
+				throw failure;
+			}
+			return created(netflixShowsDTO);
+		});
+		service = service(2, Duration.ofMinutes(1), Duration.ofSeconds(30));
+
+		CompletableFuture<NetflixShowsDTO> good = service.submit(show("good"));
+		CompletableFuture<NetflixShowsDTO> bad = service.submit(show("bad"));
+
+		assertEquals("good", good.get(5, TimeUnit.SECONDS).getTitle());
+		ExecutionException e = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+		assertSame(failure, e.getCause());
+	}
+
+	@Test
+	void failsQueuedCreatesWhenFlushOutlivesShutdown() throws Exception {
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenAnswer(invocation -> {
+			committing.countDown();
+			release.await();
+			List<NetflixShowsDTO> group = invocation.getArgument(0);
+			return group.stream().map(this::created).toList();
+		});
+		service = service(1, Duration.ofMillis(1), Duration.ofMillis(50));
+
+		// The flusher is stuck committing the first create while two more are queued
+		CompletableFuture<NetflixShowsDTO> committed = service.submit(show("1"));
+		assertTrue(committing.await(5, TimeUnit.SECONDS));
+		CompletableFuture<NetflixShowsDTO> queued1 = service.submit(show("2"));
+		CompletableFuture<NetflixShowsDTO> queued2 = service.submit(show("3"));
+
+		service.shutdown();
+		for (CompletableFuture<NetflixShowsDTO> queued : List.of(queued1, queued2)) {
+			ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(IllegalStateException.class, e.getCause());
+		}
+		assertThrows(IllegalStateException.class, () -> service.submit(show("4")));
+
+		// The create being committed still completes
+		release.countDown();
+		assertTrue(committed.get(5, TimeUnit.SECONDS).getId() > 0);
+	}
+
+	@Test
+	void failsQueuedCreatesWhenFlusherDies() throws Exception {
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Error failure = new OutOfMemoryError("Java heap space");
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenAnswer(invocation -> {
+			committing.countDown();
+			release.await();
+			throw failure;
+		});
+		service = service(1, Duration.ofMillis(1), Duration.ofSeconds(30));
+
+		CompletableFuture<NetflixShowsDTO> committing1 = service.submit(show("1"));
+		assertTrue(committing.await(5, TimeUnit.SECONDS));
+		CompletableFuture<NetflixShowsDTO> queued = service.submit(show("2"));
+		release.countDown();
+
+		// The group being committed fails with the error, the queued create with the stop of the flusher
+		ExecutionException e = assertThrows(ExecutionException.class, () -> committing1.get(5, TimeUnit.SECONDS));
+		assertSame(failure, e.getCause());
+		e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, e.getCause());
+	}
+
+	@Test
+	void timesOutAndSkipsCreatesNotYetTaken() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenAnswer(invocation -> {
+			release.await();
+			List<NetflixShowsDTO> group = invocation.getArgument(0);
+			groups.add(group.size());
+			return group.stream().map(this::created).toList();
+		});
+		service = new NetflixShowsWriteBehindServiceImpl(netflixShowsService, new SimpleMeterRegistry(), true, 10, 1,
+			Duration.ofMillis(1), Duration.ofMillis(100), Duration.ofSeconds(30));
+
+		// The flusher is stuck on the first create, so the second one times out in the queue
+		service.submit(show("1"));
+		CompletableFuture<NetflixShowsDTO> late = service.submit(show("2"));
+		ExecutionException e = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(TimeoutException.class, e.getCause());
+
+		release.countDown();
+		service.shutdown();
+		assertEquals(List.of(1), groups);
+	}
+
+	private NetflixShowsWriteBehindServiceImpl service(int maxBatchSize, Duration maxDelay, Duration shutdownTimeout) {
+		return new NetflixShowsWriteBehindServiceImpl(netflixShowsService, new SimpleMeterRegistry(), true, 100, maxBatchSize,
+			maxDelay, Duration.ofSeconds(10), shutdownTimeout);
+	}
+
+	private void stubBatch() {
+		when(netflixShowsService.createNetflixShowsBatch(anyList())).thenAnswer(invocation -> {
+			List<NetflixShowsDTO> group = invocation.getArgument(0);
+			groups.add(group.size());
+			return group.stream().map(this::created).toList();
+		});
+	}
+
+	private NetflixShowsDTO created(NetflixShowsDTO netflixShowsDTO) {
+		NetflixShowsDTO created = show(netflixShowsDTO.getTitle());
+		created.setId(ids.incrementAndGet());
+		return created;
+	}
+
+	private static NetflixShowsDTO show(String title) {
+		NetflixShowsDTO show = new NetflixShowsDTO();
+		show.setTitle(title);
+		return show;
+	}
+}
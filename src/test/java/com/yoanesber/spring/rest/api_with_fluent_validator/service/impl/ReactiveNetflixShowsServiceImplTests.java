@@ -0,0 +1,116 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import reactor.core.publisher.Mono;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.repository.ReactiveNetflixShowsRepository;
+
+class ReactiveNetflixShowsServiceImplTests {
+
+	private final ReactiveNetflixShowsRepository repository = mock(ReactiveNetflixShowsRepository.class);
+
+	private final ReactiveNetflixShowsServiceImpl service = new ReactiveNetflixShowsServiceImpl(repository);
+
+	@Test
+	void createsAndReturnsStoredRow() {
+		NetflixShowsDTO input = show(null);
+		input.setVersion(9L);
+		when(repository.insert(input)).thenReturn(Mono.just(show(7L)));
+
+		// Version and timestamp are the stored ones, not the client's
+		assertEquals(show(7L), service.createNetflixShows(input).block());
+	}
+
+	@Test
+	void getsByIdOrNothing() {
+		when(repository.findById(1L)).thenReturn(Mono.just(show(1L)));
+		when(repository.findById(2L)).thenReturn(Mono.empty());
+
+		assertEquals(show(1L), service.getNetflixShowsById(1L).block());
+		assertNull(service.getNetflixShowsById(2L).block());
+	}
+
+	@Test
+	void updatesOrNothingWhenNotFound() {
+		when(repository.update(1L, show(null), null)).thenReturn(Mono.just(show(1L)));
+		when(repository.update(2L, show(null), null)).thenReturn(Mono.empty());
+
+		assertEquals(show(1L), service.updateNetflixShows(1L, show(null), null).block());
+		assertNull(service.updateNetflixShows(2L, show(null), null).block());
+		verify(repository, never()).existsById(anyLong());
+	}
+
+	@Test
+	void rejectsWritesAtAnotherVersion() {
+		NetflixShowsDTO patch = new NetflixShowsDTO();
+		patch.setTitle("New title");
+		when(repository.update(1L, show(null), 2L)).thenReturn(Mono.empty());
+		when(repository.patch(1L, patch, 2L)).thenReturn(Mono.empty());
+		when(repository.existsById(1L)).thenReturn(Mono.just(true));
+		when(repository.update(9L, show(null), 2L)).thenReturn(Mono.empty());
+		when(repository.existsById(9L)).thenReturn(Mono.just(false));
+
+		// The row exists, so nothing was written because its version moved on
+		assertThrows(OptimisticLockingFailureException.class, () -> service.updateNetflixShows(1L, show(null), 2L).block());
+		assertThrows(OptimisticLockingFailureException.class, () -> service.patchNetflixShows(1L, patch, 2L).block());
+		assertNull(service.updateNetflixShows(9L, show(null), 2L).block());
+	}
+
+	@Test
+	void patchesWithoutReadingFirst() {
+		NetflixShowsDTO patch = new NetflixShowsDTO();
+		patch.setTitle("New title");
+		NetflixShowsDTO stored = show(1L);
+		stored.setTitle("New title");
+		stored.setVersion(4L);
+		when(repository.patch(1L, patch, null)).thenReturn(Mono.just(stored));
+		when(repository.patch(2L, patch, null)).thenReturn(Mono.empty());
+
+		// The stored row, with the version the statement wrote
+		assertEquals(stored, service.patchNetflixShows(1L, patch, null).block());
+		assertNull(service.patchNetflixShows(2L, patch, null).block());
+		verify(repository, never()).findById(anyLong());
+		verify(repository, never()).update(anyLong(), any(), any());
+	}
+
+	@Test
+	void deletesOrReportsNotFound() {
+		when(repository.deleteById(1L)).thenReturn(Mono.just(1L));
+		when(repository.deleteById(2L)).thenReturn(Mono.just(0L));
+
+		assertTrue(service.deleteNetflixShows(1L).block());
+		assertFalse(service.deleteNetflixShows(2L).block());
+	}
+
+	@Test
+	void wrapsDatabaseErrors() {
+		when(repository.deleteById(1L)).thenReturn(Mono.error(new IllegalStateException("Connection refused")));
+
+		RuntimeException e = assertThrows(RuntimeException.class, () -> service.deleteNetflixShows(1L).block());
+		assertEquals("Failed to delete NetflixShows: Connection refused", e.getMessage());
+	}
+
+	private static NetflixShowsDTO show(Long id) {
+		return new NetflixShowsDTO(id, "MOVIE", "Blood & Water", "Oliver Parker", "Ama Qamata, Khosi Ngema", "South Africa",
+			Date.valueOf("2021-09-24"), 2024, 7, 90, "Comedies", "A woman adjusting to life after a loss.", 3L,
+			Instant.parse("2025-02-27T21:20:05.124513Z"));
+	}
+}
@@ -0,0 +1,57 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsStatsResultDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EShowType;
+import com.yoanesber.spring.rest.api_with_fluent_validator.entity.EStatsGroupBy;
+
+class NetflixShowsColumnarSnapshotTests {
+
+	@Test
+	void aggregatesTotalAndGroups() {
+		NetflixShowsColumnarSnapshot snapshot = new NetflixShowsColumnarSnapshot();
+		snapshot.upsert(1L, EShowType.MOVIE, "India", 2020, 4, 90);
+		snapshot.upsert(2L, EShowType.MOVIE, "India", 2021, 5, null);
+		snapshot.upsert(3L, EShowType.TV_SHOW, "Nigeria", null, null, 30);
+
+		NetflixShowsStatsResultDTO total = snapshot.aggregate(null, null);
+		assertEquals(new NetflixShowsStatsDTO(null, 3L, 4.5, 60.0), total.getTotal());
+		assertNull(total.getGroups());
+
+		List<NetflixShowsStatsDTO> countries = snapshot.aggregate(EStatsGroupBy.COUNTRY, null).getGroups();
+		assertEquals(List.of(new NetflixShowsStatsDTO("India", 2L, 4.5, 90.0),
+			new NetflixShowsStatsDTO("Nigeria", 1L, null, 30.0)), countries);
+
+		List<NetflixShowsStatsDTO> years = snapshot.aggregate(EStatsGroupBy.RELEASE_YEAR, EShowType.MOVIE).getGroups();
+		assertEquals(List.of(new NetflixShowsStatsDTO("2020", 1L, 4.0, 90.0),
+			new NetflixShowsStatsDTO("2021", 1L, 5.0, null)), years);
+	}
+
+	@Test
+	void appliesUpdatesAndDeletes() {
+		NetflixShowsColumnarSnapshot snapshot = new NetflixShowsColumnarSnapshot();
+		for (long id = 1; id <= 5000; id++) {
+			snapshot.upsert(id, EShowType.MOVIE, "India", 2020, 1, 60);
+		}
+
+		// Deleting moves the last rows into the gaps; they must still be found by id afterwards
+		for (long id = 1; id <= 5000; id += 2) {
+			snapshot.delete(id);
+		}
+		snapshot.delete(1L);
+		for (long id = 2; id <= 5000; id += 2) {
+			snapshot.upsert(id, EShowType.TV_SHOW, "Nigeria", 2021, 3, 30);
+		}
+
+		assertEquals(2500, snapshot.size());
+		assertEquals(List.of(new NetflixShowsStatsDTO("TV_SHOW", 2500L, 3.0, 30.0)),
+			snapshot.aggregate(EStatsGroupBy.SHOW_TYPE, null).getGroups());
+	}
+}
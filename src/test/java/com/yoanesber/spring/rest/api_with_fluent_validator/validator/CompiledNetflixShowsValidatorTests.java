@@ -0,0 +1,125 @@
+package com.yoanesber.spring.rest.api_with_fluent_validator.validator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.yoanesber.spring.rest.api_with_fluent_validator.dto.NetflixShowsDTO;
+import com.yoanesber.spring.rest.api_with_fluent_validator.service.impl.ValidatorServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import br.com.fluentvalidator.context.ValidationResult;
+
+class CompiledNetflixShowsValidatorTests {
+
+	private final NetflixShowsValidator fluentValidator = new NetflixShowsValidator();
+
+	private final CompiledNetflixShowsValidator compiledValidator = new CompiledNetflixShowsValidator();
+
+	private final List<NetflixShowsDTO> samples = List.of(
+		show("MOVIE", "Sankofa", "Haile Gerima", "United States", 10),
+		show("TV Show", "King of Boys: The Return of the King ¶", "Kemi Adetiba",
+			"United States, The United Kingdom of Great Britain and Northern Ireland ¶", 70),
+		show("", "", "", "", 0),
+		show(null, null, null, null, null),
+		show("TV_SHOW", "Line\nbreak", "Diréctor", "x".repeat(61), 11),
+		new NetflixShowsDTO());
+
+	@Test
+	void producesSameErrorsAsFluentValidator() {
+		for (NetflixShowsDTO sample : samples) {
+			assertEquals(describe(fluentValidator.validate(sample)), describe(compiledValidator.validate(sample)));
+		}
+	}
+
+	@Test
+	void stopsAtSameErrorsAsFluentValidator() {
+		int[][] limits = {{1, 0}, {2, 0}, {0, 1}, {3, 1}}; // maxErrors, failFast
+		for (int[] limit : limits) {
+			NetflixShowsValidator limitedFluentValidator = new NetflixShowsValidator(limit[0], limit[1] == 1);
+			CompiledNetflixShowsValidator limitedCompiledValidator = new CompiledNetflixShowsValidator(limit[0], limit[1] == 1);
+
+			for (NetflixShowsDTO sample : samples) {
+				List<String> errors = describe(limitedCompiledValidator.validate(sample));
+				assertEquals(describe(limitedFluentValidator.validate(sample)), errors);
+
+				// Fail-fast keeps the errors of the first failing field only
+				List<String> allErrors = describe(compiledValidator.validate(sample));
+				int expectedSize = limit[1] == 1 && !allErrors.isEmpty()
+					? (int) allErrors.stream().takeWhile(e -> field(e).equals(field(allErrors.get(0)))).count()
+					: allErrors.size();
+				assertEquals(allErrors.subList(0, Math.min(expectedSize, limit[0] > 0 ? limit[0] : expectedSize)), errors);
+			}
+		}
+	}
+
+	@Test
+	void sharedValidatorsProduceSameErrorsOnManyThreads() throws Exception {
+		// Fresh validators so their rules are built while the threads race
+		NetflixShowsValidator sharedFluentValidator = new NetflixShowsValidator();
+		CompiledNetflixShowsValidator sharedCompiledValidator = new CompiledNetflixShowsValidator();
+
+		List<List<String>> expected = samples.stream().map(sample -> describe(fluentValidator.validate(sample))).toList();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int t = 0; t < 16; t++) {
+				tasks.add(() -> {
+					for (int n = 0; n < 500; n++) {
+						int i = n % samples.size();
+						assertEquals(expected.get(i), describe(sharedFluentValidator.validate(samples.get(i))));
+						assertEquals(expected.get(i), describe(sharedCompiledValidator.validate(samples.get(i))));
+					}
+					return null;
+				});
+			}
+
+			for (Future<Void> result : executor.invokeAll(tasks)) {
+				result.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void parallelBatchValidationMatchesSequential() {
+		List<NetflixShowsDTO> batch = new ArrayList<>();
+		for (int n = 0; n < 3000; n++) {
+			batch.add(n % 97 == 0 ? null : samples.get(n % samples.size()));
+		}
+
+		for (String mode : List.of("compiled", "fluent")) {
+			ValidatorServiceImpl sequential = new ValidatorServiceImpl(fluentValidator, compiledValidator, mode,
+				new SimpleMeterRegistry(), Integer.MAX_VALUE);
+			ValidatorServiceImpl parallel = new ValidatorServiceImpl(fluentValidator, compiledValidator, mode,
+				new SimpleMeterRegistry(), 1);
+
+			assertEquals(sequential.validateNetflixShowsBatch(batch), parallel.validateNetflixShowsBatch(batch));
+		}
+	}
+
+	private static NetflixShowsDTO show(String showType, String title, String director, String country, Integer rating) {
+		return new NetflixShowsDTO(null, showType, title, director, "Kofi Ghanaba, Oyafunmike Ogunlano", country,
+			Date.valueOf("2021-09-24"), 2024, rating, 90, "Comedies", "A woman adjusting to life after a loss.", null, null);
+	}
+
+	private static String field(String error) {
+		return error.substring(0, error.indexOf(':'));
+	}
+
+	private static List<String> describe(ValidationResult result) {
+		return result.getErrors().stream().map(e -> e.getField() + ": " + e.getMessage()).toList();
+	}
+
+}